@@ -6,6 +6,7 @@ import android.content.pm.ApplicationInfo;
 import android.content.pm.PackageManager;
 import android.os.Bundle;
 import android.util.Log;
+import android.view.View;
 
 import androidx.annotation.NonNull;
 
@@ -18,9 +19,13 @@ import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.module.annotations.ReactModule;
+import com.facebook.react.uimanager.UIManagerModule;
+
+import java.util.List;
 
 import io.github.winyh.baidumap.utils.PermissionUtils;
 
@@ -504,6 +509,413 @@ public class BaiduMapModule extends ReactContextBaseJavaModule {
 
 
 
+    /**
+     * 批量添加标记
+     */
+    @ReactMethod
+    public void addMarkers(int viewTag, ReadableArray markers, Promise promise) {
+        if (markers == null) {
+            promise.reject("1002", "markers cannot be null");
+            return;
+        }
+        
+        runOnMapView(viewTag, promise, mapView -> {
+            List<String> markerIds = mapView.addMarkers(markers);
+            WritableArray result = Arguments.createArray();
+            for (String markerId : markerIds) {
+                if (markerId != null) {
+                    result.pushString(markerId);
+                } else {
+                    result.pushNull();
+                }
+            }
+            promise.resolve(result);
+        });
+    }
+
+    /**
+     * 批量更新标记
+     */
+    @ReactMethod
+    public void updateMarkers(int viewTag, ReadableArray updates, Promise promise) {
+        if (updates == null) {
+            promise.reject("1002", "updates cannot be null");
+            return;
+        }
+        
+        runOnMapView(viewTag, promise, mapView -> promise.resolve(mapView.updateMarkers(updates)));
+    }
+
+    /**
+     * 批量删除标记
+     */
+    @ReactMethod
+    public void removeMarkers(int viewTag, ReadableArray markerIds, Promise promise) {
+        if (markerIds == null) {
+            promise.reject("1002", "markerIds cannot be null");
+            return;
+        }
+        
+        runOnMapView(viewTag, promise, mapView -> promise.resolve(mapView.removeMarkers(markerIds)));
+    }
+
+    /**
+     * 平滑移动标记
+     */
+    @ReactMethod
+    public void moveMarker(int viewTag, String markerId, ReadableMap options, Promise promise) {
+        if (markerId == null || options == null || !options.hasKey("coordinate")) {
+            promise.reject("1002", "markerId and coordinate are required");
+            return;
+        }
+        
+        ReadableMap coordinate = options.getMap("coordinate");
+        if (coordinate == null || !coordinate.hasKey("latitude") || !coordinate.hasKey("longitude")) {
+            promise.reject("1002", "Invalid coordinate");
+            return;
+        }
+        
+        double latitude = coordinate.getDouble("latitude");
+        double longitude = coordinate.getDouble("longitude");
+        long duration = options.hasKey("duration") ? (long) options.getDouble("duration") : 1000;
+        String easing = options.hasKey("easing") ? options.getString("easing") : MarkerAnimator.EASING_LINEAR;
+        float rotation = options.hasKey("rotation") ? (float) options.getDouble("rotation") : Float.NaN;
+        
+        runOnMapView(viewTag, promise, mapView ->
+            promise.resolve(mapView.moveMarker(markerId, latitude, longitude, duration, easing, rotation)));
+    }
+
+    /**
+     * 查询指定坐标附近的标记
+     */
+    @ReactMethod
+    public void queryMarkersNear(int viewTag, ReadableMap coordinate, double radiusMeters, int limit, Promise promise) {
+        if (coordinate == null || !coordinate.hasKey("latitude") || !coordinate.hasKey("longitude")) {
+            promise.reject("1002", "Invalid coordinate");
+            return;
+        }
+        
+        double latitude = coordinate.getDouble("latitude");
+        double longitude = coordinate.getDouble("longitude");
+        runOnMapView(viewTag, promise, mapView ->
+            promise.resolve(mapView.queryMarkersNear(latitude, longitude, radiusMeters, limit)));
+    }
+
+    /**
+     * 查询矩形范围内的标记
+     */
+    @ReactMethod
+    public void queryMarkersInBounds(int viewTag, ReadableMap bounds, int limit, Promise promise) {
+        if (bounds == null || !bounds.hasKey("northeast") || !bounds.hasKey("southwest")) {
+            promise.reject("1002", "bounds must contain northeast and southwest");
+            return;
+        }
+        
+        ReadableMap northeast = bounds.getMap("northeast");
+        ReadableMap southwest = bounds.getMap("southwest");
+        if (northeast == null || southwest == null
+            || !northeast.hasKey("latitude") || !northeast.hasKey("longitude")
+            || !southwest.hasKey("latitude") || !southwest.hasKey("longitude")) {
+            promise.reject("1002", "Invalid bounds");
+            return;
+        }
+        
+        double north = northeast.getDouble("latitude");
+        double east = northeast.getDouble("longitude");
+        double south = southwest.getDouble("latitude");
+        double west = southwest.getDouble("longitude");
+        runOnMapView(viewTag, promise, mapView ->
+            promise.resolve(mapView.queryMarkersInBounds(south, west, north, east, limit)));
+    }
+
+    /**
+     * 从本地文件流式导入标记，返回导入ID
+     */
+    @ReactMethod
+    public void loadMarkersFromFile(int viewTag, String uri, ReadableMap mapping, Promise promise) {
+        if (uri == null || uri.isEmpty()) {
+            promise.reject("1002", "uri cannot be empty");
+            return;
+        }
+        
+        runOnMapView(viewTag, promise, mapView -> {
+            String loadId = mapView.loadMarkersFromFile(uri, mapping);
+            if (loadId != null) {
+                promise.resolve(loadId);
+            } else {
+                promise.reject("1003", "Failed to start loading markers");
+            }
+        });
+    }
+
+    /**
+     * 取消标记文件导入
+     */
+    @ReactMethod
+    public void cancelMarkersLoad(int viewTag, String loadId, Promise promise) {
+        runOnMapView(viewTag, promise, mapView -> promise.resolve(mapView.cancelMarkersLoad(loadId)));
+    }
+
+    /**
+     * 把 GeoJSON / CSV 文件转换为二进制标记数据集
+     */
+    @ReactMethod
+    public void convertMarkerFile(int viewTag, String uri, String outputPath, ReadableMap mapping, Promise promise) {
+        if (uri == null || uri.isEmpty() || outputPath == null || outputPath.isEmpty()) {
+            promise.reject("1002", "uri and outputPath cannot be empty");
+            return;
+        }
+        
+        runOnMapView(viewTag, promise, mapView -> {
+            String taskId = mapView.convertMarkerFile(uri, outputPath, mapping);
+            if (taskId != null) {
+                promise.resolve(taskId);
+            } else {
+                promise.reject("1003", "Failed to start converting marker file");
+            }
+        });
+    }
+
+    /**
+     * 打开二进制标记数据集
+     */
+    @ReactMethod
+    public void loadMarkerDataset(int viewTag, String path, ReadableMap options, Promise promise) {
+        if (path == null || path.isEmpty()) {
+            promise.reject("1002", "path cannot be empty");
+            return;
+        }
+        
+        runOnMapView(viewTag, promise, mapView -> {
+            String datasetId = mapView.loadMarkerDataset(path, options);
+            if (datasetId != null) {
+                promise.resolve(datasetId);
+            } else {
+                promise.reject("1003", "Failed to load marker dataset: " + path);
+            }
+        });
+    }
+
+    /**
+     * 关闭二进制标记数据集
+     */
+    @ReactMethod
+    public void removeMarkerDataset(int viewTag, String datasetId, Promise promise) {
+        runOnMapView(viewTag, promise, mapView -> promise.resolve(mapView.removeMarkerDataset(datasetId)));
+    }
+
+    /**
+     * 设置标记属性过滤条件，filter 为 null 时取消过滤，返回满足条件的标记数量
+     */
+    @ReactMethod
+    public void setMarkerFilter(int viewTag, ReadableMap filter, Promise promise) {
+        runOnMapView(viewTag, promise, mapView -> {
+            try {
+                promise.resolve(mapView.setMarkerFilter(filter != null ? filter.toHashMap() : null));
+            } catch (IllegalArgumentException e) {
+                promise.reject("1002", "Invalid marker filter: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 获取标记复用池统计
+     */
+    @ReactMethod
+    public void getMarkerPoolStats(int viewTag, Promise promise) {
+        runOnMapView(viewTag, promise, mapView -> {
+            MarkerManager markerManager = mapView.getMarkerManager();
+            MarkerPool pool = markerManager != null ? markerManager.getMarkerPool() : null;
+            WritableMap result = Arguments.createMap();
+            result.putBoolean("enabled", pool != null);
+            result.putInt("size", pool != null ? pool.getSize() : 0);
+            result.putInt("maxSize", pool != null ? pool.getMaxSize() : 0);
+            result.putDouble("hitCount", pool != null ? pool.getHitCount() : 0);
+            result.putDouble("missCount", pool != null ? pool.getMissCount() : 0);
+            result.putDouble("recycledCount", pool != null ? pool.getRecycledCount() : 0);
+            result.putDouble("evictionCount", pool != null ? pool.getEvictionCount() : 0);
+            promise.resolve(result);
+        });
+    }
+
+    /**
+     * 添加折线覆盖物，返回覆盖物ID
+     * 点数较多的折线在后台构建多级简化，按缩放级别切换显示的坐标
+     */
+    @ReactMethod
+    public void addPolyline(int viewTag, ReadableMap options, Promise promise) {
+        if (options == null || !options.hasKey("coordinates")) {
+            promise.reject("1002", "coordinates cannot be empty");
+            return;
+        }
+        
+        runOnMapView(viewTag, promise, mapView -> {
+            String overlayId = mapView.addPolyline(options);
+            if (overlayId != null) {
+                promise.resolve(overlayId);
+            } else {
+                promise.reject("1003", "Failed to add polyline");
+            }
+        });
+    }
+
+    /**
+     * 批量添加覆盖物，返回与输入顺序一致的ID数组，无效的条目为 null
+     * sharedStyle 为整批共用的样式，条目中的样式字段优先
+     */
+    @ReactMethod
+    public void addOverlays(int viewTag, ReadableArray overlays, ReadableMap sharedStyle, Promise promise) {
+        if (overlays == null) {
+            promise.reject("1002", "overlays cannot be null");
+            return;
+        }
+        
+        runOnMapView(viewTag, promise, mapView -> {
+            boolean submitted = mapView.addOverlays(overlays, sharedStyle, overlayIds -> {
+                WritableArray result = Arguments.createArray();
+                for (String overlayId : overlayIds) {
+                    if (overlayId != null) {
+                        result.pushString(overlayId);
+                    } else {
+                        result.pushNull();
+                    }
+                }
+                promise.resolve(result);
+            });
+            if (!submitted) {
+                promise.reject("1003", "Failed to add overlays");
+            }
+        });
+    }
+
+    /**
+     * 更新覆盖物
+     */
+    @ReactMethod
+    public void updateOverlay(int viewTag, String overlayId, ReadableMap options, Promise promise) {
+        runOnMapView(viewTag, promise, mapView -> promise.resolve(mapView.updateOverlay(overlayId, options)));
+    }
+
+    /**
+     * 向折线末尾追加坐标，options.coordinates 只包含新增的点，返回追加后的点数
+     */
+    @ReactMethod
+    public void appendPolylinePoints(int viewTag, String overlayId, ReadableMap options, Promise promise) {
+        runOnMapView(viewTag, promise, mapView -> {
+            // 编码折线未指定精度时沿用折线添加时的精度
+            OverlayInfo overlayInfo = mapView.getOverlayInfo(overlayId);
+            int precision = overlayInfo != null
+                ? overlayInfo.getEncodedPrecision() : CoordinateDecoder.DEFAULT_ENCODED_PRECISION;
+            CoordinateBuffer points;
+            try {
+                points = CoordinateDecoder.decode(options, "coordinates", precision);
+            } catch (IllegalArgumentException e) {
+                promise.reject("1002", e.getMessage());
+                return;
+            }
+            
+            int count = mapView.appendPolylinePoints(overlayId, points);
+            if (count >= 0) {
+                promise.resolve(count);
+            } else {
+                promise.reject("1003", "Failed to append polyline points: " + overlayId);
+            }
+        });
+    }
+
+    /**
+     * 删除折线开头的若干坐标，返回删除后的点数
+     */
+    @ReactMethod
+    public void trimPolylineHead(int viewTag, String overlayId, int count, Promise promise) {
+        if (count < 0) {
+            promise.reject("1002", "count cannot be negative");
+            return;
+        }
+        
+        runOnMapView(viewTag, promise, mapView -> {
+            int remaining = mapView.trimPolylineHead(overlayId, count);
+            if (remaining >= 0) {
+                promise.resolve(remaining);
+            } else {
+                promise.reject("1003", "Failed to trim polyline: " + overlayId);
+            }
+        });
+    }
+
+    /**
+     * 删除覆盖物
+     */
+    @ReactMethod
+    public void removeOverlay(int viewTag, String overlayId, Promise promise) {
+        runOnMapView(viewTag, promise, mapView -> promise.resolve(mapView.removeOverlay(overlayId)));
+    }
+
+    /**
+     * 获取标记图标缓存统计
+     */
+    @ReactMethod
+    public void getMarkerIconCacheStats(Promise promise) {
+        try {
+            BitmapDescriptorCache cache = BitmapDescriptorCache.getInstance(reactContext);
+            WritableMap result = Arguments.createMap();
+            result.putDouble("hitCount", cache.getHitCount());
+            result.putDouble("missCount", cache.getMissCount());
+            result.putDouble("evictionCount", cache.getEvictionCount());
+            result.putInt("entryCount", cache.getEntryCount());
+            result.putInt("sizeBytes", cache.getSize());
+            result.putInt("maxSizeBytes", cache.getMaxSize());
+            promise.resolve(result);
+        } catch (Exception e) {
+            promise.reject("1003", "Failed to get icon cache stats: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 清空标记图标缓存
+     */
+    @ReactMethod
+    public void clearMarkerIconCache(Promise promise) {
+        BitmapDescriptorCache.getInstance(reactContext).clear();
+        promise.resolve(true);
+    }
+
+    /**
+     * 在 UI 线程上解析地图视图并执行操作
+     */
+    private void runOnMapView(int viewTag, Promise promise, MapViewBlock block) {
+        UIManagerModule uiManager = reactContext.getNativeModule(UIManagerModule.class);
+        if (uiManager == null) {
+            promise.reject("1003", "UIManagerModule not available");
+            return;
+        }
+        
+        uiManager.addUIBlock(nativeViewHierarchyManager -> {
+            try {
+                View view = nativeViewHierarchyManager.resolveView(viewTag);
+                if (!(view instanceof BaiduMapView)) {
+                    promise.reject("1003", "MapView not found for tag: " + viewTag);
+                    return;
+                }
+                
+                BaiduMapView mapView = (BaiduMapView) view;
+                if (!mapView.isMapReady()) {
+                    promise.reject("6001", "MapView is not ready yet");
+                    return;
+                }
+                
+                block.run(mapView);
+            } catch (Exception e) {
+                Log.e(TAG, "Map view operation failed", e);
+                promise.reject("1003", "Map view operation failed: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    private interface MapViewBlock {
+        void run(BaiduMapView mapView);
+    }
+
     @Override
     public void onCatalystInstanceDestroy() {
         super.onCatalystInstanceDestroy();
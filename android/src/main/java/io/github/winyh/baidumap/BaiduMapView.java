@@ -10,7 +10,9 @@ import androidx.annotation.NonNull;
 
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReactContext;
+import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.uimanager.events.RCTEventEmitter;
 
@@ -24,6 +26,10 @@ import com.baidu.mapapi.map.UiSettings;
 import com.baidu.mapapi.model.LatLng;
 import com.baidu.mapapi.model.LatLngBounds;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 public class BaiduMapView extends FrameLayout {
     private static final String TAG = "BaiduMapView";
     
@@ -76,6 +82,30 @@ public class BaiduMapView extends FrameLayout {
     private int paddingRight = 0;
     private int paddingBottom = 0;
     
+    // 标记聚合
+    private boolean clusteringEnabled = false;
+    private int clusterRadius = MarkerClusterer.DEFAULT_RADIUS;
+    
+    // 视口裁剪
+    private boolean cullingEnabled = false;
+    private float cullingMargin = MarkerManager.DEFAULT_CULLING_MARGIN;
+    
+    // 标记碰撞检测
+    private boolean markerDeclutterEnabled = false;
+    
+    // 视口内最多显示的标记数量，0 表示不限
+    private int markerRenderBudget = 0;
+    
+    // 标记复用池
+    private int markerPoolSize = 0;
+    
+    // 拖拽事件发送间隔（毫秒），0 表示每帧最多一次
+    private int markerDragEventInterval = 0;
+    
+    // 按帧时间预算分片执行大批量标记和覆盖物操作
+    private FrameScheduler frameScheduler;
+    private float renderFrameBudget = FrameScheduler.DEFAULT_FRAME_BUDGET_MS;
+    
     // 待执行的操作队列
     private boolean hasPendingOperations = false;
 
@@ -129,6 +159,12 @@ public class BaiduMapView extends FrameLayout {
                     centerLatitude = mapStatus.target.latitude;
                     centerLongitude = mapStatus.target.longitude;
                     zoomLevel = mapStatus.zoom;
+                    if (markerManager != null) {
+                        markerManager.onMapStatusChangeFinish(mapStatus);
+                    }
+                    if (overlayManager != null) {
+                        overlayManager.onMapStatusChangeFinish(mapStatus);
+                    }
                     sendMapStatusChangeEvent();
                 }
             });
@@ -157,6 +193,14 @@ public class BaiduMapView extends FrameLayout {
                 
                 // 初始化管理器
                 markerManager = new MarkerManager(reactContext, this);
+                markerManager.setClusterRadius(clusterRadius);
+                markerManager.setClusteringEnabled(clusteringEnabled);
+                markerManager.setCullingMargin(cullingMargin);
+                markerManager.setCullingEnabled(cullingEnabled);
+                markerManager.setMarkerPoolSize(markerPoolSize);
+                markerManager.setDeclutterEnabled(markerDeclutterEnabled);
+                markerManager.setRenderBudget(markerRenderBudget);
+                markerManager.setDragEventInterval(markerDragEventInterval);
                 infoWindowManager = new InfoWindowManager(reactContext, this);
                 overlayManager = new OverlayManager(reactContext, this);
                 
@@ -441,6 +485,112 @@ public class BaiduMapView extends FrameLayout {
         }
     }
 
+    public void setClusteringEnabled(boolean enabled) {
+        this.clusteringEnabled = enabled;
+        
+        if (markerManager != null) {
+            markerManager.setClusteringEnabled(enabled);
+        }
+    }
+
+    public void setClusterRadius(int radius) {
+        this.clusterRadius = radius;
+        
+        if (markerManager != null) {
+            markerManager.setClusterRadius(radius);
+        }
+    }
+
+    public void setMarkerCullingEnabled(boolean enabled) {
+        this.cullingEnabled = enabled;
+        
+        if (markerManager != null) {
+            markerManager.setCullingEnabled(enabled);
+        }
+    }
+
+    public void setMarkerCullingMargin(float margin) {
+        this.cullingMargin = margin;
+        
+        if (markerManager != null) {
+            markerManager.setCullingMargin(margin);
+        }
+    }
+
+    /**
+     * 设置标记拖拽事件的最小发送间隔（毫秒）
+     */
+    public void setMarkerDragEventInterval(int intervalMs) {
+        this.markerDragEventInterval = intervalMs;
+        
+        if (markerManager != null) {
+            markerManager.setDragEventInterval(intervalMs);
+        }
+    }
+
+    /**
+     * 开启或关闭标记碰撞检测
+     */
+    public void setMarkerDeclutterEnabled(boolean enabled) {
+        this.markerDeclutterEnabled = enabled;
+        
+        if (markerManager != null) {
+            markerManager.setDeclutterEnabled(enabled);
+        }
+    }
+
+    /**
+     * 设置视口内最多显示的标记数量，0 表示不限
+     */
+    public void setMarkerRenderBudget(int maxMarkers) {
+        this.markerRenderBudget = maxMarkers;
+        
+        if (markerManager != null) {
+            markerManager.setRenderBudget(maxMarkers);
+        }
+    }
+
+    /**
+     * 设置标记复用池大小，0 表示关闭
+     */
+    public void setMarkerPoolSize(int size) {
+        this.markerPoolSize = size;
+        
+        if (markerManager != null) {
+            markerManager.setMarkerPoolSize(size);
+        }
+    }
+
+    /**
+     * 设置分片渲染每帧的时间预算（毫秒）
+     */
+    public void setRenderFrameBudget(float budgetMs) {
+        this.renderFrameBudget = budgetMs;
+        
+        if (frameScheduler != null) {
+            frameScheduler.setFrameBudget(budgetMs);
+        }
+    }
+
+    /**
+     * 获取分片渲染调度器，首次调用时创建；视图销毁后返回 null
+     */
+    public FrameScheduler getFrameScheduler() {
+        if (frameScheduler == null && mapView != null) {
+            frameScheduler = new FrameScheduler(this::sendRenderCompleteEvent);
+            frameScheduler.setFrameBudget(renderFrameBudget);
+        }
+        return frameScheduler;
+    }
+
+    private void sendRenderCompleteEvent(int taskCount, int frameCount, long elapsedMs) {
+        WritableMap event = Arguments.createMap();
+        event.putInt("taskCount", taskCount);
+        event.putInt("frameCount", frameCount);
+        event.putDouble("duration", elapsedMs);
+        reactContext.getJSModule(RCTEventEmitter.class).receiveEvent(getId(), "onRenderComplete", event);
+    }
+
     private void sendMapReadyEvent() {
         WritableMap event = Arguments.createMap();
         reactContext.getJSModule(RCTEventEmitter.class).receiveEvent(getId(), "onMapReady", event);
@@ -573,6 +723,20 @@ public class BaiduMapView extends FrameLayout {
         return false;
     }
 
+    public String addMarker(MarkerInfo markerInfo) {
+        if (markerManager != null) {
+            return markerManager.addMarker(markerInfo);
+        }
+        return null;
+    }
+
+    public boolean updateMarker(String markerId, MarkerInfo source, int fields) {
+        if (markerManager != null) {
+            return markerManager.updateMarker(markerId, source, fields);
+        }
+        return false;
+    }
+
     public boolean removeMarker(String markerId) {
         if (markerManager != null) {
             return markerManager.removeMarker(markerId);
@@ -580,6 +744,91 @@ public class BaiduMapView extends FrameLayout {
         return false;
     }
 
+    public boolean moveMarker(String markerId, double latitude, double longitude,
+                              long durationMs, String easing, float rotation) {
+        if (markerManager != null) {
+            return markerManager.moveMarker(markerId, latitude, longitude, durationMs, easing, rotation);
+        }
+        return false;
+    }
+
+    public List<String> addMarkers(ReadableArray markerOptionsArray) {
+        if (markerManager != null) {
+            return markerManager.addMarkers(markerOptionsArray);
+        }
+        return new ArrayList<>();
+    }
+
+    public int updateMarkers(ReadableArray updates) {
+        if (markerManager != null) {
+            return markerManager.updateMarkers(updates);
+        }
+        return 0;
+    }
+
+    public int removeMarkers(ReadableArray markerIds) {
+        if (markerManager != null) {
+            return markerManager.removeMarkers(markerIds);
+        }
+        return 0;
+    }
+
+    public WritableArray queryMarkersNear(double latitude, double longitude, double radiusMeters, int limit) {
+        if (markerManager != null) {
+            return markerManager.queryMarkersNear(latitude, longitude, radiusMeters, limit);
+        }
+        return Arguments.createArray();
+    }
+
+    public WritableArray queryMarkersInBounds(double south, double west, double north, double east, int limit) {
+        if (markerManager != null) {
+            return markerManager.queryMarkersInBounds(south, west, north, east, limit);
+        }
+        return Arguments.createArray();
+    }
+
+    public String loadMarkersFromFile(String uri, ReadableMap mapping) {
+        if (markerManager != null) {
+            return markerManager.loadMarkersFromFile(uri, mapping);
+        }
+        return null;
+    }
+
+    public boolean cancelMarkersLoad(String loadId) {
+        if (markerManager != null) {
+            return markerManager.cancelMarkersLoad(loadId);
+        }
+        return false;
+    }
+
+    public String convertMarkerFile(String uri, String outputPath, ReadableMap mapping) {
+        if (markerManager != null) {
+            return markerManager.convertMarkerFile(uri, outputPath, mapping);
+        }
+        return null;
+    }
+
+    public String loadMarkerDataset(String path, ReadableMap options) {
+        if (markerManager != null) {
+            return markerManager.loadMarkerDataset(path, options);
+        }
+        return null;
+    }
+
+    public boolean removeMarkerDataset(String datasetId) {
+        if (markerManager != null) {
+            return markerManager.removeMarkerDataset(datasetId);
+        }
+        return false;
+    }
+
+    public int setMarkerFilter(Map<String, Object> expression) {
+        if (markerManager != null) {
+            return markerManager.setMarkerFilter(expression);
+        }
+        return 0;
+    }
+
     public void removeAllMarkers() {
         if (markerManager != null) {
             markerManager.removeAllMarkers();
@@ -608,6 +857,14 @@ public class BaiduMapView extends FrameLayout {
         }
     }
 
+    public BaiduMap getBaiduMap() {
+        return baiduMap;
+    }
+
+    public boolean isMapReady() {
+        return isMapReady;
+    }
+
     public MarkerManager getMarkerManager() {
         return markerManager;
     }
@@ -640,6 +897,13 @@ public class BaiduMapView extends FrameLayout {
         return null;
     }
 
+    public boolean addOverlays(ReadableArray items, ReadableMap sharedStyle, OverlayManager.BatchCallback callback) {
+        if (overlayManager != null) {
+            return overlayManager.addOverlays(items, sharedStyle, callback);
+        }
+        return false;
+    }
+
     public boolean updateOverlay(String overlayId, ReadableMap options) {
         if (overlayManager != null) {
             return overlayManager.updateOverlay(overlayId, options);
@@ -654,6 +918,27 @@ public class BaiduMapView extends FrameLayout {
         return false;
     }
 
+    public int appendPolylinePoints(String overlayId, CoordinateBuffer points) {
+        if (overlayManager != null) {
+            return overlayManager.appendPolylinePoints(overlayId, points);
+        }
+        return -1;
+    }
+
+    public OverlayInfo getOverlayInfo(String overlayId) {
+        if (overlayManager != null) {
+            return overlayManager.getOverlayInfo(overlayId);
+        }
+        return null;
+    }
+
+    public int trimPolylineHead(String overlayId, int count) {
+        if (overlayManager != null) {
+            return overlayManager.trimPolylineHead(overlayId, count);
+        }
+        return -1;
+    }
+
     public void removeAllOverlays() {
         if (overlayManager != null) {
             overlayManager.removeAllOverlays();
@@ -680,6 +965,12 @@ public class BaiduMapView extends FrameLayout {
                 infoWindowManager = null;
             }
             
+            // 丢弃尚未执行的分片
+            if (frameScheduler != null) {
+                frameScheduler.clear();
+                frameScheduler = null;
+            }
+            
             // 清理标记管理器
             if (markerManager != null) {
                 markerManager.destroy();
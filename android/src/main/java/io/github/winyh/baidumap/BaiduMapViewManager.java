@@ -143,6 +143,51 @@ public class BaiduMapViewManager extends SimpleViewManager<BaiduMapView> {
         }
     }
 
+    @ReactProp(name = "clusteringEnabled")
+    public void setClusteringEnabled(BaiduMapView view, boolean enabled) {
+        view.setClusteringEnabled(enabled);
+    }
+
+    @ReactProp(name = "clusterRadius", defaultInt = MarkerClusterer.DEFAULT_RADIUS)
+    public void setClusterRadius(BaiduMapView view, int radius) {
+        view.setClusterRadius(radius);
+    }
+
+    @ReactProp(name = "markerCullingEnabled")
+    public void setMarkerCullingEnabled(BaiduMapView view, boolean enabled) {
+        view.setMarkerCullingEnabled(enabled);
+    }
+
+    @ReactProp(name = "markerCullingMargin", defaultFloat = MarkerManager.DEFAULT_CULLING_MARGIN)
+    public void setMarkerCullingMargin(BaiduMapView view, float margin) {
+        view.setMarkerCullingMargin(margin);
+    }
+
+    @ReactProp(name = "markerDragEventInterval", defaultInt = 0)
+    public void setMarkerDragEventInterval(BaiduMapView view, int intervalMs) {
+        view.setMarkerDragEventInterval(intervalMs);
+    }
+
+    @ReactProp(name = "markerDeclutterEnabled", defaultBoolean = false)
+    public void setMarkerDeclutterEnabled(BaiduMapView view, boolean enabled) {
+        view.setMarkerDeclutterEnabled(enabled);
+    }
+
+    @ReactProp(name = "markerRenderBudget", defaultInt = 0)
+    public void setMarkerRenderBudget(BaiduMapView view, int maxMarkers) {
+        view.setMarkerRenderBudget(maxMarkers);
+    }
+
+    @ReactProp(name = "markerPoolSize", defaultInt = 0)
+    public void setMarkerPoolSize(BaiduMapView view, int size) {
+        view.setMarkerPoolSize(size);
+    }
+
+    @ReactProp(name = "renderFrameBudget", defaultFloat = FrameScheduler.DEFAULT_FRAME_BUDGET_MS)
+    public void setRenderFrameBudget(BaiduMapView view, float budgetMs) {
+        view.setRenderFrameBudget(budgetMs);
+    }
+
     @Override
     public void onDropViewInstance(@NonNull BaiduMapView view) {
         view.onDestroy();
@@ -173,6 +218,10 @@ public class BaiduMapViewManager extends SimpleViewManager<BaiduMapView> {
             .put("onMarkerDragStart", MapBuilder.of("registrationName", "onMarkerDragStart"))
             .put("onMarkerDrag", MapBuilder.of("registrationName", "onMarkerDrag"))
             .put("onMarkerDragEnd", MapBuilder.of("registrationName", "onMarkerDragEnd"))
+            .put("onClusterPress", MapBuilder.of("registrationName", "onClusterPress"))
+            .put("onMarkersLoadProgress", MapBuilder.of("registrationName", "onMarkersLoadProgress"))
+            .put("onRenderComplete", MapBuilder.of("registrationName", "onRenderComplete"))
+            .put("onMarkerBudgetChange", MapBuilder.of("registrationName", "onMarkerBudgetChange"))
             .build();
     }
 
@@ -0,0 +1,147 @@
+package io.github.winyh.baidumap;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+
+import com.baidu.mapapi.map.BitmapDescriptor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 标记图标缓存
+ * 进程级 LRU 缓存，以图标 URI 和目标尺寸为键，按位图字节数限制容量，
+ * 所有地图实例共享，并在系统内存紧张时自动收缩。
+ */
+public class BitmapDescriptorCache implements ComponentCallbacks2 {
+    private static final String TAG = "BaiduIconCache";
+    private static final int MAX_CACHE_BYTES = 32 * 1024 * 1024;
+
+    private static volatile BitmapDescriptorCache instance;
+
+    private final LruCache<String, BitmapDescriptor> cache;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    private BitmapDescriptorCache(int maxBytes) {
+        this.cache = new LruCache<String, BitmapDescriptor>(maxBytes) {
+            @Override
+            protected int sizeOf(String key, BitmapDescriptor value) {
+                return byteCountOf(value);
+            }
+
+            @Override
+            protected void entryRemoved(boolean evicted, String key,
+                                        BitmapDescriptor oldValue, BitmapDescriptor newValue) {
+                // 已添加到地图上的标记仍持有图标引用，这里只释放缓存引用，不回收位图
+                if (evicted) {
+                    evictionCount.incrementAndGet();
+                }
+            }
+        };
+    }
+
+    /**
+     * 获取进程级缓存实例，首次调用时注册内存回调
+     */
+    public static BitmapDescriptorCache getInstance(Context context) {
+        if (instance == null) {
+            synchronized (BitmapDescriptorCache.class) {
+                if (instance == null) {
+                    int maxBytes = (int) Math.min(MAX_CACHE_BYTES, Runtime.getRuntime().maxMemory() / 16);
+                    instance = new BitmapDescriptorCache(maxBytes);
+                    context.getApplicationContext().registerComponentCallbacks(instance);
+                    Log.d(TAG, "Icon cache created, max bytes: " + maxBytes);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 生成缓存键
+     */
+    public static String key(String iconUri, int targetSizePx) {
+        return targetSizePx > 0 ? iconUri + "@" + targetSizePx : iconUri;
+    }
+
+    public BitmapDescriptor get(String key) {
+        BitmapDescriptor descriptor = cache.get(key);
+        if (descriptor != null) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+        }
+        return descriptor;
+    }
+
+    public void put(String key, BitmapDescriptor descriptor) {
+        if (key != null && descriptor != null) {
+            cache.put(key, descriptor);
+        }
+    }
+
+    public void clear() {
+        cache.evictAll();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public int getSize() {
+        return cache.size();
+    }
+
+    public int getMaxSize() {
+        return cache.maxSize();
+    }
+
+    public int getEntryCount() {
+        return cache.snapshot().size();
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_MODERATE) {
+            Log.d(TAG, "Trim memory level " + level + ", clearing icon cache");
+            cache.evictAll();
+        } else if (level >= TRIM_MEMORY_BACKGROUND || level == TRIM_MEMORY_RUNNING_LOW
+            || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            Log.d(TAG, "Trim memory level " + level + ", shrinking icon cache");
+            cache.trimToSize(cache.size() / 2);
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        cache.evictAll();
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfig) {
+        // 不处理
+    }
+
+    private static int byteCountOf(BitmapDescriptor descriptor) {
+        Bitmap bitmap = descriptor != null ? descriptor.getBitmap() : null;
+        if (bitmap == null || bitmap.isRecycled()) {
+            return 1;
+        }
+        return Math.max(1, bitmap.getByteCount());
+    }
+}
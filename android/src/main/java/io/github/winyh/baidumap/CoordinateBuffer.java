@@ -0,0 +1,115 @@
+package io.github.winyh.baidumap;
+
+import com.baidu.mapapi.model.LatLng;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 覆盖物坐标的紧凑存储
+ * 坐标按 lat, lng 交错保存在一个 double 数组中，每个点 16 字节，不为每个点创建对象；
+ * 百度地图需要的 LatLng 列表在设置到覆盖物时按需生成。
+ * 头部裁剪只移动起始位置，空出的部分在追加扩容时回收，追加和裁剪的均摊开销都是 O(1)。
+ */
+public class CoordinateBuffer {
+    private double[] values;
+    private int start; // 第一个点在数组中的位置（点）
+    private int size;
+
+    public CoordinateBuffer() {
+        this(16);
+    }
+
+    public CoordinateBuffer(int capacity) {
+        values = new double[Math.max(1, capacity) * 2];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public double getLatitude(int index) {
+        return values[(start + index) * 2];
+    }
+
+    public double getLongitude(int index) {
+        return values[(start + index) * 2 + 1];
+    }
+
+    public void add(double latitude, double longitude) {
+        ensureCapacity(size + 1);
+        int offset = (start + size) * 2;
+        values[offset] = latitude;
+        values[offset + 1] = longitude;
+        size++;
+    }
+
+    public void addAll(CoordinateBuffer other) {
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.values, other.start * 2, values, (start + size) * 2, other.size * 2);
+        size += other.size;
+    }
+
+    /**
+     * 删除开头的 count 个点
+     */
+    public void trimHead(int count) {
+        int trimCount = Math.min(count, size);
+        start += trimCount;
+        size -= trimCount;
+        if (size == 0) {
+            start = 0;
+        }
+    }
+
+    /**
+     * 紧凑的 [lat, lng, ...] 副本
+     */
+    public double[] toArray() {
+        return Arrays.copyOfRange(values, start * 2, (start + size) * 2);
+    }
+
+    public List<LatLng> toLatLngList() {
+        return toLatLngList(0, size);
+    }
+
+    /**
+     * 生成 [from, to) 范围内的 LatLng 列表
+     */
+    public List<LatLng> toLatLngList(int from, int to) {
+        List<LatLng> points = new ArrayList<>(Math.max(0, to - from));
+        appendTo(points, from, to);
+        return points;
+    }
+
+    /**
+     * 把 [from, to) 范围内的点追加到 points
+     */
+    public void appendTo(List<LatLng> points, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int offset = (start + i) * 2;
+            points.add(new LatLng(values[offset], values[offset + 1]));
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        int capacity = values.length / 2;
+        if (start + required <= capacity) {
+            return;
+        }
+        if (required <= capacity / 2) {
+            // 头部空出的部分足够，直接前移
+            System.arraycopy(values, start * 2, values, 0, size * 2);
+        } else {
+            double[] grown = new double[Math.max(required, capacity * 2) * 2];
+            System.arraycopy(values, start * 2, grown, 0, size * 2);
+            values = grown;
+        }
+        start = 0;
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.winyh.baidumap;
+
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
+
+/**
+ * 覆盖物坐标解码
+ * 支持三种输入，都直接写入 CoordinateBuffer，不创建逐点对象：
+ *   [{ latitude, longitude }, ...]   对象数组
+ *   [lat, lng, lat, lng, ...]         扁平数字数组，每个点只需两次 getDouble
+ *   "_p~iF~ps|U_ulLnnqC..."           Google 编码折线字符串，精度由 encodedPrecision 指定（默认 5）
+ */
+public final class CoordinateDecoder {
+    public static final int DEFAULT_ENCODED_PRECISION = 5;
+
+    private CoordinateDecoder() {
+    }
+
+    /**
+     * 解码选项中 key 对应的坐标，不存在时返回空列表；格式错误时抛出 IllegalArgumentException
+     */
+    public static CoordinateBuffer decode(ReadableMap options, String key) {
+        return decode(options, key, DEFAULT_ENCODED_PRECISION);
+    }
+
+    /**
+     * 同 decode(options, key)，编码折线且选项中没有 encodedPrecision 时使用 defaultPrecision
+     */
+    public static CoordinateBuffer decode(ReadableMap options, String key, int defaultPrecision) {
+        if (options == null || !options.hasKey(key) || options.isNull(key)) {
+            return new CoordinateBuffer();
+        }
+        if (options.getType(key) == ReadableType.String) {
+            int precision = options.hasKey("encodedPrecision")
+                ? options.getInt("encodedPrecision") : defaultPrecision;
+            return decodeEncodedPolyline(options.getString(key), precision);
+        }
+        ReadableArray array = options.getArray(key);
+        if (array == null || array.size() == 0) {
+            return new CoordinateBuffer();
+        }
+        return array.getType(0) == ReadableType.Number ? decodeFlatArray(array) : decodeObjectArray(array);
+    }
+
+    /**
+     * 解码 [lat, lng, lat, lng, ...]
+     */
+    public static CoordinateBuffer decodeFlatArray(ReadableArray array) {
+        int size = array.size();
+        if (size % 2 != 0) {
+            throw new IllegalArgumentException("Flat coordinate array must have an even length");
+        }
+        CoordinateBuffer points = new CoordinateBuffer(size / 2);
+        for (int i = 0; i < size; i += 2) {
+            points.add(array.getDouble(i), array.getDouble(i + 1));
+        }
+        return points;
+    }
+
+    /**
+     * 解码 [{ latitude, longitude }, ...]，缺少字段的条目被跳过
+     */
+    public static CoordinateBuffer decodeObjectArray(ReadableArray array) {
+        CoordinateBuffer points = new CoordinateBuffer(array.size());
+        for (int i = 0; i < array.size(); i++) {
+            ReadableMap coordinate = array.getMap(i);
+            if (coordinate != null && coordinate.hasKey("latitude") && coordinate.hasKey("longitude")) {
+                points.add(coordinate.getDouble("latitude"), coordinate.getDouble("longitude"));
+            }
+        }
+        return points;
+    }
+
+    /**
+     * 解码 Google 编码折线，precision 为坐标小数位数（polyline5 为 5，polyline6 为 6）
+     */
+    public static CoordinateBuffer decodeEncodedPolyline(String encoded, int precision) {
+        double factor = Math.pow(10, precision);
+        int length = encoded.length();
+        // 每个点至少占两个字符
+        CoordinateBuffer points = new CoordinateBuffer(length / 4);
+        int index = 0;
+        int latitude = 0;
+        int longitude = 0;
+        while (index < length) {
+            int result = 0;
+            int shift = 0;
+            int b;
+            do {
+                if (index >= length) {
+                    throw new IllegalArgumentException("Truncated encoded polyline");
+                }
+                b = encoded.charAt(index++) - 63;
+                if (b < 0 || b > 0x3f) {
+                    throw new IllegalArgumentException("Invalid character in encoded polyline");
+                }
+                result |= (b & 0x1f) << shift;
+                shift += 5;
+            } while (b >= 0x20);
+            latitude += (result & 1) != 0 ? ~(result >> 1) : (result >> 1);
+
+            result = 0;
+            shift = 0;
+            do {
+                if (index >= length) {
+                    throw new IllegalArgumentException("Truncated encoded polyline");
+                }
+                b = encoded.charAt(index++) - 63;
+                if (b < 0 || b > 0x3f) {
+                    throw new IllegalArgumentException("Invalid character in encoded polyline");
+                }
+                result |= (b & 0x1f) << shift;
+                shift += 5;
+            } while (b >= 0x20);
+            longitude += (result & 1) != 0 ? ~(result >> 1) : (result >> 1);
+
+            points.add(latitude / factor, longitude / factor);
+        }
+        return points;
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.winyh.baidumap;
+
+import java.util.Arrays;
+
+/**
+ * 可增长的 double 列表，避免装箱
+ */
+public class DoubleArrayList {
+    private double[] values;
+    private int size;
+
+    public DoubleArrayList() {
+        this(16);
+    }
+
+    public DoubleArrayList(int initialCapacity) {
+        this.values = new double[Math.max(1, initialCapacity)];
+    }
+
+    public void add(double value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    public double get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return values[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public double[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.winyh.baidumap;
+
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.Choreographer;
+
+import java.util.ArrayDeque;
+
+/**
+ * 按帧时间预算分片执行的任务队列
+ * 由 Choreographer 驱动，每帧从高优先级队列开始执行任务，超过预算后留到下一帧，
+ * 每帧至少执行一个任务保证进度；队列清空时通知监听器。只能在主线程使用。
+ */
+public class FrameScheduler implements Choreographer.FrameCallback {
+    private static final String TAG = "BaiduFrameScheduler";
+    public static final float DEFAULT_FRAME_BUDGET_MS = 4f;
+
+    public interface Listener {
+        void onQueueDrained(int taskCount, int frameCount, long elapsedMs);
+    }
+
+    private final ArrayDeque<Runnable> highPriorityTasks = new ArrayDeque<>();
+    private final ArrayDeque<Runnable> lowPriorityTasks = new ArrayDeque<>();
+    private final Choreographer choreographer;
+    private final Listener listener;
+    private long budgetNanos = (long) (DEFAULT_FRAME_BUDGET_MS * 1_000_000L);
+    private boolean frameScheduled = false;
+
+    // 当前这一轮（从队列非空到清空）的统计
+    private int taskCount;
+    private int frameCount;
+    private long startTime;
+
+    public FrameScheduler(Listener listener) {
+        this.choreographer = Choreographer.getInstance();
+        this.listener = listener;
+    }
+
+    /**
+     * 设置每帧的时间预算（毫秒）
+     */
+    public void setFrameBudget(float budgetMs) {
+        budgetNanos = (long) (Math.max(0.5f, budgetMs) * 1_000_000L);
+    }
+
+    /**
+     * 加入任务，高优先级任务（如视口内的标记）先于低优先级任务执行
+     */
+    public void post(Runnable task, boolean highPriority) {
+        if (highPriority) {
+            highPriorityTasks.add(task);
+        } else {
+            lowPriorityTasks.add(task);
+        }
+        if (taskCount == 0 && frameCount == 0) {
+            startTime = SystemClock.uptimeMillis();
+        }
+        scheduleFrame();
+    }
+
+    public boolean isIdle() {
+        return highPriorityTasks.isEmpty() && lowPriorityTasks.isEmpty();
+    }
+
+    public int getPendingCount() {
+        return highPriorityTasks.size() + lowPriorityTasks.size();
+    }
+
+    /**
+     * 丢弃所有待执行任务，不触发完成通知
+     */
+    public void clear() {
+        highPriorityTasks.clear();
+        lowPriorityTasks.clear();
+        taskCount = 0;
+        frameCount = 0;
+        if (frameScheduled) {
+            choreographer.removeFrameCallback(this);
+            frameScheduled = false;
+        }
+    }
+
+    private void scheduleFrame() {
+        if (!frameScheduled) {
+            frameScheduled = true;
+            choreographer.postFrameCallback(this);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        frameScheduled = false;
+        frameCount++;
+
+        long start = System.nanoTime();
+        do {
+            Runnable task = highPriorityTasks.poll();
+            if (task == null) {
+                task = lowPriorityTasks.poll();
+            }
+            if (task == null) {
+                break;
+            }
+            try {
+                task.run();
+            } catch (Exception e) {
+                Log.e(TAG, "Scheduled task failed", e);
+            }
+            taskCount++;
+        } while (System.nanoTime() - start < budgetNanos);
+
+        if (!isIdle()) {
+            scheduleFrame();
+            return;
+        }
+
+        int tasks = taskCount;
+        int frames = frameCount;
+        taskCount = 0;
+        frameCount = 0;
+        if (listener != null && tasks > 0) {
+            listener.onQueueDrained(tasks, frames, SystemClock.uptimeMillis() - startTime);
+        }
+    }
+}
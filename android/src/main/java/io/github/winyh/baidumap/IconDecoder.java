@@ -0,0 +1,257 @@
+package io.github.winyh.baidumap;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.baidu.mapapi.map.BitmapDescriptor;
+import com.baidu.mapapi.map.BitmapDescriptorFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 图标解码管线
+ * 在工作线程中先读取图片尺寸，按目标像素计算采样率后解码，
+ * 解码缓冲区在多次解码间复用（inBitmap），结果批量投递回主线程。
+ */
+public class IconDecoder {
+    private static final String TAG = "BaiduIconDecoder";
+    // 超过该大小的解码缓冲区不保留复用，避免长期占用内存
+    private static final int MAX_SCRATCH_BYTES = 4 * 1024 * 1024;
+
+    private static volatile IconDecoder instance;
+
+    private final Context appContext;
+    private final BitmapDescriptorCache memoryCache;
+    // 单线程执行，保证复用缓冲区只被一个解码任务使用
+    private final ExecutorService decodeExecutor;
+    private final Handler mainHandler;
+
+    private final Map<String, List<IconLoadCallback>> inFlight = new HashMap<>();
+    private final List<DecodeResult> completed = new ArrayList<>();
+    private boolean flushScheduled = false;
+
+    private Bitmap scratchBitmap;
+
+    private IconDecoder(Context context) {
+        this.appContext = context.getApplicationContext();
+        this.memoryCache = BitmapDescriptorCache.getInstance(appContext);
+        this.decodeExecutor = Executors.newSingleThreadExecutor();
+        this.mainHandler = new Handler(Looper.getMainLooper());
+    }
+
+    public static IconDecoder getInstance(Context context) {
+        if (instance == null) {
+            synchronized (IconDecoder.class) {
+                if (instance == null) {
+                    instance = new IconDecoder(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 异步解码图标，结果写入进程级图标缓存
+     * iconUri 支持 file:// 路径、绝对路径和 drawable 资源名
+     */
+    public void decode(String cacheKey, String iconUri, int targetSizePx, IconLoadCallback callback) {
+        synchronized (inFlight) {
+            List<IconLoadCallback> callbacks = inFlight.get(cacheKey);
+            if (callbacks != null) {
+                callbacks.add(callback);
+                return;
+            }
+            callbacks = new ArrayList<>();
+            callbacks.add(callback);
+            inFlight.put(cacheKey, callbacks);
+        }
+
+        decodeExecutor.execute(() -> {
+            BitmapDescriptor icon = null;
+            Exception error = null;
+            try {
+                icon = decodeDescriptor(iconUri, targetSizePx);
+                if (icon == null) {
+                    error = new IOException("Unable to decode icon: " + iconUri);
+                } else {
+                    memoryCache.put(cacheKey, icon);
+                }
+            } catch (Exception e) {
+                error = e;
+            }
+            enqueueResult(new DecodeResult(cacheKey, icon, error));
+        });
+    }
+
+    private BitmapDescriptor decodeDescriptor(String iconUri, int targetSizePx) {
+        Bitmap bitmap = decodeSampled(iconUri, targetSizePx);
+        if (bitmap != null) {
+            return BitmapDescriptorFactory.fromBitmap(bitmap);
+        }
+
+        // 矢量等无法直接解码为位图的资源交给 SDK 处理
+        int resourceId = resolveResourceId(iconUri);
+        return resourceId != 0 ? BitmapDescriptorFactory.fromResource(resourceId) : null;
+    }
+
+    /**
+     * 按目标尺寸采样解码，返回独立的不可变位图
+     */
+    private Bitmap decodeSampled(String iconUri, int targetSizePx) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        decodeSource(iconUri, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return null;
+        }
+
+        int sampleSize = calculateInSampleSize(options.outWidth, options.outHeight, targetSizePx);
+        int sampledWidth = (options.outWidth + sampleSize - 1) / sampleSize;
+        int sampledHeight = (options.outHeight + sampleSize - 1) / sampleSize;
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sampleSize;
+        options.inMutable = true;
+        if (scratchBitmap != null && !scratchBitmap.isRecycled()
+            && scratchBitmap.getAllocationByteCount() >= sampledWidth * sampledHeight * 4) {
+            options.inBitmap = scratchBitmap;
+        }
+
+        Bitmap decoded;
+        try {
+            decoded = decodeSource(iconUri, options);
+        } catch (IllegalArgumentException e) {
+            // 缓冲区不兼容时退回普通解码
+            options.inBitmap = null;
+            decoded = decodeSource(iconUri, options);
+        }
+        if (decoded == null) {
+            return null;
+        }
+        if (decoded != scratchBitmap && decoded.getAllocationByteCount() <= MAX_SCRATCH_BYTES) {
+            scratchBitmap = decoded;
+        }
+
+        // 缩放到目标尺寸并复制出独立位图，解码缓冲区留给下一次复用
+        int width = decoded.getWidth();
+        int height = decoded.getHeight();
+        float scale = 1f;
+        if (targetSizePx > 0 && Math.max(width, height) > targetSizePx) {
+            scale = (float) targetSizePx / Math.max(width, height);
+        }
+        int targetWidth = Math.max(1, Math.round(width * scale));
+        int targetHeight = Math.max(1, Math.round(height * scale));
+
+        Bitmap result = Bitmap.createScaledBitmap(decoded, targetWidth, targetHeight, true);
+        if (result == decoded) {
+            result = decoded.copy(decoded.getConfig(), false);
+        }
+        return result;
+    }
+
+    private Bitmap decodeSource(String iconUri, BitmapFactory.Options options) {
+        if (iconUri.startsWith("file://")) {
+            return BitmapFactory.decodeFile(iconUri.substring(7), options);
+        }
+        if (iconUri.startsWith("/")) {
+            return BitmapFactory.decodeFile(iconUri, options);
+        }
+
+        int resourceId = resolveResourceId(iconUri);
+        if (resourceId == 0) {
+            return null;
+        }
+        // 按原始像素解码，尺寸由采样率和目标尺寸决定
+        options.inScaled = false;
+        Resources resources = appContext.getResources();
+        return BitmapFactory.decodeResource(resources, resourceId, options);
+    }
+
+    private int resolveResourceId(String iconUri) {
+        if (iconUri.startsWith("file://") || iconUri.startsWith("/")) {
+            return 0;
+        }
+        return appContext.getResources().getIdentifier(iconUri, "drawable", appContext.getPackageName());
+    }
+
+    /**
+     * 计算不超过目标尺寸两倍的最大 2 的幂采样率
+     */
+    static int calculateInSampleSize(int width, int height, int targetSizePx) {
+        int sampleSize = 1;
+        if (targetSizePx > 0) {
+            int longest = Math.max(width, height);
+            while (longest / (sampleSize * 2) >= targetSizePx) {
+                sampleSize *= 2;
+            }
+        }
+        return sampleSize;
+    }
+
+    /**
+     * 记录解码结果，同一时间只安排一次主线程投递
+     */
+    private void enqueueResult(DecodeResult result) {
+        synchronized (completed) {
+            completed.add(result);
+            if (flushScheduled) {
+                return;
+            }
+            flushScheduled = true;
+        }
+        mainHandler.post(this::flushResults);
+    }
+
+    private void flushResults() {
+        List<DecodeResult> batch;
+        synchronized (completed) {
+            batch = new ArrayList<>(completed);
+            completed.clear();
+            flushScheduled = false;
+        }
+
+        for (DecodeResult result : batch) {
+            List<IconLoadCallback> callbacks;
+            synchronized (inFlight) {
+                callbacks = inFlight.remove(result.cacheKey);
+            }
+            if (callbacks == null) {
+                continue;
+            }
+            for (IconLoadCallback callback : callbacks) {
+                try {
+                    if (result.icon != null) {
+                        callback.onIconLoaded(result.cacheKey, result.icon);
+                    } else {
+                        callback.onIconFailed(result.cacheKey, result.error);
+                    }
+                } catch (Exception e) {
+                    Log.e(TAG, "Icon callback failed: " + result.cacheKey, e);
+                }
+            }
+        }
+    }
+
+    private static class DecodeResult {
+        final String cacheKey;
+        final BitmapDescriptor icon;
+        final Exception error;
+
+        DecodeResult(String cacheKey, BitmapDescriptor icon, Exception error) {
+            this.cacheKey = cacheKey;
+            this.icon = icon;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package io.github.winyh.baidumap;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * 网络图标下载与磁盘缓存
+ * 按 URL 合并并发请求，同一 URL 无论需要多少种尺寸都只下载一次；
+ * 下载先写入唯一的临时文件再重命名，超过大小上限的响应会被丢弃。
+ * 回调在 IO 线程或 OkHttp 线程执行。
+ */
+class IconFetcher {
+    static final String TEMP_SUFFIX = ".tmp";
+
+    interface Callback {
+        void onFetched(File file);
+
+        void onFetchFailed(IOException error);
+    }
+
+    private final OkHttpClient httpClient;
+    private final Executor ioExecutor;
+    private final File cacheDir;
+    private final long maxCacheBytes;
+    private final long maxDownloadBytes;
+
+    // 正在进行的请求，按 URL 去重
+    private final Map<String, List<Callback>> inFlight = new HashMap<>();
+
+    IconFetcher(OkHttpClient httpClient, Executor ioExecutor, File cacheDir,
+                long maxCacheBytes, long maxDownloadBytes) {
+        this.httpClient = httpClient;
+        this.ioExecutor = ioExecutor;
+        this.cacheDir = cacheDir;
+        this.maxCacheBytes = maxCacheBytes;
+        this.maxDownloadBytes = maxDownloadBytes;
+    }
+
+    /**
+     * 获取 URL 对应的缓存文件，磁盘缓存命中时不访问网络
+     */
+    void fetch(String url, Callback callback) {
+        synchronized (inFlight) {
+            List<Callback> callbacks = inFlight.get(url);
+            if (callbacks != null) {
+                // 已有相同 URL 的请求，等待其结果
+                callbacks.add(callback);
+                return;
+            }
+            callbacks = new ArrayList<>();
+            callbacks.add(callback);
+            inFlight.put(url, callbacks);
+        }
+
+        ioExecutor.execute(() -> {
+            File cachedFile = fileFor(url);
+            if (cachedFile.exists()) {
+                cachedFile.setLastModified(System.currentTimeMillis());
+                deliverSuccess(url, cachedFile);
+            } else {
+                download(url, cachedFile);
+            }
+        });
+    }
+
+    private void download(String url, File targetFile) {
+        Request request;
+        try {
+            request = new Request.Builder().url(url).build();
+        } catch (IllegalArgumentException e) {
+            deliverFailure(url, new IOException("Invalid icon url: " + url, e));
+            return;
+        }
+
+        httpClient.newCall(request).enqueue(new okhttp3.Callback() {
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                deliverFailure(url, e);
+            }
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                try (ResponseBody body = response.body()) {
+                    if (!response.isSuccessful() || body == null) {
+                        throw new IOException("HTTP " + response.code() + " for " + url);
+                    }
+                    if (body.contentLength() > maxDownloadBytes) {
+                        throw new IOException("Icon too large (" + body.contentLength() + " bytes): " + url);
+                    }
+                    writeToCache(body.byteStream(), targetFile);
+                } catch (IOException e) {
+                    deliverFailure(url, e);
+                    return;
+                }
+                deliverSuccess(url, targetFile);
+            }
+        });
+    }
+
+    private void deliverSuccess(String url, File file) {
+        for (Callback callback : takeCallbacks(url)) {
+            callback.onFetched(file);
+        }
+    }
+
+    private void deliverFailure(String url, IOException error) {
+        for (Callback callback : takeCallbacks(url)) {
+            callback.onFetchFailed(error);
+        }
+    }
+
+    private List<Callback> takeCallbacks(String url) {
+        synchronized (inFlight) {
+            List<Callback> callbacks = inFlight.remove(url);
+            return callbacks != null ? callbacks : new ArrayList<>();
+        }
+    }
+
+    /**
+     * 写入磁盘缓存，先写唯一的临时文件再重命名，避免读取到不完整的文件；超过大小上限时放弃
+     */
+    void writeToCache(InputStream input, File targetFile) throws IOException {
+        if (!cacheDir.exists() && !cacheDir.mkdirs()) {
+            throw new IOException("Unable to create icon cache dir: " + cacheDir);
+        }
+
+        File tempFile = File.createTempFile(targetFile.getName(), TEMP_SUFFIX, cacheDir);
+        boolean committed = false;
+        try {
+            try (OutputStream output = new FileOutputStream(tempFile)) {
+                byte[] buffer = new byte[8192];
+                long total = 0;
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    total += read;
+                    if (total > maxDownloadBytes) {
+                        throw new IOException("Icon exceeds " + maxDownloadBytes + " bytes: " + targetFile.getName());
+                    }
+                    output.write(buffer, 0, read);
+                }
+            }
+            if (!tempFile.renameTo(targetFile)) {
+                throw new IOException("Unable to commit icon cache file: " + targetFile);
+            }
+            committed = true;
+        } finally {
+            if (!committed) {
+                tempFile.delete();
+            }
+        }
+        trimCache();
+    }
+
+    /**
+     * 超出容量时按最近使用时间淘汰磁盘缓存，正在写入的临时文件不参与
+     */
+    synchronized void trimCache() {
+        File[] files = cacheDir.listFiles((dir, name) -> !name.endsWith(TEMP_SUFFIX));
+        if (files == null) {
+            return;
+        }
+
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        if (total <= maxCacheBytes) {
+            return;
+        }
+
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        long target = maxCacheBytes * 8 / 10;
+        for (File file : files) {
+            if (total <= target) {
+                break;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                total -= length;
+            }
+        }
+    }
+
+    File fileFor(String url) {
+        return new File(cacheDir, hash(url));
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] bytes = digest.digest(value.getBytes("UTF-8"));
+            StringBuilder builder = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.toString();
+        } catch (Exception e) {
+            return Integer.toHexString(value.hashCode());
+        }
+    }
+}
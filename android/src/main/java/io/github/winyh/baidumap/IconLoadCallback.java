@@ -0,0 +1,12 @@
+package io.github.winyh.baidumap;
+
+import com.baidu.mapapi.map.BitmapDescriptor;
+
+/**
+ * 图标异步加载回调，始终在主线程调用
+ */
+public interface IconLoadCallback {
+    void onIconLoaded(String cacheKey, BitmapDescriptor icon);
+
+    void onIconFailed(String cacheKey, Exception error);
+}
@@ -0,0 +1,134 @@
+package io.github.winyh.baidumap;
+
+import android.view.Choreographer;
+
+import com.baidu.mapapi.map.Marker;
+import com.baidu.mapapi.model.LatLng;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 标记移动动画
+ * 所有进行中的动画由同一个 Choreographer 帧回调驱动，每帧插值位置与朝向，
+ * 必须在主线程使用。
+ */
+public class MarkerAnimator implements Choreographer.FrameCallback {
+    public static final String EASING_LINEAR = "linear";
+    public static final String EASING_EASE_IN = "easeIn";
+    public static final String EASING_EASE_OUT = "easeOut";
+    public static final String EASING_EASE_IN_OUT = "easeInOut";
+
+    private final Map<Integer, Animation> animations = new HashMap<>();
+    private final Choreographer choreographer;
+    private boolean frameScheduled = false;
+
+    public MarkerAnimator() {
+        this.choreographer = Choreographer.getInstance();
+    }
+
+    /**
+     * 开始移动动画，同一标记的旧动画会被替换
+     * 目标朝向为 NaN 时保持当前朝向
+     */
+    public void animate(int markerHandle, Marker marker, LatLng from, LatLng to,
+                        float fromRotation, float toRotation, long durationMs, String easing) {
+        Animation animation = new Animation();
+        animation.marker = marker;
+        animation.fromLatitude = from.latitude;
+        animation.fromLongitude = from.longitude;
+        animation.toLatitude = to.latitude;
+        animation.toLongitude = to.longitude;
+        animation.fromRotation = fromRotation;
+        animation.rotationDelta = Float.isNaN(toRotation) ? 0f : shortestRotationDelta(fromRotation, toRotation);
+        animation.startTimeNanos = System.nanoTime();
+        animation.durationNanos = Math.max(1, durationMs) * 1_000_000L;
+        animation.easing = easing;
+        animations.put(markerHandle, animation);
+
+        if (!frameScheduled) {
+            frameScheduled = true;
+            choreographer.postFrameCallback(this);
+        }
+    }
+
+    /**
+     * 取消标记动画，标记停留在当前位置
+     */
+    public void cancel(int markerHandle) {
+        animations.remove(markerHandle);
+    }
+
+    public void cancelAll() {
+        animations.clear();
+        if (frameScheduled) {
+            choreographer.removeFrameCallback(this);
+            frameScheduled = false;
+        }
+    }
+
+    public boolean isAnimating(int markerHandle) {
+        return animations.containsKey(markerHandle);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        frameScheduled = false;
+
+        Iterator<Animation> iterator = animations.values().iterator();
+        while (iterator.hasNext()) {
+            Animation animation = iterator.next();
+            float t = (float) (frameTimeNanos - animation.startTimeNanos) / animation.durationNanos;
+            t = Math.max(0f, Math.min(1f, t));
+            float e = ease(animation.easing, t);
+
+            double latitude = animation.fromLatitude + (animation.toLatitude - animation.fromLatitude) * e;
+            double longitude = animation.fromLongitude + (animation.toLongitude - animation.fromLongitude) * e;
+            animation.marker.setPosition(new LatLng(latitude, longitude));
+            if (animation.rotationDelta != 0f) {
+                animation.marker.setRotate(animation.fromRotation + animation.rotationDelta * e);
+            }
+
+            if (t >= 1f) {
+                iterator.remove();
+            }
+        }
+
+        if (!animations.isEmpty()) {
+            frameScheduled = true;
+            choreographer.postFrameCallback(this);
+        }
+    }
+
+    /**
+     * 计算最短旋转角度差，范围 [-180, 180)
+     */
+    static float shortestRotationDelta(float from, float to) {
+        return ((to - from) % 360f + 540f) % 360f - 180f;
+    }
+
+    static float ease(String easing, float t) {
+        if (EASING_EASE_IN.equals(easing)) {
+            return t * t;
+        } else if (EASING_EASE_OUT.equals(easing)) {
+            return 1f - (1f - t) * (1f - t);
+        } else if (EASING_EASE_IN_OUT.equals(easing)) {
+            return t < 0.5f ? 2f * t * t : 1f - 2f * (1f - t) * (1f - t);
+        }
+        return t;
+    }
+
+    private static class Animation {
+        Marker marker;
+        double fromLatitude;
+        double fromLongitude;
+        double toLatitude;
+        double toLongitude;
+        float fromRotation;
+        float rotationDelta;
+        long startTimeNanos;
+        long durationNanos;
+        String easing;
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.winyh.baidumap;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 标记自定义属性的列式存储
+ * 每个属性名一列，按槽位保存值（String、Double 或 Boolean），同时为每个取值维护一个槽位位图，
+ * 过滤时直接对位图做与或非运算，不需要遍历标记。相同的取值在各槽位间共享同一个对象。
+ */
+public class MarkerAttributeIndex {
+
+    private static class Column {
+        Object[] values = new Object[64];
+        final Map<Object, BitSet> slotsByValue = new HashMap<>();
+    }
+
+    private final Map<String, Column> columns = new HashMap<>();
+
+    /**
+     * 替换槽位上的全部属性，attributes 为 null 时清空
+     */
+    public void set(int slot, Map<String, Object> attributes) {
+        clear(slot);
+        if (attributes == null) {
+            return;
+        }
+        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+            Object value = normalize(entry.getValue());
+            if (value == null) {
+                continue;
+            }
+            Column column = columns.get(entry.getKey());
+            if (column == null) {
+                column = new Column();
+                columns.put(entry.getKey(), column);
+            }
+            if (slot >= column.values.length) {
+                column.values = Arrays.copyOf(column.values, Math.max(slot + 1, column.values.length * 2));
+            }
+            BitSet slots = column.slotsByValue.get(value);
+            if (slots == null) {
+                slots = new BitSet();
+                column.slotsByValue.put(value, slots);
+            } else {
+                // 复用已有的取值对象
+                value = column.values[slots.nextSetBit(0)];
+            }
+            slots.set(slot);
+            column.values[slot] = value;
+        }
+    }
+
+    /**
+     * 清空槽位上的全部属性
+     */
+    public void clear(int slot) {
+        for (Column column : columns.values()) {
+            if (slot >= column.values.length || column.values[slot] == null) {
+                continue;
+            }
+            BitSet slots = column.slotsByValue.get(column.values[slot]);
+            slots.clear(slot);
+            if (slots.isEmpty()) {
+                column.slotsByValue.remove(column.values[slot]);
+            }
+            column.values[slot] = null;
+        }
+    }
+
+    public void clearAll() {
+        columns.clear();
+    }
+
+    /**
+     * 读取槽位上的属性值，不存在时返回 null
+     */
+    public Object get(int slot, String name) {
+        Column column = columns.get(name);
+        return column != null && slot < column.values.length ? column.values[slot] : null;
+    }
+
+    /**
+     * 生成槽位全部属性的副本，没有属性时返回 null
+     */
+    public Map<String, Object> getAll(int slot) {
+        Map<String, Object> attributes = null;
+        for (Map.Entry<String, Column> entry : columns.entrySet()) {
+            Object[] values = entry.getValue().values;
+            if (slot < values.length && values[slot] != null) {
+                if (attributes == null) {
+                    attributes = new HashMap<>();
+                }
+                attributes.put(entry.getKey(), values[slot]);
+            }
+        }
+        return attributes;
+    }
+
+    /**
+     * 属性等于 value 的槽位位图，没有时返回 null；调用方不能修改返回的位图
+     */
+    public BitSet slotsWithValue(String name, Object value) {
+        Column column = columns.get(name);
+        Object key = normalize(value);
+        return column != null && key != null ? column.slotsByValue.get(key) : null;
+    }
+
+    /**
+     * 统一数值类型，JS 传入的数字都按 Double 比较；不支持的类型返回 null
+     */
+    static Object normalize(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof String || value instanceof Boolean) {
+            return value;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,269 @@
+package io.github.winyh.baidumap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 标记聚合引擎
+ * 按整数缩放级别预先计算分层聚合结果：从最大级别开始，
+ * 每一级在网格桶内贪心合并上一级半径范围内的点，得到逐级变粗的聚合层次。
+ */
+public class MarkerClusterer {
+    public static final int DEFAULT_RADIUS = 60; // 像素
+    public static final int DEFAULT_MIN_ZOOM = 3;
+    public static final int DEFAULT_MAX_ZOOM = 21;
+
+    private static final double TILE_SIZE = 256.0;
+
+    private final int radius;
+    private final int minZoom;
+    private final int maxZoom;
+
+    // 每个缩放级别对应的聚合列表，下标为缩放级别
+    private final List<List<Cluster>> levels;
+    private int nextClusterId = 0;
+
+    public MarkerClusterer(int radius, int minZoom, int maxZoom) {
+        this.radius = radius > 0 ? radius : DEFAULT_RADIUS;
+        this.minZoom = minZoom;
+        this.maxZoom = maxZoom;
+        this.levels = new ArrayList<>(maxZoom + 2);
+        for (int z = 0; z <= maxZoom + 1; z++) {
+            levels.add(Collections.<Cluster>emptyList());
+        }
+    }
+
+    /**
+     * 加载点数据并构建全部缩放级别的聚合
+     */
+    public void load(int[] markerHandles, double[] latitudes, double[] longitudes, int count) {
+        nextClusterId = 0;
+
+        // 最细一级：每个点各自成为一个叶子聚合
+        List<Cluster> current = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            current.add(new Cluster(nextClusterId++, markerHandles[i],
+                lngToX(longitudes[i]), latToY(latitudes[i]), 1, maxZoom + 1));
+        }
+        levels.set(maxZoom + 1, current);
+
+        for (int z = maxZoom; z >= minZoom; z--) {
+            current = clusterLevel(current, z);
+            levels.set(z, current);
+        }
+    }
+
+    /**
+     * 在指定缩放级别上合并上一级的聚合
+     */
+    private List<Cluster> clusterLevel(List<Cluster> points, int zoom) {
+        double r = radius / (TILE_SIZE * Math.pow(2, zoom));
+        double r2 = r * r;
+
+        // 网格桶，单元大小等于聚合半径
+        Map<Long, List<Cluster>> grid = new HashMap<>();
+        for (Cluster p : points) {
+            p.visitedZoom = Integer.MAX_VALUE;
+            grid.computeIfAbsent(cellKey(p.x, p.y, r), k -> new ArrayList<>()).add(p);
+        }
+
+        List<Cluster> result = new ArrayList<>();
+        List<Cluster> neighbors = new ArrayList<>();
+
+        for (Cluster p : points) {
+            if (p.visitedZoom == zoom) {
+                continue;
+            }
+            p.visitedZoom = zoom;
+
+            neighbors.clear();
+            long cx = (long) Math.floor(p.x / r);
+            long cy = (long) Math.floor(p.y / r);
+            for (long gx = cx - 1; gx <= cx + 1; gx++) {
+                for (long gy = cy - 1; gy <= cy + 1; gy++) {
+                    List<Cluster> bucket = grid.get(packCell(gx, gy));
+                    if (bucket == null) continue;
+                    for (Cluster q : bucket) {
+                        if (q.visitedZoom == zoom) continue;
+                        double dx = q.x - p.x;
+                        double dy = q.y - p.y;
+                        if (dx * dx + dy * dy <= r2) {
+                            neighbors.add(q);
+                        }
+                    }
+                }
+            }
+
+            if (neighbors.isEmpty()) {
+                // 无可合并的邻居，原样保留到本级
+                result.add(p);
+                continue;
+            }
+
+            // 按成员数量加权计算中心
+            double wx = p.x * p.count;
+            double wy = p.y * p.count;
+            int total = p.count;
+            List<Cluster> children = new ArrayList<>(neighbors.size() + 1);
+            children.add(p);
+            for (Cluster q : neighbors) {
+                q.visitedZoom = zoom;
+                wx += q.x * q.count;
+                wy += q.y * q.count;
+                total += q.count;
+                children.add(q);
+            }
+
+            Cluster cluster = new Cluster(nextClusterId++, -1, wx / total, wy / total, total, zoom + 1);
+            cluster.children = children;
+            cluster.minMarkerHandle = p.minMarkerHandle;
+            for (Cluster q : neighbors) {
+                cluster.minMarkerHandle = Math.min(cluster.minMarkerHandle, q.minMarkerHandle);
+            }
+            result.add(cluster);
+        }
+        return result;
+    }
+
+    /**
+     * 获取指定缩放级别的聚合
+     */
+    public List<Cluster> getClusters(float zoom) {
+        return levels.get(clampZoom(zoom));
+    }
+
+    /**
+     * 将浮点缩放级别转换为聚合层级
+     */
+    public int clampZoom(float zoom) {
+        int z = (int) Math.floor(zoom);
+        return Math.max(minZoom, Math.min(maxZoom + 1, z));
+    }
+
+    /**
+     * 收集聚合包含的全部标记句柄
+     */
+    public static void collectMarkerHandles(Cluster cluster, IntArrayList out, int limit) {
+        if (out.size() >= limit) {
+            return;
+        }
+        if (cluster.isLeaf()) {
+            out.add(cluster.markerHandle);
+            return;
+        }
+        if (cluster.children != null) {
+            for (Cluster child : cluster.children) {
+                collectMarkerHandles(child, out, limit);
+                if (out.size() >= limit) {
+                    return;
+                }
+            }
+        }
+    }
+
+    public int getMaxZoom() {
+        return maxZoom;
+    }
+
+    public int getMinZoom() {
+        return minZoom;
+    }
+
+    // 墨卡托投影工具方法，输出范围为 [0, 1]
+    static double lngToX(double lng) {
+        return lng / 360.0 + 0.5;
+    }
+
+    static double latToY(double lat) {
+        double sin = Math.sin(Math.toRadians(lat));
+        double y = 0.5 - 0.25 * Math.log((1 + sin) / (1 - sin)) / Math.PI;
+        return y < 0 ? 0 : (y > 1 ? 1 : y);
+    }
+
+    static double xToLng(double x) {
+        return (x - 0.5) * 360.0;
+    }
+
+    static double yToLat(double y) {
+        double y2 = (180 - y * 360) * Math.PI / 180;
+        return 360 * Math.atan(Math.exp(y2)) / Math.PI - 90;
+    }
+
+    private static long cellKey(double x, double y, double cellSize) {
+        return packCell((long) Math.floor(x / cellSize), (long) Math.floor(y / cellSize));
+    }
+
+    private static long packCell(long gx, long gy) {
+        return (gx << 32) ^ (gy & 0xffffffffL);
+    }
+
+    /**
+     * 聚合节点
+     * 叶子节点（没有子节点）对应单个点，markerHandle 由调用方定义，可以为负数
+     * 成员中最小的标记句柄加成员数量构成稳定键：同一层级内唯一，而层级逐级嵌套，
+     * 不同层级或重建前后键相同即可视为同一组标记，渲染时据此复用已有的聚合标记
+     */
+    public static class Cluster {
+        private final int clusterId;
+        private final int markerHandle;
+        private final double x;
+        private final double y;
+        private final int count;
+        private final int expansionZoom;
+        private List<Cluster> children;
+        private int minMarkerHandle;
+        private int visitedZoom = Integer.MAX_VALUE;
+
+        Cluster(int clusterId, int markerHandle, double x, double y, int count, int expansionZoom) {
+            this.clusterId = clusterId;
+            this.markerHandle = markerHandle;
+            this.x = x;
+            this.y = y;
+            this.count = count;
+            this.expansionZoom = expansionZoom;
+            this.minMarkerHandle = markerHandle;
+        }
+
+        public int getClusterId() {
+            return clusterId;
+        }
+
+        public int getMarkerHandle() {
+            return markerHandle;
+        }
+
+        /**
+         * 稳定键，见类说明
+         */
+        public long getKey() {
+            return ((long) minMarkerHandle << 32) | (count & 0xffffffffL);
+        }
+
+        public boolean isLeaf() {
+            return children == null;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public int getExpansionZoom() {
+            return expansionZoom;
+        }
+
+        public double getLatitude() {
+            return yToLat(y);
+        }
+
+        public double getLongitude() {
+            return xToLng(x);
+        }
+
+        public List<Cluster> getChildren() {
+            return children;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package io.github.winyh.baidumap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 二进制标记数据集（只读）
+ * 通过 FileChannel.map 映射文件，坐标和字典都直接从映射内存读取，不复制到 Java 堆。
+ * 文件格式（小端）：
+ *   头部 64 字节：magic、version、点数、flags、网格列数、网格行数、范围（4 个 double）、字典条数
+ *   纬度列 double[n]、经度列 double[n]（按网格单元排序）
+ *   网格单元起始下标 int[cells + 1]
+ *   标题字典下标 int[n]（flags 含 FLAG_TITLES 时）、图标字典下标 int[n]（flags 含 FLAG_ICONS 时），-1 表示无
+ *   字典偏移 int[dictionaryCount + 1]、字典 UTF-8 数据
+ */
+public class MarkerDataset {
+    static final int MAGIC = 0x54504D42; // "BMPT"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final int FLAG_TITLES = 1;
+    static final int FLAG_ICONS = 1 << 1;
+
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final int gridColumns;
+    private final int gridRows;
+    private final double minLat;
+    private final double minLng;
+    private final double maxLat;
+    private final double maxLng;
+    private final int dictionaryCount;
+
+    // 各段的字节偏移
+    private final int latitudesOffset;
+    private final int longitudesOffset;
+    private final int cellStartsOffset;
+    private final int titlesOffset;
+    private final int iconsOffset;
+    private final int dictionaryOffsetsOffset;
+    private final int dictionaryDataOffset;
+
+    private MarkerDataset(MappedByteBuffer buffer) throws IOException {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a marker dataset file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported marker dataset version: " + buffer.getInt(4));
+        }
+        this.count = buffer.getInt(8);
+        int flags = buffer.getInt(12);
+        this.gridColumns = buffer.getInt(16);
+        this.gridRows = buffer.getInt(20);
+        this.minLat = buffer.getDouble(24);
+        this.minLng = buffer.getDouble(32);
+        this.maxLat = buffer.getDouble(40);
+        this.maxLng = buffer.getDouble(48);
+        this.dictionaryCount = buffer.getInt(56);
+
+        long offset = HEADER_BYTES;
+        latitudesOffset = (int) offset;
+        offset += (long) count * 8;
+        longitudesOffset = (int) offset;
+        offset += (long) count * 8;
+        cellStartsOffset = (int) offset;
+        offset += ((long) gridColumns * gridRows + 1) * 4;
+        titlesOffset = (flags & FLAG_TITLES) != 0 ? (int) offset : -1;
+        if (titlesOffset >= 0) {
+            offset += (long) count * 4;
+        }
+        iconsOffset = (flags & FLAG_ICONS) != 0 ? (int) offset : -1;
+        if (iconsOffset >= 0) {
+            offset += (long) count * 4;
+        }
+        dictionaryOffsetsOffset = (int) offset;
+        offset += ((long) dictionaryCount + 1) * 4;
+        dictionaryDataOffset = (int) offset;
+        if (offset > buffer.capacity() || gridColumns <= 0 || gridRows <= 0 || count < 0) {
+            throw new IOException("Corrupted marker dataset file");
+        }
+    }
+
+    /**
+     * 打开数据集文件，映射在对象回收前一直有效
+     */
+    public static MarkerDataset open(File file) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Marker dataset file too large: " + channel.size());
+            }
+            return new MarkerDataset(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public double getLatitude(int index) {
+        return buffer.getDouble(latitudesOffset + index * 8);
+    }
+
+    public double getLongitude(int index) {
+        return buffer.getDouble(longitudesOffset + index * 8);
+    }
+
+    public String getTitle(int index) {
+        return titlesOffset >= 0 ? getString(buffer.getInt(titlesOffset + index * 4)) : null;
+    }
+
+    public String getIcon(int index) {
+        return iconsOffset >= 0 ? getString(buffer.getInt(iconsOffset + index * 4)) : null;
+    }
+
+    private String getString(int dictionaryIndex) {
+        if (dictionaryIndex < 0 || dictionaryIndex >= dictionaryCount) {
+            return null;
+        }
+        int start = buffer.getInt(dictionaryOffsetsOffset + dictionaryIndex * 4);
+        int end = buffer.getInt(dictionaryOffsetsOffset + (dictionaryIndex + 1) * 4);
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(dictionaryDataOffset + start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 查询矩形范围内的点下标，只扫描与范围相交的网格单元。
+     * 结果超过 limit 时在全部命中点中均匀抽样，抽样结果覆盖整个范围（limit 小于等于 0 不限）
+     */
+    public void query(double qMinLat, double qMinLng, double qMaxLat, double qMaxLng, int limit, IntArrayList out) {
+        if (count == 0 || qMinLat > maxLat || qMaxLat < minLat || qMinLng > maxLng || qMaxLng < minLng) {
+            return;
+        }
+        IntArrayList matches = limit > 0 ? new IntArrayList() : out;
+        int firstColumn = column(qMinLng);
+        int lastColumn = column(qMaxLng);
+        int firstRow = row(qMinLat);
+        int lastRow = row(qMaxLat);
+
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstColumn; c <= lastColumn; c++) {
+                int cell = r * gridColumns + c;
+                int start = buffer.getInt(cellStartsOffset + cell * 4);
+                int end = buffer.getInt(cellStartsOffset + (cell + 1) * 4);
+                for (int i = start; i < end; i++) {
+                    double lat = getLatitude(i);
+                    double lng = getLongitude(i);
+                    if (lat >= qMinLat && lat <= qMaxLat && lng >= qMinLng && lng <= qMaxLng) {
+                        matches.add(i);
+                    }
+                }
+            }
+        }
+
+        if (matches != out) {
+            sample(matches, limit, out);
+        }
+    }
+
+    /**
+     * 从 values 中抽样最多 limit 个值追加到 out。
+     * 按点下标的哈希值取阈值以下的点，与扫描顺序无关，视口小幅移动时已选中的点保持不变；
+     * 哈希筛选后仍超出的部分等间隔截取
+     */
+    static void sample(IntArrayList values, int limit, IntArrayList out) {
+        int size = values.size();
+        if (size <= limit) {
+            for (int i = 0; i < size; i++) {
+                out.add(values.get(i));
+            }
+            return;
+        }
+        long threshold = (long) ((double) limit / size * (1L << 32));
+        IntArrayList picked = new IntArrayList(limit + limit / 8 + 16);
+        for (int i = 0; i < size; i++) {
+            int value = values.get(i);
+            if ((mix(value) & 0xFFFFFFFFL) < threshold) {
+                picked.add(value);
+            }
+        }
+        int pickedSize = picked.size();
+        int count = Math.min(limit, pickedSize);
+        for (int k = 0; k < count; k++) {
+            out.add(picked.get((int) ((long) k * pickedSize / count)));
+        }
+    }
+
+    /**
+     * 32 位整数哈希（MurmurHash3 的 fmix32）
+     */
+    private static int mix(int value) {
+        int h = value;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private int column(double lng) {
+        return cellIndex(lng, minLng, maxLng, gridColumns);
+    }
+
+    private int row(double lat) {
+        return cellIndex(lat, minLat, maxLat, gridRows);
+    }
+
+    static int cellIndex(double value, double min, double max, int cells) {
+        if (max <= min) {
+            return 0;
+        }
+        int index = (int) ((value - min) / (max - min) * cells);
+        return Math.max(0, Math.min(cells - 1, index));
+    }
+}
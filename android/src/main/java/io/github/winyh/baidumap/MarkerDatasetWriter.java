@@ -0,0 +1,207 @@
+package io.github.winyh.baidumap;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 二进制标记数据集写入器
+ * 逐点追加后一次性写出 MarkerDataset 格式：点按网格单元排序，标题和图标去重存入字典。
+ */
+public class MarkerDatasetWriter {
+    // 平均每个网格单元的点数
+    private static final int POINTS_PER_CELL = 16;
+    private static final int MAX_GRID_SIZE = 1024;
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+    private double[] latitudes = new double[1024];
+    private double[] longitudes = new double[1024];
+    private int[] titleIndexes = new int[1024];
+    private int[] iconIndexes = new int[1024];
+    private int count;
+    private boolean hasTitles;
+    private boolean hasIcons;
+
+    private final Map<String, Integer> dictionaryIndexes = new HashMap<>();
+    private final List<byte[]> dictionary = new ArrayList<>();
+
+    /**
+     * 追加一个点，标题和图标可为 null
+     */
+    public void add(double latitude, double longitude, String title, String icon) {
+        if (count == latitudes.length) {
+            int capacity = count * 2;
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            titleIndexes = Arrays.copyOf(titleIndexes, capacity);
+            iconIndexes = Arrays.copyOf(iconIndexes, capacity);
+        }
+        latitudes[count] = latitude;
+        longitudes[count] = longitude;
+        titleIndexes[count] = intern(title);
+        iconIndexes[count] = intern(icon);
+        hasTitles |= title != null;
+        hasIcons |= icon != null;
+        count++;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    private int intern(String value) {
+        if (value == null) {
+            return -1;
+        }
+        Integer index = dictionaryIndexes.get(value);
+        if (index == null) {
+            index = dictionary.size();
+            dictionary.add(value.getBytes(StandardCharsets.UTF_8));
+            dictionaryIndexes.put(value, index);
+        }
+        return index;
+    }
+
+    /**
+     * 写出数据集文件，先写临时文件再重命名，避免留下不完整的文件
+     */
+    public void write(File file) throws IOException {
+        double minLat = Double.POSITIVE_INFINITY;
+        double minLng = Double.POSITIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        double maxLng = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            minLat = Math.min(minLat, latitudes[i]);
+            minLng = Math.min(minLng, longitudes[i]);
+            maxLat = Math.max(maxLat, latitudes[i]);
+            maxLng = Math.max(maxLng, longitudes[i]);
+        }
+        if (count == 0) {
+            minLat = minLng = maxLat = maxLng = 0;
+        }
+
+        int gridSize = (int) Math.ceil(Math.sqrt((double) count / POINTS_PER_CELL));
+        gridSize = Math.max(1, Math.min(MAX_GRID_SIZE, gridSize));
+        int cells = gridSize * gridSize;
+
+        // 按网格单元计数排序
+        int[] cellOfPoint = new int[count];
+        int[] cellStarts = new int[cells + 1];
+        for (int i = 0; i < count; i++) {
+            int cell = MarkerDataset.cellIndex(latitudes[i], minLat, maxLat, gridSize) * gridSize
+                + MarkerDataset.cellIndex(longitudes[i], minLng, maxLng, gridSize);
+            cellOfPoint[i] = cell;
+            cellStarts[cell + 1]++;
+        }
+        for (int c = 0; c < cells; c++) {
+            cellStarts[c + 1] += cellStarts[c];
+        }
+        int[] order = new int[count];
+        int[] cursor = Arrays.copyOf(cellStarts, cells);
+        for (int i = 0; i < count; i++) {
+            order[cursor[cellOfPoint[i]]++] = i;
+        }
+
+        int flags = (hasTitles ? MarkerDataset.FLAG_TITLES : 0) | (hasIcons ? MarkerDataset.FLAG_ICONS : 0);
+
+        File tempFile = new File(file.getPath() + ".tmp");
+        try (FileOutputStream output = new FileOutputStream(tempFile);
+             FileChannel channel = output.getChannel()) {
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+            buffer.putInt(MarkerDataset.MAGIC);
+            buffer.putInt(MarkerDataset.VERSION);
+            buffer.putInt(count);
+            buffer.putInt(flags);
+            buffer.putInt(gridSize);
+            buffer.putInt(gridSize);
+            buffer.putDouble(minLat);
+            buffer.putDouble(minLng);
+            buffer.putDouble(maxLat);
+            buffer.putDouble(maxLng);
+            buffer.putInt(dictionary.size());
+            buffer.putInt(0);
+
+            for (int i = 0; i < count; i++) {
+                ensureRemaining(channel, buffer, 8);
+                buffer.putDouble(latitudes[order[i]]);
+            }
+            for (int i = 0; i < count; i++) {
+                ensureRemaining(channel, buffer, 8);
+                buffer.putDouble(longitudes[order[i]]);
+            }
+            for (int c = 0; c <= cells; c++) {
+                ensureRemaining(channel, buffer, 4);
+                buffer.putInt(cellStarts[c]);
+            }
+            if (hasTitles) {
+                for (int i = 0; i < count; i++) {
+                    ensureRemaining(channel, buffer, 4);
+                    buffer.putInt(titleIndexes[order[i]]);
+                }
+            }
+            if (hasIcons) {
+                for (int i = 0; i < count; i++) {
+                    ensureRemaining(channel, buffer, 4);
+                    buffer.putInt(iconIndexes[order[i]]);
+                }
+            }
+
+            int dictionaryOffset = 0;
+            ensureRemaining(channel, buffer, 4);
+            buffer.putInt(dictionaryOffset);
+            for (byte[] entry : dictionary) {
+                dictionaryOffset += entry.length;
+                ensureRemaining(channel, buffer, 4);
+                buffer.putInt(dictionaryOffset);
+            }
+            for (byte[] entry : dictionary) {
+                int written = 0;
+                while (written < entry.length) {
+                    ensureRemaining(channel, buffer, 1);
+                    int length = Math.min(buffer.remaining(), entry.length - written);
+                    buffer.put(entry, written, length);
+                    written += length;
+                }
+            }
+
+            flush(channel, buffer);
+            output.getFD().sync();
+        } catch (IOException e) {
+            tempFile.delete();
+            throw e;
+        }
+
+        if (!tempFile.renameTo(file)) {
+            // 部分文件系统不允许覆盖已有文件
+            file.delete();
+            if (!tempFile.renameTo(file)) {
+                tempFile.delete();
+                throw new IOException("Unable to write marker dataset: " + file);
+            }
+        }
+    }
+
+    private static void ensureRemaining(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
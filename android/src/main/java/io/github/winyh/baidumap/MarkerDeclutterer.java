@@ -0,0 +1,161 @@
+package io.github.winyh.baidumap;
+
+import java.util.Arrays;
+
+/**
+ * 标记碰撞检测
+ * 按优先级从高到低依次放置标记的屏幕包围盒，与已放置的包围盒重叠的标记被隐藏。
+ * 屏幕按不小于最大包围盒的网格分桶，每个包围盒最多落入 2x2 个格子，
+ * 碰撞检测只比较这几个格子中的包围盒，总体为 O(n)（不含优先级排序）。
+ * 缓冲区在多次调用间复用，只能在主线程使用。
+ */
+public class MarkerDeclutterer {
+    private int count;
+    private float[] xs = new float[256];
+    private float[] ys = new float[256];
+    private float[] sizes = new float[256];
+    private int[] priorities = new int[256];
+
+    // 已放置的包围盒（左、上、右、下）
+    private float[] placedBoxes = new float[256 * 4];
+    private int placedCount;
+
+    // 网格桶：每个格子的链表头，链表节点指向已放置的包围盒
+    private int[] cellHeads = new int[0];
+    private int[] entryBoxes = new int[256];
+    private int[] entryNext = new int[256];
+    private int entryCount;
+
+    private long[] sortKeys = new long[256];
+
+    /**
+     * 清空上一次的输入
+     */
+    public void reset() {
+        count = 0;
+    }
+
+    /**
+     * 添加一个标记，坐标为锚点（底部中心）的屏幕像素位置，size 为图标长边像素，priority 越大越优先显示
+     * 返回标记在本次输入中的序号
+     */
+    public int add(float x, float y, float size, int priority) {
+        if (count == xs.length) {
+            int capacity = count * 2;
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+            priorities = Arrays.copyOf(priorities, capacity);
+        }
+        xs[count] = x;
+        ys[count] = y;
+        sizes[count] = size;
+        priorities[count] = priority;
+        return count++;
+    }
+
+    /**
+     * 计算每个标记是否被遮挡，hidden 长度需不小于标记数量
+     * 包围盒完全在屏幕外的标记不参与检测，也不会被隐藏
+     */
+    public void run(int width, int height, boolean[] hidden) {
+        Arrays.fill(hidden, 0, count, false);
+        if (count == 0 || width <= 0 || height <= 0) {
+            return;
+        }
+
+        float cellSize = 1f;
+        for (int i = 0; i < count; i++) {
+            cellSize = Math.max(cellSize, sizes[i]);
+        }
+        int columns = (int) Math.ceil(width / cellSize);
+        int rows = (int) Math.ceil(height / cellSize);
+        int cells = columns * rows;
+        if (cellHeads.length < cells) {
+            cellHeads = new int[cells];
+        }
+        Arrays.fill(cellHeads, 0, cells, -1);
+        placedCount = 0;
+        entryCount = 0;
+
+        // 高优先级在前，同优先级按添加顺序
+        if (sortKeys.length < count) {
+            sortKeys = new long[count];
+        }
+        for (int i = 0; i < count; i++) {
+            sortKeys[i] = ((long) ~priorities[i] << 32) | i;
+        }
+        Arrays.sort(sortKeys, 0, count);
+
+        for (int k = 0; k < count; k++) {
+            int i = (int) sortKeys[k];
+            float half = sizes[i] / 2f;
+            float left = xs[i] - half;
+            float right = xs[i] + half;
+            float top = ys[i] - sizes[i];
+            float bottom = ys[i];
+            if (right < 0 || bottom < 0 || left >= width || top >= height) {
+                continue;
+            }
+
+            int firstColumn = clamp((int) (left / cellSize), columns);
+            int lastColumn = clamp((int) (right / cellSize), columns);
+            int firstRow = clamp((int) (top / cellSize), rows);
+            int lastRow = clamp((int) (bottom / cellSize), rows);
+
+            if (collides(left, top, right, bottom, firstColumn, lastColumn, firstRow, lastRow, columns)) {
+                hidden[i] = true;
+                continue;
+            }
+
+            int box = placeBox(left, top, right, bottom);
+            for (int r = firstRow; r <= lastRow; r++) {
+                for (int c = firstColumn; c <= lastColumn; c++) {
+                    addEntry(r * columns + c, box);
+                }
+            }
+        }
+    }
+
+    private boolean collides(float left, float top, float right, float bottom,
+                             int firstColumn, int lastColumn, int firstRow, int lastRow, int columns) {
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstColumn; c <= lastColumn; c++) {
+                for (int e = cellHeads[r * columns + c]; e >= 0; e = entryNext[e]) {
+                    int offset = entryBoxes[e] * 4;
+                    if (left < placedBoxes[offset + 2] && right > placedBoxes[offset]
+                        && top < placedBoxes[offset + 3] && bottom > placedBoxes[offset + 1]) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private int placeBox(float left, float top, float right, float bottom) {
+        if ((placedCount + 1) * 4 > placedBoxes.length) {
+            placedBoxes = Arrays.copyOf(placedBoxes, placedBoxes.length * 2);
+        }
+        int offset = placedCount * 4;
+        placedBoxes[offset] = left;
+        placedBoxes[offset + 1] = top;
+        placedBoxes[offset + 2] = right;
+        placedBoxes[offset + 3] = bottom;
+        return placedCount++;
+    }
+
+    private void addEntry(int cell, int box) {
+        if (entryCount == entryBoxes.length) {
+            entryBoxes = Arrays.copyOf(entryBoxes, entryCount * 2);
+            entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+        }
+        entryBoxes[entryCount] = box;
+        entryNext[entryCount] = cellHeads[cell];
+        cellHeads[cell] = entryCount++;
+    }
+
+    private static int clamp(int index, int cells) {
+        return Math.max(0, Math.min(cells - 1, index));
+    }
+}
@@ -0,0 +1,564 @@
+package io.github.winyh.baidumap;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.Log;
+
+import com.facebook.react.bridge.ReadableMap;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 标记文件导入
+ * 在工作线程中以流式方式解析 GeoJSON FeatureCollection 或 CSV，不把整个文件读入内存；
+ * 解析结果按块投递到主线程写入 MarkerManager，同时最多只有少量块在途，避免解析过快堆积。
+ * 也可以把解析结果转换为 MarkerDataset 二进制文件，之后通过内存映射快速打开。
+ */
+public class MarkerFileLoader {
+    private static final String TAG = "BaiduMarkerFileLoader";
+
+    public static final String FORMAT_GEOJSON = "geojson";
+    public static final String FORMAT_CSV = "csv";
+
+    public static final String STATE_PROGRESS = "progress";
+    public static final String STATE_DONE = "done";
+    public static final String STATE_CANCELLED = "cancelled";
+    public static final String STATE_ERROR = "error";
+
+    private static final int DEFAULT_CHUNK_SIZE = 1000;
+    private static final int MAX_PENDING_CHUNKS = 2;
+
+    private final Context context;
+    private final MarkerManager markerManager;
+    private final Handler mainHandler;
+    private final AtomicInteger loadIdGenerator = new AtomicInteger(0);
+    // 只在主线程访问
+    private final Map<String, LoadTask> tasks = new HashMap<>();
+    private ExecutorService loadExecutor;
+
+    public MarkerFileLoader(Context context, MarkerManager markerManager) {
+        this.context = context.getApplicationContext();
+        this.markerManager = markerManager;
+        this.mainHandler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * 开始导入文件，返回用于取消的导入ID
+     * uri 支持 file://、content:// 和绝对路径
+     */
+    public String load(String uri, ReadableMap mapping) {
+        return start(new LoadTask("load_" + loadIdGenerator.incrementAndGet(), uri, new Mapping(uri, mapping), null));
+    }
+
+    /**
+     * 把 GeoJSON / CSV 转换为二进制数据集文件，返回任务ID，进度事件与导入相同（loaded 为已转换点数）
+     */
+    public String convert(String uri, ReadableMap mapping, String outputPath) {
+        File outputFile = new File(outputPath.startsWith("file://") ? Uri.parse(outputPath).getPath() : outputPath);
+        return start(new LoadTask("convert_" + loadIdGenerator.incrementAndGet(), uri, new Mapping(uri, mapping), outputFile));
+    }
+
+    private String start(LoadTask task) {
+        String loadId = task.loadId;
+        tasks.put(loadId, task);
+
+        if (loadExecutor == null) {
+            loadExecutor = Executors.newSingleThreadExecutor();
+        }
+        loadExecutor.execute(() -> run(task));
+        return loadId;
+    }
+
+    /**
+     * 取消导入，已写入的标记保留
+     */
+    public boolean cancel(String loadId) {
+        LoadTask task = tasks.remove(loadId);
+        if (task == null) {
+            return false;
+        }
+        task.cancelled = true;
+        markerManager.sendMarkersLoadEvent(loadId, STATE_CANCELLED, task.loadedCount,
+            task.skippedCount, task.bytesRead(), task.totalBytes, null);
+        return true;
+    }
+
+    /**
+     * 取消所有进行中的导入（清空地图时调用），转换任务不写入地图，继续执行
+     */
+    public void cancelAll() {
+        for (LoadTask task : new ArrayList<>(tasks.values())) {
+            if (task.writer == null) {
+                cancel(task.loadId);
+            }
+        }
+    }
+
+    public void destroy() {
+        for (LoadTask task : tasks.values()) {
+            task.cancelled = true;
+        }
+        tasks.clear();
+        mainHandler.removeCallbacksAndMessages(null);
+        if (loadExecutor != null) {
+            loadExecutor.shutdownNow();
+            loadExecutor = null;
+        }
+    }
+
+    private void run(LoadTask task) {
+        InputStream input = null;
+        try {
+            input = openStream(task);
+            task.input = new CountingInputStream(input);
+            if (FORMAT_CSV.equals(task.mapping.format)) {
+                parseCsv(task);
+            } else {
+                parseGeoJson(task);
+            }
+            if (task.writer != null) {
+                if (!task.cancelled) {
+                    task.writer.write(task.outputFile);
+                }
+                postConverted(task, task.writer.size());
+            } else {
+                flushChunk(task);
+            }
+            postFinished(task, STATE_DONE, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            if (!task.cancelled) {
+                Log.e(TAG, "Failed to load markers from " + task.uri, e);
+                postFinished(task, STATE_ERROR, e.getMessage());
+            }
+        } finally {
+            if (input != null) {
+                try {
+                    input.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private InputStream openStream(LoadTask task) throws IOException {
+        String uri = task.uri;
+        if (uri.startsWith("content://")) {
+            InputStream input = context.getContentResolver().openInputStream(Uri.parse(uri));
+            if (input == null) {
+                throw new IOException("Unable to open " + uri);
+            }
+            return input;
+        }
+        File file = new File(uri.startsWith("file://") ? Uri.parse(uri).getPath() : uri);
+        task.totalBytes = file.length();
+        return new FileInputStream(file);
+    }
+
+    /**
+     * 解析 GeoJSON FeatureCollection，只导入 Point 要素
+     */
+    private void parseGeoJson(LoadTask task) throws IOException, InterruptedException {
+        JsonReader reader = new JsonReader(new InputStreamReader(task.input, StandardCharsets.UTF_8));
+        reader.beginObject();
+        while (reader.hasNext() && !task.cancelled) {
+            if (!"features".equals(reader.nextName())) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginArray();
+            while (reader.hasNext() && !task.cancelled) {
+                addParsed(task, parseFeature(reader, task.mapping));
+            }
+            if (!task.cancelled) {
+                reader.endArray();
+            }
+        }
+    }
+
+    private MarkerInfo parseFeature(JsonReader reader, Mapping mapping) throws IOException {
+        double[] point = null;
+        String[] values = new String[3];
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+            } else if ("geometry".equals(name)) {
+                point = parsePoint(reader);
+            } else if ("properties".equals(name)) {
+                parseProperties(reader, mapping, values);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (point == null) {
+            return null;
+        }
+        return mapping.createMarker(point[0], point[1], values[0], values[1], values[2]);
+    }
+
+    /**
+     * 读取 Point 几何的 [经度, 纬度]，返回 {纬度, 经度}；其他几何类型返回 null
+     */
+    private double[] parsePoint(JsonReader reader) throws IOException {
+        String type = null;
+        double[] point = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("type".equals(name) && reader.peek() == JsonToken.STRING) {
+                type = reader.nextString();
+            } else if ("coordinates".equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                if (reader.hasNext() && reader.peek() == JsonToken.NUMBER) {
+                    double longitude = reader.nextDouble();
+                    if (reader.hasNext() && reader.peek() == JsonToken.NUMBER) {
+                        point = new double[] { reader.nextDouble(), longitude };
+                    }
+                }
+                while (reader.hasNext()) {
+                    reader.skipValue();
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return "Point".equals(type) ? point : null;
+    }
+
+    /**
+     * 读取映射关心的属性（标题、描述、图标），其余属性跳过
+     */
+    private void parseProperties(JsonReader reader, Mapping mapping, String[] values) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            int index = mapping.propertyIndex(name);
+            JsonToken token = reader.peek();
+            if (index < 0) {
+                reader.skipValue();
+            } else if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+                values[index] = reader.nextString();
+            } else if (token == JsonToken.BOOLEAN) {
+                values[index] = String.valueOf(reader.nextBoolean());
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    /**
+     * 逐行解析 CSV，首行为表头；不支持跨行的引号字段
+     */
+    private void parseCsv(LoadTask task) throws IOException, InterruptedException {
+        Mapping mapping = task.mapping;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(task.input, StandardCharsets.UTF_8));
+        String line = reader.readLine();
+        if (line == null) {
+            return;
+        }
+        if (line.startsWith("\uFEFF")) {
+            line = line.substring(1);
+        }
+
+        List<String> header = splitCsvLine(line, mapping.delimiter);
+        int latitudeIndex = header.indexOf(mapping.latitudeField);
+        int longitudeIndex = header.indexOf(mapping.longitudeField);
+        if (latitudeIndex < 0 || longitudeIndex < 0) {
+            throw new IOException("CSV header must contain " + mapping.latitudeField
+                + " and " + mapping.longitudeField);
+        }
+        int titleIndex = mapping.titleField != null ? header.indexOf(mapping.titleField) : -1;
+        int descriptionIndex = mapping.descriptionField != null ? header.indexOf(mapping.descriptionField) : -1;
+        int iconIndex = mapping.iconField != null ? header.indexOf(mapping.iconField) : -1;
+
+        while (!task.cancelled && (line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            List<String> fields = splitCsvLine(line, mapping.delimiter);
+            MarkerInfo markerInfo = null;
+            try {
+                markerInfo = mapping.createMarker(
+                    Double.parseDouble(field(fields, latitudeIndex)),
+                    Double.parseDouble(field(fields, longitudeIndex)),
+                    field(fields, titleIndex),
+                    field(fields, descriptionIndex),
+                    field(fields, iconIndex));
+            } catch (NumberFormatException | NullPointerException e) {
+                // 坐标缺失或格式错误的行计为跳过
+            }
+            addParsed(task, markerInfo);
+        }
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index >= 0 && index < fields.size() ? fields.get(index) : null;
+    }
+
+    static List<String> splitCsvLine(String line, char delimiter) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString().trim());
+        return fields;
+    }
+
+    private void addParsed(LoadTask task, MarkerInfo markerInfo) throws InterruptedException {
+        if (markerInfo == null) {
+            task.parseSkipped++;
+            return;
+        }
+        if (task.writer != null) {
+            task.writer.add(markerInfo.getLatitude(), markerInfo.getLongitude(),
+                markerInfo.getTitle(), markerInfo.getIconUri());
+            if (task.writer.size() % task.mapping.chunkSize == 0) {
+                postConverted(task, task.writer.size());
+            }
+            return;
+        }
+        task.chunk.add(markerInfo);
+        if (task.chunk.size() >= task.mapping.chunkSize) {
+            flushChunk(task);
+        }
+    }
+
+    /**
+     * 把当前块投递到主线程，在途块达到上限时阻塞解析线程
+     */
+    private void flushChunk(LoadTask task) throws InterruptedException {
+        if (task.chunk.isEmpty() && task.parseSkipped == 0) {
+            return;
+        }
+        final List<MarkerInfo> chunk = task.chunk;
+        final int skipped = task.parseSkipped;
+        task.chunk = new ArrayList<>(task.mapping.chunkSize);
+        task.parseSkipped = 0;
+
+        task.pendingChunks.acquire();
+        mainHandler.post(() -> {
+            task.pendingChunks.release();
+            if (task.cancelled) {
+                return;
+            }
+            int added = markerManager.addMarkerInfos(chunk);
+            task.loadedCount += added;
+            task.skippedCount += skipped + chunk.size() - added;
+            markerManager.sendMarkersLoadEvent(task.loadId, STATE_PROGRESS, task.loadedCount,
+                task.skippedCount, task.bytesRead(), task.totalBytes, null);
+        });
+    }
+
+    /**
+     * 转换任务的进度通知，只汇报计数，不写入地图
+     */
+    private void postConverted(LoadTask task, int converted) {
+        final int skipped = task.parseSkipped;
+        mainHandler.post(() -> {
+            if (task.cancelled) {
+                return;
+            }
+            task.loadedCount = converted;
+            task.skippedCount = skipped;
+            markerManager.sendMarkersLoadEvent(task.loadId, STATE_PROGRESS, task.loadedCount,
+                task.skippedCount, task.bytesRead(), task.totalBytes, null);
+        });
+    }
+
+    private void postFinished(LoadTask task, String state, String error) {
+        mainHandler.post(() -> {
+            if (task.cancelled || tasks.remove(task.loadId) == null) {
+                return;
+            }
+            Log.d(TAG, "Marker load " + task.loadId + " " + state + ": " + task.loadedCount + " markers");
+            markerManager.sendMarkersLoadEvent(task.loadId, state, task.loadedCount,
+                task.skippedCount, task.bytesRead(), task.totalBytes, error);
+        });
+    }
+
+    /**
+     * 字段映射，在调用线程中从 ReadableMap 解析，供工作线程只读使用
+     */
+    private static class Mapping {
+        final String format;
+        final String latitudeField;
+        final String longitudeField;
+        final String titleField;
+        final String descriptionField;
+        final String iconField;
+        final String icon;
+        final float iconSize;
+        final int chunkSize;
+        final char delimiter;
+
+        Mapping(String uri, ReadableMap options) {
+            String lowerUri = uri.toLowerCase();
+            String defaultFormat = lowerUri.endsWith(".csv") ? FORMAT_CSV : FORMAT_GEOJSON;
+            this.format = getString(options, "format", defaultFormat);
+            this.latitudeField = getString(options, "latitudeField", "latitude");
+            this.longitudeField = getString(options, "longitudeField", "longitude");
+            this.titleField = getString(options, "titleField", null);
+            this.descriptionField = getString(options, "descriptionField", null);
+            this.iconField = getString(options, "iconField", null);
+            this.icon = getString(options, "icon", null);
+            this.iconSize = options != null && options.hasKey("iconSize") ? (float) options.getDouble("iconSize") : 0f;
+            this.chunkSize = options != null && options.hasKey("chunkSize")
+                ? Math.max(1, options.getInt("chunkSize")) : DEFAULT_CHUNK_SIZE;
+            String delimiterValue = getString(options, "delimiter", ",");
+            this.delimiter = delimiterValue.isEmpty() ? ',' : delimiterValue.charAt(0);
+        }
+
+        private static String getString(ReadableMap options, String key, String defaultValue) {
+            if (options == null || !options.hasKey(key) || options.isNull(key)) {
+                return defaultValue;
+            }
+            return options.getString(key);
+        }
+
+        /**
+         * 属性名对应的取值下标：0 标题、1 描述、2 图标，不关心的属性返回 -1
+         */
+        int propertyIndex(String name) {
+            if (name.equals(titleField)) return 0;
+            if (name.equals(descriptionField)) return 1;
+            if (name.equals(iconField)) return 2;
+            return -1;
+        }
+
+        MarkerInfo createMarker(double latitude, double longitude, String title, String description, String iconUri) {
+            if (Double.isNaN(latitude) || Double.isNaN(longitude)
+                || latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+                return null;
+            }
+            MarkerInfo markerInfo = new MarkerInfo(null);
+            markerInfo.setLatitude(latitude);
+            markerInfo.setLongitude(longitude);
+            markerInfo.setTitle(title);
+            markerInfo.setDescription(description);
+            markerInfo.setIconUri(iconUri != null && !iconUri.isEmpty() ? iconUri : icon);
+            markerInfo.setIconSize(iconSize);
+            return markerInfo;
+        }
+    }
+
+    private static class LoadTask {
+        final String loadId;
+        final String uri;
+        final Mapping mapping;
+        // 转换任务的输出，导入任务为 null
+        final File outputFile;
+        final MarkerDatasetWriter writer;
+        final Semaphore pendingChunks = new Semaphore(MAX_PENDING_CHUNKS);
+        volatile boolean cancelled = false;
+        volatile long totalBytes = -1;
+        volatile CountingInputStream input;
+
+        // 解析线程使用
+        List<MarkerInfo> chunk = new ArrayList<>();
+        int parseSkipped;
+
+        // 主线程使用
+        int loadedCount;
+        int skippedCount;
+
+        LoadTask(String loadId, String uri, Mapping mapping, File outputFile) {
+            this.loadId = loadId;
+            this.uri = uri;
+            this.mapping = mapping;
+            this.outputFile = outputFile;
+            this.writer = outputFile != null ? new MarkerDatasetWriter() : null;
+        }
+
+        long bytesRead() {
+            CountingInputStream current = input;
+            return current != null ? current.count : 0;
+        }
+    }
+
+    /**
+     * 统计已读取字节数，用于进度（有缓冲，略超前于解析位置）
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
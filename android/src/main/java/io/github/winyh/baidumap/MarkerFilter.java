@@ -0,0 +1,177 @@
+package io.github.winyh.baidumap;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 标记属性过滤表达式
+ * 表达式为对象：
+ *   { status: 'active', type: ['truck', 'van'] }  属性等于给定值（数组表示任一值），多个属性同时满足
+ *   { all: [表达式...] } 全部满足；{ any: [表达式...] } 任一满足；{ not: 表达式 } 取反
+ * 批量求值时直接对 MarkerAttributeIndex 中每个取值的位图做集合运算。
+ */
+public abstract class MarkerFilter {
+
+    /**
+     * 返回满足条件的槽位位图，universe 为全部存活槽位
+     */
+    abstract BitSet evaluate(MarkerAttributeIndex index, BitSet universe);
+
+    /**
+     * 判断单个槽位是否满足条件，用于新增或更新的标记
+     */
+    abstract boolean matches(MarkerAttributeIndex index, int slot);
+
+    /**
+     * 从 JS 传入的表达式（ReadableMap.toHashMap 的结果）解析，格式错误时抛出 IllegalArgumentException
+     */
+    @SuppressWarnings("unchecked")
+    public static MarkerFilter parse(Map<String, Object> expression) {
+        if (expression == null) {
+            throw new IllegalArgumentException("Filter expression must be an object");
+        }
+        List<MarkerFilter> terms = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : expression.entrySet()) {
+            String key = entry.getKey();
+            Object value = entry.getValue();
+            if ("all".equals(key) || "any".equals(key)) {
+                if (!(value instanceof List)) {
+                    throw new IllegalArgumentException("'" + key + "' requires an array of expressions");
+                }
+                List<MarkerFilter> children = new ArrayList<>();
+                for (Object child : (List<Object>) value) {
+                    children.add(parse(asExpression(child)));
+                }
+                terms.add("all".equals(key) ? new All(children) : new Any(children));
+            } else if ("not".equals(key)) {
+                terms.add(new Not(parse(asExpression(value))));
+            } else {
+                terms.add(new In(key, value));
+            }
+        }
+        return terms.size() == 1 ? terms.get(0) : new All(terms);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asExpression(Object value) {
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("Filter expression must be an object");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    private static class In extends MarkerFilter {
+        private final String name;
+        private final List<Object> values = new ArrayList<>();
+
+        In(String name, Object value) {
+            this.name = name;
+            List<?> candidates = value instanceof List ? (List<?>) value : Collections.singletonList(value);
+            for (Object candidate : candidates) {
+                Object normalized = MarkerAttributeIndex.normalize(candidate);
+                if (normalized == null) {
+                    throw new IllegalArgumentException("Unsupported value for attribute '" + name + "'");
+                }
+                values.add(normalized);
+            }
+        }
+
+        @Override
+        BitSet evaluate(MarkerAttributeIndex index, BitSet universe) {
+            BitSet result = new BitSet();
+            for (Object value : values) {
+                BitSet slots = index.slotsWithValue(name, value);
+                if (slots != null) {
+                    result.or(slots);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        boolean matches(MarkerAttributeIndex index, int slot) {
+            Object value = index.get(slot, name);
+            return value != null && values.contains(value);
+        }
+    }
+
+    private static class All extends MarkerFilter {
+        private final List<MarkerFilter> children;
+
+        All(List<MarkerFilter> children) {
+            this.children = children;
+        }
+
+        @Override
+        BitSet evaluate(MarkerAttributeIndex index, BitSet universe) {
+            BitSet result = (BitSet) universe.clone();
+            for (MarkerFilter child : children) {
+                if (result.isEmpty()) {
+                    break;
+                }
+                result.and(child.evaluate(index, universe));
+            }
+            return result;
+        }
+
+        @Override
+        boolean matches(MarkerAttributeIndex index, int slot) {
+            for (MarkerFilter child : children) {
+                if (!child.matches(index, slot)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static class Any extends MarkerFilter {
+        private final List<MarkerFilter> children;
+
+        Any(List<MarkerFilter> children) {
+            this.children = children;
+        }
+
+        @Override
+        BitSet evaluate(MarkerAttributeIndex index, BitSet universe) {
+            BitSet result = new BitSet();
+            for (MarkerFilter child : children) {
+                result.or(child.evaluate(index, universe));
+            }
+            return result;
+        }
+
+        @Override
+        boolean matches(MarkerAttributeIndex index, int slot) {
+            for (MarkerFilter child : children) {
+                if (child.matches(index, slot)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class Not extends MarkerFilter {
+        private final MarkerFilter child;
+
+        Not(MarkerFilter child) {
+            this.child = child;
+        }
+
+        @Override
+        BitSet evaluate(MarkerAttributeIndex index, BitSet universe) {
+            BitSet result = (BitSet) universe.clone();
+            result.andNot(child.evaluate(index, universe));
+            return result;
+        }
+
+        @Override
+        boolean matches(MarkerAttributeIndex index, int slot) {
+            return !child.matches(index, slot);
+        }
+    }
+}
@@ -2,21 +2,41 @@ package io.github.winyh.baidumap;
 
 import com.facebook.react.bridge.ReadableMap;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public class MarkerInfo {
+    // 字段变化掩码
+    public static final int FIELD_POSITION = 1;
+    public static final int FIELD_TITLE = 1 << 1;
+    public static final int FIELD_DESCRIPTION = 1 << 2;
+    public static final int FIELD_ICON = 1 << 3; // 图标地址或尺寸
+    public static final int FIELD_DRAGGABLE = 1 << 4;
+    public static final int FIELD_VISIBLE = 1 << 5;
+    public static final int FIELD_ALPHA = 1 << 6;
+    public static final int FIELD_ROTATION = 1 << 7;
+    public static final int FIELD_FLAT = 1 << 8;
+    public static final int FIELD_Z_INDEX = 1 << 9;
+    public static final int FIELD_ATTRIBUTES = 1 << 10;
+    public static final int FIELD_ALL = (1 << 11) - 1;
+
     private String markerId;
     private double latitude;
     private double longitude;
     private String title;
     private String description;
     private String iconUri;
+    private float iconSize;
     private boolean draggable;
     private boolean visible;
     private float alpha;
     private float rotation;
     private boolean flat;
     private int zIndex;
+    // 自定义属性（String、Double 或 Boolean），用于原生过滤
+    private Map<String, Object> attributes;
 
-    public MarkerInfo(String markerId, ReadableMap options) {
+    public MarkerInfo(String markerId) {
         this.markerId = markerId;
         this.visible = true;
         this.alpha = 1.0f;
@@ -24,81 +44,166 @@ public class MarkerInfo {
         this.flat = false;
         this.zIndex = 0;
         this.draggable = false;
-        
+    }
+
+    public MarkerInfo(String markerId, ReadableMap options) {
+        this(markerId);
         updateFromReadableMap(options);
     }
 
-    public void updateFromReadableMap(ReadableMap options) {
-        if (options == null) return;
+    /**
+     * 从选项更新标记信息，返回实际发生变化的字段掩码（FIELD_*）
+     */
+    public int updateFromReadableMap(ReadableMap options) {
+        if (options == null) return 0;
+        int changed = 0;
 
         // 坐标信息
         if (options.hasKey("coordinate")) {
             ReadableMap coordinate = options.getMap("coordinate");
             if (coordinate != null) {
-                if (coordinate.hasKey("latitude")) {
-                    this.latitude = coordinate.getDouble("latitude");
-                }
-                if (coordinate.hasKey("longitude")) {
-                    this.longitude = coordinate.getDouble("longitude");
+                double newLatitude = coordinate.hasKey("latitude") ? coordinate.getDouble("latitude") : latitude;
+                double newLongitude = coordinate.hasKey("longitude") ? coordinate.getDouble("longitude") : longitude;
+                if (newLatitude != latitude || newLongitude != longitude) {
+                    this.latitude = newLatitude;
+                    this.longitude = newLongitude;
+                    changed |= FIELD_POSITION;
                 }
             }
         }
 
         // 标题和描述
         if (options.hasKey("title")) {
-            this.title = options.getString("title");
+            String newTitle = options.getString("title");
+            if (!equals(title, newTitle)) {
+                this.title = newTitle;
+                changed |= FIELD_TITLE;
+            }
         }
 
         if (options.hasKey("description")) {
-            this.description = options.getString("description");
+            String newDescription = options.getString("description");
+            if (!equals(description, newDescription)) {
+                this.description = newDescription;
+                changed |= FIELD_DESCRIPTION;
+            }
         }
 
         // 图标
         if (options.hasKey("icon")) {
+            String newIconUri = iconUri;
             Object icon = options.getDynamic("icon").asString();
             if (icon instanceof String) {
-                this.iconUri = (String) icon;
+                newIconUri = (String) icon;
             } else if (options.getMap("icon") != null) {
                 // 处理 ImageSource 对象或其他 Map 类型的图标
                 ReadableMap iconMap = options.getMap("icon");
                 if (iconMap.hasKey("uri")) {
-                    this.iconUri = iconMap.getString("uri");
+                    newIconUri = iconMap.getString("uri");
                 } else if (iconMap.hasKey("url")) {
-                    this.iconUri = iconMap.getString("url");
+                    newIconUri = iconMap.getString("url");
                 }
             }
+            if (!equals(iconUri, newIconUri)) {
+                this.iconUri = newIconUri;
+                changed |= FIELD_ICON;
+            }
+        }
+
+        // 图标尺寸（dp，长边）
+        if (options.hasKey("iconSize")) {
+            float newIconSize = Math.max(0.0f, (float) options.getDouble("iconSize"));
+            if (newIconSize != iconSize) {
+                this.iconSize = newIconSize;
+                changed |= FIELD_ICON;
+            }
         }
 
         // 拖拽
         if (options.hasKey("draggable")) {
-            this.draggable = options.getBoolean("draggable");
+            boolean newDraggable = options.getBoolean("draggable");
+            if (newDraggable != draggable) {
+                this.draggable = newDraggable;
+                changed |= FIELD_DRAGGABLE;
+            }
         }
 
         // 可见性
         if (options.hasKey("visible")) {
-            this.visible = options.getBoolean("visible");
+            boolean newVisible = options.getBoolean("visible");
+            if (newVisible != visible) {
+                this.visible = newVisible;
+                changed |= FIELD_VISIBLE;
+            }
         }
 
         // 透明度
         if (options.hasKey("alpha")) {
-            this.alpha = (float) options.getDouble("alpha");
-            this.alpha = Math.max(0.0f, Math.min(1.0f, this.alpha));
+            float newAlpha = Math.max(0.0f, Math.min(1.0f, (float) options.getDouble("alpha")));
+            if (newAlpha != alpha) {
+                this.alpha = newAlpha;
+                changed |= FIELD_ALPHA;
+            }
         }
 
         // 旋转角度
         if (options.hasKey("rotation")) {
-            this.rotation = (float) options.getDouble("rotation");
+            float newRotation = (float) options.getDouble("rotation");
+            if (newRotation != rotation) {
+                this.rotation = newRotation;
+                changed |= FIELD_ROTATION;
+            }
         }
 
         // 是否平贴地面
         if (options.hasKey("flat")) {
-            this.flat = options.getBoolean("flat");
+            boolean newFlat = options.getBoolean("flat");
+            if (newFlat != flat) {
+                this.flat = newFlat;
+                changed |= FIELD_FLAT;
+            }
         }
 
         // Z轴顺序
         if (options.hasKey("zIndex")) {
-            this.zIndex = options.getInt("zIndex");
+            int newZIndex = options.getInt("zIndex");
+            if (newZIndex != zIndex) {
+                this.zIndex = newZIndex;
+                changed |= FIELD_Z_INDEX;
+            }
         }
+
+        // 自定义属性，整体替换
+        if (options.hasKey("attributes")) {
+            Map<String, Object> newAttributes = parseAttributes(options.getMap("attributes"));
+            if (!equals(attributes, newAttributes)) {
+                this.attributes = newAttributes;
+                changed |= FIELD_ATTRIBUTES;
+            }
+        }
+
+        return changed;
+    }
+
+    /**
+     * 解析自定义属性，只保留字符串、数字和布尔值
+     */
+    static Map<String, Object> parseAttributes(ReadableMap attributesMap) {
+        if (attributesMap == null) {
+            return null;
+        }
+        Map<String, Object> result = new HashMap<>();
+        for (Map.Entry<String, Object> entry : attributesMap.toHashMap().entrySet()) {
+            Object value = MarkerAttributeIndex.normalize(entry.getValue());
+            if (value != null) {
+                result.put(entry.getKey(), value);
+            }
+        }
+        return result.isEmpty() ? null : result;
+    }
+
+    private static boolean equals(Object a, Object b) {
+        return (a == null) ? (b == null) : a.equals(b);
     }
 
     // Getters and Setters
@@ -146,6 +251,14 @@ public class MarkerInfo {
         this.iconUri = iconUri;
     }
 
+    public float getIconSize() {
+        return iconSize;
+    }
+
+    public void setIconSize(float iconSize) {
+        this.iconSize = Math.max(0.0f, iconSize);
+    }
+
     public boolean isDraggable() {
         return draggable;
     }
@@ -194,6 +307,14 @@ public class MarkerInfo {
         this.zIndex = zIndex;
     }
 
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    public void setAttributes(Map<String, Object> attributes) {
+        this.attributes = attributes;
+    }
+
     @Override
     public String toString() {
         return "MarkerInfo{" +
@@ -203,12 +324,14 @@ public class MarkerInfo {
                 ", title='" + title + '\'' +
                 ", description='" + description + '\'' +
                 ", iconUri='" + iconUri + '\'' +
+                ", iconSize=" + iconSize +
                 ", draggable=" + draggable +
                 ", visible=" + visible +
                 ", alpha=" + alpha +
                 ", rotation=" + rotation +
                 ", flat=" + flat +
                 ", zIndex=" + zIndex +
+                ", attributes=" + attributes +
                 '}';
     }
 }
\ No newline at end of file
@@ -2,9 +2,16 @@ package io.github.winyh.baidumap;
 
 import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Point;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Log;
+import android.view.Choreographer;
 import android.view.View;
 import android.widget.TextView;
 
@@ -12,18 +19,38 @@ import com.baidu.mapapi.map.BaiduMap;
 import com.baidu.mapapi.map.BitmapDescriptor;
 import com.baidu.mapapi.map.BitmapDescriptorFactory;
 import com.baidu.mapapi.map.InfoWindow;
+import com.baidu.mapapi.map.MapStatus;
+import com.baidu.mapapi.map.MapStatusUpdateFactory;
 import com.baidu.mapapi.map.Marker;
 import com.baidu.mapapi.map.MarkerOptions;
+import com.baidu.mapapi.map.Overlay;
+import com.baidu.mapapi.map.OverlayOptions;
+import com.baidu.mapapi.map.Projection;
 import com.baidu.mapapi.model.LatLng;
+import com.baidu.mapapi.model.LatLngBounds;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReactContext;
+import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.uimanager.events.RCTEventEmitter;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class MarkerManager {
     private static final String TAG = "BaiduMarkerManager";
@@ -31,18 +58,119 @@ public class MarkerManager {
     private ReactContext reactContext;
     private BaiduMapView mapView;
     
-    // 标记存储
-    private Map<String, MarkerInfo> markers = new HashMap<>();
-    private AtomicInteger markerIdGenerator = new AtomicInteger(0);
+    // 标记存储（结构数组，按 int 句柄索引）
+    private MarkerStore store = new MarkerStore();
     
     // 百度地图相关对象
     private BaiduMap baiduMap;
-    private Map<String, Marker> baiduMarkers = new HashMap<>();
+    
+    // 百度标记到标记句柄的反向索引（按对象身份），同时也是当前已显示标记的集合
+    private Map<Marker, Integer> markerHandlesByBaiduMarker = new IdentityHashMap<>();
+    
+    private static final String EXTRA_MARKER_ID = "markerId";
+    private static final String EXTRA_CLUSTER_ID = "clusterId";
+    
+    // 图标缓存（进程级共享）
+    private static final String PLACEHOLDER_ICON_KEY = "placeholder://marker";
+    private static final String CLUSTER_ICON_KEY_PREFIX = "cluster://";
+    private BitmapDescriptorCache iconCache;
+    
+    // 图标异步加载与解码，等待中的标记按缓存键分组，完成后在主线程替换占位图标
+    // 未指定 iconSize 的图标保持原始尺寸，只在长边超过上限时缩小，防止超大图片占满内存
+    public static final int MAX_ICON_SIZE_DP = 256;
+    // 碰撞检测时未指定 iconSize 的标记按此尺寸估算
+    public static final int DEFAULT_ICON_SIZE_DP = 48;
+    private RemoteIconLoader remoteIconLoader;
+    private IconDecoder iconDecoder;
+    private float displayDensity;
+    private Map<String, Set<Integer>> pendingIcons = new HashMap<>();
+    private boolean destroyed = false;
+    
+    // 聚合相关
+    private static final long CLUSTER_REBUILD_DELAY_MS = 50;
+    private static final int CLUSTER_EVENT_MAX_MARKER_IDS = 100;
+    private boolean clusteringEnabled = false;
+    private int clusterRadius = MarkerClusterer.DEFAULT_RADIUS;
+    private MarkerClusterer clusterer;
+    private int clusterGeneration = 0;
+    private int renderedClusterZoom = -1;
+    // 已显示的聚合标记，键为 Cluster.getKey()
+    private Map<Long, Marker> clusterMarkers = new HashMap<>();
+    private Map<Marker, MarkerClusterer.Cluster> clustersByBaiduMarker = new IdentityHashMap<>();
+    // 当前聚合结果中数据集点的来源。数据集的点不写入存储，直接从映射的坐标列参与聚合，
+    // 以负的句柄 -1 - (clusterLayerOffsets[i] + 点下标) 表示，只有渲染为单个标记时才写入存储
+    private DatasetLayer[] clusterLayers = new DatasetLayer[0];
+    private int[] clusterLayerOffsets = new int[0];
+    
+    // 空间索引与视口裁剪
+    public static final float DEFAULT_CULLING_MARGIN = 0.25f;
+    private MarkerSpatialIndex spatialIndex = new MarkerSpatialIndex();
+    private boolean cullingEnabled = false;
+    private float cullingMargin = DEFAULT_CULLING_MARGIN;
+    private double[] cullBounds; // minLat, minLng, maxLat, maxLng
+    
+    // 内存映射的二进制数据集，只为视口内的点创建标记
+    public static final int DEFAULT_DATASET_MAX_MARKERS = 2000;
+    private Map<String, DatasetLayer> datasets = new HashMap<>();
+    private int datasetCounter = 0;
+    
+    // 超过该数量的批量创建交给 FrameScheduler 按帧分片执行，视口内的分片优先
+    private static final int SYNC_MATERIALIZE_LIMIT = 200;
+    private static final int MATERIALIZE_CHUNK_SIZE = 50;
+    // 删除全部标记时递增，使尚未执行的分片失效
+    private int materializeEpoch = 0;
+    
+    // 渲染预算：非聚合模式下视口内最多显示的标记数量，0 表示不限
+    // 按 zIndex 从高到低、同级按离视口中心由近到远选取，地图停止移动后重新选择
+    private int renderBudget = 0;
+    private IntArrayList budgetHandles = new IntArrayList();
+    private int budgetShownCount = -1;
+    private int budgetHiddenCount = -1;
+    private boolean budgetRefreshScheduled = false;
+    private final Runnable budgetRefreshRunnable = () -> {
+        budgetRefreshScheduled = false;
+        applyRenderBudget();
+    };
+    
+    // 属性过滤：不满足条件的标记隐藏，null 表示不过滤
+    private MarkerFilter markerFilter;
+    
+    // 碰撞检测：屏幕上相互重叠的标记只显示 zIndex 最高的一个
+    private boolean declutterEnabled = false;
+    private boolean declutterScheduled = false;
+    private MarkerDeclutterer declutterer;
+    private boolean[] declutterHidden = new boolean[0];
+    private final Runnable declutterRunnable = this::declutterMarkers;
+    
+    // 百度标记复用池，大小为 0 时不启用
+    private MarkerPool markerPool;
+    
+    // 拖拽事件合并：每个标记只保留最新位置，间隔为 0 时每帧最多发送一次
+    private Map<Integer, LatLng> pendingDrags = new LinkedHashMap<>();
+    private long dragEventIntervalMs = 0;
+    private long lastDragFlushTime = 0;
+    private boolean dragFlushScheduled = false;
+    private final Runnable dragFlushRunnable = this::flushDragEvents;
+    private final Choreographer.FrameCallback dragFrameCallback = frameTimeNanos -> flushDragEvents();
+    
+    // 标记移动动画（主线程）
+    private MarkerAnimator markerAnimator;
+    
+    private Handler mainHandler;
+    private ExecutorService clusterExecutor;
+    private MarkerFileLoader fileLoader;
+    private final Runnable clusterRebuildRunnable = this::rebuildClusters;
 
     public MarkerManager(ReactContext reactContext, BaiduMapView mapView) {
         this.reactContext = reactContext;
         this.mapView = mapView;
         this.baiduMap = mapView.getBaiduMap();
+        this.mainHandler = new Handler(Looper.getMainLooper());
+        this.iconCache = BitmapDescriptorCache.getInstance(reactContext);
+        this.remoteIconLoader = RemoteIconLoader.getInstance(reactContext);
+        this.iconDecoder = IconDecoder.getInstance(reactContext);
+        this.displayDensity = reactContext.getResources().getDisplayMetrics().density;
+        registerMarkerListeners();
     }
 
     /**
@@ -50,311 +178,2156 @@ public class MarkerManager {
      */
     public String addMarker(ReadableMap markerOptions) {
         try {
-            String markerId = generateMarkerId();
-            MarkerInfo markerInfo = new MarkerInfo(markerId, markerOptions);
+            return addMarker(new MarkerInfo(null, markerOptions));
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to add marker", e);
+            return null;
+        }
+    }
+
+    /**
+     * 添加标记（类型化路径，供声明式 Marker 组件使用），属性被复制到存储中
+     */
+    public String addMarker(MarkerInfo markerInfo) {
+        try {
+            int handle = store.add(markerInfo);
+            if (handle < 0) {
+                Log.e(TAG, "Marker store is full, max markers: " + MarkerStore.MAX_MARKERS);
+                return null;
+            }
+            String markerId = MarkerStore.idOf(handle);
+            updateFilterState(handle);
             
             Log.d(TAG, "Adding marker: " + markerId + " at " + 
                 markerInfo.getLatitude() + ", " + markerInfo.getLongitude());
             
-            // 创建百度地图标记
-            LatLng position = new LatLng(markerInfo.getLatitude(), markerInfo.getLongitude());
+            spatialIndex.insert(handle, markerInfo.getLatitude(), markerInfo.getLongitude());
+            
+            if (clusteringEnabled) {
+                // 聚合模式下由聚合结果决定是否创建百度标记
+                scheduleClusterRebuild();
+            } else if (shouldMaterialize(handle)) {
+                // 创建百度地图标记
+                createBaiduMarker(handle);
+            } else {
+                scheduleRenderBudgetRefresh();
+            }
+            
+            Log.d(TAG, "Marker added successfully: " + markerId);
+            return markerId;
+            
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to add marker", e);
+            return null;
+        }
+    }
+
+    /**
+     * 批量添加标记
+     * 一次性构建全部 MarkerOptions 并通过 addOverlays 提交，返回与输入顺序一致的ID列表，
+     * 无效的条目对应位置为 null
+     */
+    public List<String> addMarkers(ReadableArray markerOptionsArray) {
+        List<String> markerIds = new ArrayList<>();
+        if (markerOptionsArray == null || markerOptionsArray.size() == 0) {
+            return markerIds;
+        }
+        
+        try {
+            Log.d(TAG, "Adding markers in batch: " + markerOptionsArray.size());
             
-            MarkerOptions options = new MarkerOptions()
-                .position(position)
-                .title(markerInfo.getTitle())
-                .draggable(markerInfo.isDraggable());
+            IntArrayList visibleHandles = new IntArrayList(markerOptionsArray.size());
+            int addedCount = 0;
             
-            // 设置自定义图标
-            if (markerInfo.getIconUri() != null) {
-                BitmapDescriptor icon = createIconFromUri(markerInfo.getIconUri());
-                if (icon != null) {
-                    options.icon(icon);
+            for (int i = 0; i < markerOptionsArray.size(); i++) {
+                ReadableMap options = markerOptionsArray.getMap(i);
+                if (options == null || !options.hasKey("coordinate")) {
+                    Log.w(TAG, "Skipping invalid marker options at index " + i);
+                    markerIds.add(null);
+                    continue;
+                }
+                
+                int handle = insertMarker(new MarkerInfo(null, options), visibleHandles);
+                if (handle < 0) {
+                    Log.w(TAG, "Marker store is full, skipping marker at index " + i);
+                    markerIds.add(null);
+                    continue;
                 }
+                markerIds.add(MarkerStore.idOf(handle));
+                addedCount++;
+            }
+            
+            if (addedCount == 0) {
+                return markerIds;
             }
             
-            Marker baiduMarker = (Marker) baiduMap.addOverlay(options);
-            baiduMarkers.put(markerId, baiduMarker);
+            commitInsertedMarkers(visibleHandles);
             
-            // 设置标记点击监听
-            baiduMap.setOnMarkerClickListener(new BaiduMap.OnMarkerClickListener() {
-                @Override
-                public boolean onMarkerClick(Marker marker) {
-                    String clickedMarkerId = findMarkerIdByBaiduMarker(marker);
-                    if (clickedMarkerId != null) {
-                        sendMarkerClickEvent(clickedMarkerId, marker.getPosition());
-                    }
+            Log.d(TAG, "Markers added successfully: " + addedCount);
+            
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to add markers in batch", e);
+        }
+        return markerIds;
+    }
+
+    /**
+     * 批量添加已解析的标记，用于原生数据源（如文件导入），返回成功添加的数量
+     */
+    public int addMarkerInfos(List<MarkerInfo> markerInfos) {
+        int addedCount = 0;
+        try {
+            IntArrayList visibleHandles = new IntArrayList(markerInfos.size());
+            for (MarkerInfo markerInfo : markerInfos) {
+                if (insertMarker(markerInfo, visibleHandles) >= 0) {
+                    addedCount++;
+                }
+            }
+            if (addedCount > 0) {
+                commitInsertedMarkers(visibleHandles);
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to add parsed markers", e);
+        }
+        return addedCount;
+    }
+
+    /**
+     * 从本地 GeoJSON / CSV 文件导入标记，返回导入ID
+     * 解析在后台线程进行，进度通过 onMarkersLoadProgress 事件通知；removeAllMarkers 会取消进行中的导入
+     */
+    public String loadMarkersFromFile(String uri, ReadableMap mapping) {
+        if (fileLoader == null) {
+            fileLoader = new MarkerFileLoader(reactContext, this);
+        }
+        String loadId = fileLoader.load(uri, mapping);
+        Log.d(TAG, "Loading markers from file: " + uri + " (" + loadId + ")");
+        return loadId;
+    }
+
+    /**
+     * 把 GeoJSON / CSV 文件转换为二进制数据集，返回任务ID，可用 cancelMarkersLoad 取消
+     */
+    public String convertMarkerFile(String uri, String outputPath, ReadableMap mapping) {
+        if (fileLoader == null) {
+            fileLoader = new MarkerFileLoader(reactContext, this);
+        }
+        return fileLoader.convert(uri, mapping, outputPath);
+    }
+
+    /**
+     * 取消文件导入，已导入的标记保留
+     */
+    public boolean cancelMarkersLoad(String loadId) {
+        return fileLoader != null && fileLoader.cancel(loadId);
+    }
+
+    /**
+     * 写入存储和空间索引，需要立即显示的句柄加入 visibleHandles，存储已满时返回 -1
+     */
+    private int insertMarker(MarkerInfo markerInfo, IntArrayList visibleHandles) {
+        int handle = store.add(markerInfo);
+        if (handle < 0) {
+            return -1;
+        }
+        updateFilterState(handle);
+        spatialIndex.insert(handle, markerInfo.getLatitude(), markerInfo.getLongitude());
+        if (!clusteringEnabled && shouldMaterialize(handle)) {
+            visibleHandles.add(handle);
+        }
+        return handle;
+    }
+
+    /**
+     * 批量插入完成后统一提交到地图
+     */
+    private void commitInsertedMarkers(IntArrayList visibleHandles) {
+        if (clusteringEnabled) {
+            scheduleClusterRebuild();
+        } else {
+            // 单次提交到地图
+            materializeMarkers(visibleHandles);
+            scheduleRenderBudgetRefresh();
+        }
+    }
+
+    /**
+     * 构建百度地图标记选项
+     */
+    private MarkerOptions buildMarkerOptions(int handle) {
+        MarkerInfo markerInfo = store.get(handle);
+        LatLng position = new LatLng(markerInfo.getLatitude(), markerInfo.getLongitude());
+        
+        Bundle extraInfo = new Bundle();
+        extraInfo.putString(EXTRA_MARKER_ID, markerInfo.getMarkerId());
+        
+        MarkerOptions options = new MarkerOptions()
+            .position(position)
+            .title(markerInfo.getTitle())
+            .draggable(markerInfo.isDraggable())
+            .visible(isMarkerShown(handle))
+            .alpha(markerInfo.getAlpha())
+            .rotate(markerInfo.getRotation())
+            .flat(markerInfo.isFlat())
+            .zIndex(markerInfo.getZIndex())
+            .extraInfo(extraInfo);
+        
+        // 设置自定义图标
+        if (markerInfo.getIconUri() != null) {
+            BitmapDescriptor icon = createIconFromUri(handle, markerInfo);
+            if (icon != null) {
+                options.icon(icon);
+            }
+        }
+        return options;
+    }
+
+    /**
+     * 为单个标记创建百度标记，优先复用池中的标记
+     */
+    private void createBaiduMarker(int handle) {
+        Marker baiduMarker = markerPool != null ? markerPool.acquire() : null;
+        if (baiduMarker != null) {
+            retargetBaiduMarker(handle, baiduMarker);
+        } else {
+            baiduMarker = (Marker) baiduMap.addOverlay(buildMarkerOptions(handle));
+        }
+        bindBaiduMarker(handle, baiduMarker);
+    }
+
+    /**
+     * 用池中的标记承接尽可能多的句柄，返回仍需新建覆盖物的句柄
+     */
+    private IntArrayList bindPooledMarkers(IntArrayList handles) {
+        if (markerPool == null) {
+            return handles;
+        }
+        IntArrayList remaining = new IntArrayList(handles.size());
+        for (int i = 0; i < handles.size(); i++) {
+            int handle = handles.get(i);
+            // 池空时 acquire 也要调用，以便统计未命中次数
+            Marker baiduMarker = markerPool.acquire();
+            if (baiduMarker != null) {
+                retargetBaiduMarker(handle, baiduMarker);
+                bindBaiduMarker(handle, baiduMarker);
+            } else {
+                remaining.add(handle);
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * 把复用的百度标记的全部属性设置为指定标记
+     */
+    private void retargetBaiduMarker(int handle, Marker baiduMarker) {
+        MarkerInfo markerInfo = store.get(handle);
+        BitmapDescriptor icon = createIconFromUri(handle, markerInfo);
+        
+        Bundle extraInfo = new Bundle();
+        extraInfo.putString(EXTRA_MARKER_ID, markerInfo.getMarkerId());
+        
+        baiduMarker.setPosition(new LatLng(markerInfo.getLatitude(), markerInfo.getLongitude()));
+        baiduMarker.setIcon(icon != null ? icon : getPlaceholderIcon());
+        baiduMarker.setTitle(markerInfo.getTitle());
+        baiduMarker.setDraggable(markerInfo.isDraggable());
+        baiduMarker.setAlpha(markerInfo.getAlpha());
+        baiduMarker.setRotate(markerInfo.getRotation());
+        baiduMarker.setFlat(markerInfo.isFlat());
+        baiduMarker.setZIndex(markerInfo.getZIndex());
+        baiduMarker.setExtraInfo(extraInfo);
+        baiduMarker.setVisible(isMarkerShown(handle));
+    }
+
+    /**
+     * 回收或移除已解除关联的百度标记
+     * 复用池已满或未启用时，overlaysToRemove 不为空则加入其中批量移除，否则立即移除
+     */
+    private void releaseBaiduMarker(Marker baiduMarker, List<Overlay> overlaysToRemove) {
+        if (baiduMarker == null || (markerPool != null && markerPool.release(baiduMarker))) {
+            return;
+        }
+        if (overlaysToRemove != null) {
+            overlaysToRemove.add(baiduMarker);
+        } else {
+            baiduMarker.remove();
+        }
+    }
+
+    /**
+     * 设置标记复用池大小，0 表示关闭复用
+     */
+    public void setMarkerPoolSize(int size) {
+        if (size <= 0) {
+            if (markerPool != null) {
+                markerPool.destroy();
+                markerPool = null;
+            }
+            return;
+        }
+        if (markerPool == null) {
+            markerPool = new MarkerPool(reactContext, size);
+        } else {
+            markerPool.setMaxSize(size);
+        }
+    }
+
+    public MarkerPool getMarkerPool() {
+        return markerPool;
+    }
+
+    /**
+     * 关联标记句柄与百度标记
+     */
+    private void bindBaiduMarker(int handle, Marker baiduMarker) {
+        store.setBaiduMarker(handle, baiduMarker);
+        markerHandlesByBaiduMarker.put(baiduMarker, handle);
+        scheduleDeclutter();
+    }
+
+    /**
+     * 按顺序关联批量添加得到的百度标记
+     */
+    private void bindBaiduMarkers(IntArrayList handles, List<Overlay> overlays) {
+        for (int i = 0; i < handles.size(); i++) {
+            if (overlays != null && i < overlays.size() && overlays.get(i) instanceof Marker) {
+                bindBaiduMarker(handles.get(i), (Marker) overlays.get(i));
+            }
+        }
+    }
+
+    /**
+     * 解除标记句柄与百度标记的关联
+     */
+    private Marker unbindBaiduMarker(int handle) {
+        Marker baiduMarker = store.getBaiduMarker(handle);
+        if (baiduMarker != null) {
+            store.setBaiduMarker(handle, null);
+            markerHandlesByBaiduMarker.remove(baiduMarker);
+            scheduleDeclutter();
+            if (markerAnimator != null) {
+                markerAnimator.cancel(handle);
+            }
+        }
+        return baiduMarker;
+    }
+
+    /**
+     * 当前已显示标记的句柄快照
+     */
+    private IntArrayList materializedHandles() {
+        IntArrayList handles = new IntArrayList(Math.max(1, markerHandlesByBaiduMarker.size()));
+        for (Integer handle : markerHandlesByBaiduMarker.values()) {
+            handles.add(handle);
+        }
+        return handles;
+    }
+
+    /**
+     * 注册标记点击和拖拽监听
+     * 地图级监听只在构造时注册一次，所有标记共享
+     */
+    private void registerMarkerListeners() {
+        // 设置标记点击监听
+        baiduMap.setOnMarkerClickListener(new BaiduMap.OnMarkerClickListener() {
+            @Override
+            public boolean onMarkerClick(Marker marker) {
+                int clickedHandle = findMarkerHandleByBaiduMarker(marker);
+                if (clickedHandle >= 0) {
+                    sendMarkerClickEvent(MarkerStore.idOf(clickedHandle), marker.getPosition());
                     return true;
                 }
-            });
+                
+                MarkerClusterer.Cluster cluster = clustersByBaiduMarker.get(marker);
+                if (cluster != null) {
+                    onClusterClick(cluster);
+                }
+                return true;
+            }
+        });
+        
+        // 设置标记拖拽监听
+        baiduMap.setOnMarkerDragListener(new BaiduMap.OnMarkerDragListener() {
+            @Override
+            public void onMarkerDrag(Marker marker) {
+                int draggedHandle = findMarkerHandleByBaiduMarker(marker);
+                if (draggedHandle >= 0) {
+                    // 只记录最新位置，按帧或按间隔合并发送
+                    pendingDrags.put(draggedHandle, marker.getPosition());
+                    scheduleDragFlush();
+                }
+            }
             
-            // 设置标记拖拽监听
-            if (markerInfo.isDraggable()) {
-                baiduMap.setOnMarkerDragListener(new BaiduMap.OnMarkerDragListener() {
-                    @Override
-                    public void onMarkerDrag(Marker marker) {
-                        String draggedMarkerId = findMarkerIdByBaiduMarker(marker);
-                        if (draggedMarkerId != null) {
-                            sendMarkerDragEvent(draggedMarkerId, marker.getPosition(), "drag");
-                        }
-                    }
-                    
-                    @Override
-                    public void onMarkerDragEnd(Marker marker) {
-                        String draggedMarkerId = findMarkerIdByBaiduMarker(marker);
-                        if (draggedMarkerId != null) {
-                            // 更新标记信息
-                            MarkerInfo info = markers.get(draggedMarkerId);
-                            if (info != null) {
-                                info.setLatitude(marker.getPosition().latitude);
-                                info.setLongitude(marker.getPosition().longitude);
-                            }
-                            sendMarkerDragEvent(draggedMarkerId, marker.getPosition(), "end");
-                        }
-                    }
+            @Override
+            public void onMarkerDragEnd(Marker marker) {
+                int draggedHandle = findMarkerHandleByBaiduMarker(marker);
+                if (draggedHandle >= 0) {
+                    // 结束事件携带最终位置，尚未发送的拖拽位置直接丢弃
+                    pendingDrags.remove(draggedHandle);
                     
-                    @Override
-                    public void onMarkerDragStart(Marker marker) {
-                        String draggedMarkerId = findMarkerIdByBaiduMarker(marker);
-                        if (draggedMarkerId != null) {
-                            sendMarkerDragEvent(draggedMarkerId, marker.getPosition(), "start");
-                        }
-                    }
-                });
+                    // 更新标记信息
+                    setMarkerPosition(draggedHandle, marker.getPosition().latitude, marker.getPosition().longitude);
+                    sendMarkerDragEvent(MarkerStore.idOf(draggedHandle), marker.getPosition(), "end");
+                }
+            }
+            
+            @Override
+            public void onMarkerDragStart(Marker marker) {
+                int draggedHandle = findMarkerHandleByBaiduMarker(marker);
+                if (draggedHandle >= 0) {
+                    sendMarkerDragEvent(MarkerStore.idOf(draggedHandle), marker.getPosition(), "start");
+                }
+            }
+        });
+    }
+
+    /**
+     * 更新标记
+     */
+    public boolean updateMarker(String markerId, ReadableMap markerOptions) {
+        try {
+            int handle = MarkerStore.handleOf(markerId);
+            if (!store.contains(handle)) {
+                Log.w(TAG, "Marker not found for update: " + markerId);
+                return false;
+            }
+            
+            Log.d(TAG, "Updating marker: " + markerId);
+            
+            double oldLatitude = store.getLatitude(handle);
+            double oldLongitude = store.getLongitude(handle);
+            
+            // 更新标记信息，只处理实际变化的字段
+            int changed = store.update(handle, markerOptions);
+            if (changed != 0) {
+                onMarkerChanged(handle, oldLatitude, oldLongitude, changed);
+            }
+            
+            Log.d(TAG, "Marker updated successfully: " + markerId);
+            return true;
+            
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to update marker: " + markerId, e);
+            return false;
+        }
+    }
+
+    /**
+     * 更新标记（类型化路径），只复制 fields 掩码（MarkerInfo.FIELD_*）指定的属性，
+     * 不经过 ReadableMap，也不分配中间对象
+     */
+    public boolean updateMarker(String markerId, MarkerInfo source, int fields) {
+        try {
+            int handle = MarkerStore.handleOf(markerId);
+            if (!store.contains(handle)) {
+                Log.w(TAG, "Marker not found for update: " + markerId);
+                return false;
+            }
+            
+            double oldLatitude = store.getLatitude(handle);
+            double oldLongitude = store.getLongitude(handle);
+            int changed = store.update(handle, source, fields);
+            if (changed != 0) {
+                onMarkerChanged(handle, oldLatitude, oldLongitude, changed);
+            }
+            return true;
+            
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to update marker: " + markerId, e);
+            return false;
+        }
+    }
+
+    /**
+     * 标记属性变化后同步索引、聚合、裁剪和百度标记
+     */
+    private void onMarkerChanged(int handle, double oldLatitude, double oldLongitude, int changed) {
+        if ((changed & MarkerInfo.FIELD_ATTRIBUTES) != 0 && updateFilterState(handle)) {
+            // 过滤结果变化等同于可见性变化
+            changed |= MarkerInfo.FIELD_VISIBLE;
+        }
+        if ((changed & MarkerInfo.FIELD_VISIBLE) != 0) {
+            scheduleRenderBudgetRefresh();
+        }
+        if ((changed & MarkerInfo.FIELD_POSITION) != 0) {
+            spatialIndex.update(handle, oldLatitude, oldLongitude,
+                store.getLatitude(handle), store.getLongitude(handle));
+        }
+        
+        if (clusteringEnabled && (changed & (MarkerInfo.FIELD_POSITION | MarkerInfo.FIELD_VISIBLE)) != 0) {
+            scheduleClusterRebuild();
+        } else if (cullingEnabled && (changed & MarkerInfo.FIELD_POSITION) != 0) {
+            syncCulledMarker(handle);
+        }
+        
+        // 更新百度地图标记，直接设置的位置和朝向优先于进行中的动画
+        Marker baiduMarker = store.getBaiduMarker(handle);
+        if (baiduMarker != null) {
+            if (markerAnimator != null
+                && (changed & (MarkerInfo.FIELD_POSITION | MarkerInfo.FIELD_ROTATION)) != 0) {
+                markerAnimator.cancel(handle);
+            }
+            applyMarkerChanges(handle, baiduMarker, changed);
+            if ((changed & (MarkerInfo.FIELD_ICON | MarkerInfo.FIELD_VISIBLE | MarkerInfo.FIELD_Z_INDEX)) != 0) {
+                scheduleDeclutter();
+            }
+        }
+    }
+
+    /**
+     * 平滑移动标记
+     * 标记数据立即更新为终点（索引、聚合和裁剪都按终点计算），地图上的标记在
+     * durationMs 内按缓动曲线过渡；rotation 为 NaN 时保持当前朝向
+     */
+    public boolean moveMarker(String markerId, double latitude, double longitude,
+                              long durationMs, String easing, float rotation) {
+        try {
+            int handle = MarkerStore.handleOf(markerId);
+            if (!store.contains(handle)) {
+                Log.w(TAG, "Marker not found for move: " + markerId);
+                return false;
+            }
+            
+            // 从当前显示位置开始，打断旧动画时不会跳变
+            Marker baiduMarker = store.getBaiduMarker(handle);
+            LatLng from = baiduMarker != null ? baiduMarker.getPosition() : null;
+            float fromRotation = baiduMarker != null ? baiduMarker.getRotate() : store.getRotation(handle);
+            
+            setMarkerPosition(handle, latitude, longitude);
+            if (!Float.isNaN(rotation)) {
+                store.setRotation(handle, rotation);
+            }
+            
+            if (clusteringEnabled) {
+                scheduleClusterRebuild();
+            } else if (cullingEnabled) {
+                syncCulledMarker(handle);
+            }
+            
+            // 裁剪可能刚刚创建或移除了百度标记
+            baiduMarker = store.getBaiduMarker(handle);
+            if (baiduMarker == null) {
+                return true;
+            }
+            
+            LatLng to = new LatLng(latitude, longitude);
+            if (from == null || durationMs <= 0) {
+                if (markerAnimator != null) {
+                    markerAnimator.cancel(handle);
+                }
+                baiduMarker.setPosition(to);
+                baiduMarker.setRotate(store.getRotation(handle));
+                return true;
+            }
+            
+            if (markerAnimator == null) {
+                markerAnimator = new MarkerAnimator();
+            }
+            markerAnimator.animate(handle, baiduMarker, from, to, fromRotation, rotation, durationMs, easing);
+            return true;
+            
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to move marker: " + markerId, e);
+            return false;
+        }
+    }
+
+    /**
+     * 将变化的字段写入百度标记
+     */
+    private void applyMarkerChanges(int handle, Marker baiduMarker, int changed) {
+        if ((changed & MarkerInfo.FIELD_POSITION) != 0) {
+            baiduMarker.setPosition(new LatLng(store.getLatitude(handle), store.getLongitude(handle)));
+        }
+        if ((changed & ~MarkerInfo.FIELD_POSITION) == 0) {
+            // 只有位置变化时不创建快照
+            return;
+        }
+        
+        MarkerInfo markerInfo = store.get(handle);
+        if ((changed & MarkerInfo.FIELD_TITLE) != 0) {
+            baiduMarker.setTitle(markerInfo.getTitle());
+        }
+        if ((changed & MarkerInfo.FIELD_ICON) != 0) {
+            BitmapDescriptor icon = createIconFromUri(handle, markerInfo);
+            if (icon != null) {
+                baiduMarker.setIcon(icon);
+            }
+        }
+        if ((changed & MarkerInfo.FIELD_DRAGGABLE) != 0) {
+            baiduMarker.setDraggable(markerInfo.isDraggable());
+        }
+        if ((changed & MarkerInfo.FIELD_VISIBLE) != 0) {
+            baiduMarker.setVisible(isMarkerShown(handle));
+        }
+        if ((changed & MarkerInfo.FIELD_ALPHA) != 0) {
+            baiduMarker.setAlpha(markerInfo.getAlpha());
+        }
+        if ((changed & MarkerInfo.FIELD_ROTATION) != 0) {
+            baiduMarker.setRotate(markerInfo.getRotation());
+        }
+        if ((changed & MarkerInfo.FIELD_FLAT) != 0) {
+            baiduMarker.setFlat(markerInfo.isFlat());
+        }
+        if ((changed & MarkerInfo.FIELD_Z_INDEX) != 0) {
+            baiduMarker.setZIndex(markerInfo.getZIndex());
+        }
+    }
+
+    /**
+     * 删除标记
+     */
+    public boolean removeMarker(String markerId) {
+        try {
+            Log.d(TAG, "Removing marker: " + markerId);
+            
+            if (!deleteMarker(MarkerStore.handleOf(markerId), null)) {
+                Log.w(TAG, "Marker not found for removal: " + markerId);
+                return false;
+            }
+            
+            if (clusteringEnabled) {
+                scheduleClusterRebuild();
+            }
+            
+            Log.d(TAG, "Marker removed successfully: " + markerId);
+            return true;
+            
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to remove marker: " + markerId, e);
+            return false;
+        }
+    }
+
+    /**
+     * 批量更新标记
+     * 每个条目需包含 id 字段，其余字段与 updateMarker 的选项一致，返回成功更新的数量
+     */
+    public int updateMarkers(ReadableArray updates) {
+        int updatedCount = 0;
+        if (updates == null) {
+            return updatedCount;
+        }
+        
+        for (int i = 0; i < updates.size(); i++) {
+            ReadableMap update = updates.getMap(i);
+            if (update == null || !update.hasKey("id")) {
+                Log.w(TAG, "Skipping marker update without id at index " + i);
+                continue;
+            }
+            if (updateMarker(update.getString("id"), update)) {
+                updatedCount++;
+            }
+        }
+        
+        Log.d(TAG, "Markers updated in batch: " + updatedCount + "/" + updates.size());
+        return updatedCount;
+    }
+
+    /**
+     * 批量删除标记
+     * 通过 removeOverLays 一次性移除，返回成功删除的数量
+     */
+    public int removeMarkers(ReadableArray markerIds) {
+        int removedCount = 0;
+        if (markerIds == null) {
+            return removedCount;
+        }
+        
+        try {
+            List<Overlay> overlaysToRemove = new ArrayList<>(markerIds.size());
+            for (int i = 0; i < markerIds.size(); i++) {
+                if (deleteMarker(MarkerStore.handleOf(markerIds.getString(i)), overlaysToRemove)) {
+                    removedCount++;
+                }
+            }
+            
+            if (!overlaysToRemove.isEmpty()) {
+                baiduMap.removeOverLays(overlaysToRemove);
+            }
+            
+            if (clusteringEnabled && removedCount > 0) {
+                scheduleClusterRebuild();
+            }
+            
+            Log.d(TAG, "Markers removed in batch: " + removedCount);
+            
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to remove markers in batch", e);
+        }
+        return removedCount;
+    }
+
+    /**
+     * 从存储和空间索引中删除标记，需要移除的百度标记加入 overlaysToRemove 以便批量移除，
+     * overlaysToRemove 为 null 时立即移除
+     */
+    private boolean deleteMarker(int handle, List<Overlay> overlaysToRemove) {
+        if (!store.contains(handle)) {
+            return false;
+        }
+        if (store.isInBudget(handle)) {
+            // 空出的预算名额留给其他标记
+            scheduleRenderBudgetRefresh();
+        }
+        releaseBaiduMarker(unbindBaiduMarker(handle), overlaysToRemove);
+        spatialIndex.remove(handle, store.getLatitude(handle), store.getLongitude(handle));
+        store.remove(handle);
+        pendingDrags.remove(handle);
+        return true;
+    }
+
+    /**
+     * 删除所有标记。已打开的数据集不关闭，其视口内的点随后重新创建
+     */
+    public void removeAllMarkers() {
+        try {
+            Log.d(TAG, "Removing all markers");
+            
+            // 从百度地图中删除所有标记（开启复用池时优先回收）
+            for (Marker marker : markerHandlesByBaiduMarker.keySet()) {
+                releaseBaiduMarker(marker, null);
+            }
+            markerHandlesByBaiduMarker.clear();
+            if (markerAnimator != null) {
+                markerAnimator.cancelAll();
+            }
+            
+            removeClusterMarkers();
+            clusterer = null;
+            clusterLayers = new DatasetLayer[0];
+            clusterLayerOffsets = new int[0];
+            clusterGeneration++;
+            
+            // 进行中的文件导入会继续投递标记块，一并取消
+            if (fileLoader != null) {
+                fileLoader.cancelAll();
+            }
+            
+            store.clear();
+            spatialIndex.clear();
+            // 数据集保持打开（由 removeMarkerDataset 关闭），只清空其已写入存储的点
+            for (DatasetLayer layer : datasets.values()) {
+                layer.handleByIndex.clear();
+                layer.indexByHandle.clear();
+            }
+            budgetHandles.clear();
+            // JS 侧的数量角标仍是清空前的值，补发一次归零
+            if (budgetShownCount > 0 || budgetHiddenCount > 0) {
+                budgetShownCount = 0;
+                budgetHiddenCount = 0;
+                sendMarkerBudgetEvent(0, 0);
+            }
+            pendingIcons.clear();
+            pendingDrags.clear();
+            materializeEpoch++;
+            
+            // 按当前视口重新创建数据集的点（聚合时重建聚合）
+            refreshDatasetMarkers();
+            
+            Log.d(TAG, "All markers removed successfully");
+            
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to remove all markers", e);
+        }
+    }
+
+    /**
+     * 打开二进制标记数据集（MarkerDataset 格式），返回数据集ID，失败返回 null
+     * 文件通过内存映射读取，只有视口范围内的点（最多 maxMarkers 个）会进入标记存储；
+     * 开启聚合时视口内的点全部直接参与聚合，只有单独显示的点进入标记存储
+     */
+    public String loadMarkerDataset(String path, ReadableMap options) {
+        try {
+            File file = new File(path.startsWith("file://") ? path.substring(7) : path);
+            long start = System.currentTimeMillis();
+            MarkerDataset dataset = MarkerDataset.open(file);
+            
+            String datasetId = "dataset_" + (++datasetCounter);
+            datasets.put(datasetId, new DatasetLayer(datasetId, dataset, options));
+            Log.d(TAG, "Opened marker dataset " + datasetId + ": " + dataset.size() + " points in " +
+                (System.currentTimeMillis() - start) + "ms");
+            
+            refreshDatasetMarkers();
+            return datasetId;
+            
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to load marker dataset: " + path, e);
+            return null;
+        }
+    }
+
+    /**
+     * 关闭数据集并删除其已创建的标记
+     */
+    public boolean removeMarkerDataset(String datasetId) {
+        DatasetLayer layer = datasets.remove(datasetId);
+        if (layer == null) {
+            return false;
+        }
+        
+        List<Overlay> overlaysToRemove = new ArrayList<>();
+        for (Integer handle : layer.indexByHandle.keySet()) {
+            deleteMarker(handle, overlaysToRemove);
+        }
+        if (!overlaysToRemove.isEmpty()) {
+            baiduMap.removeOverLays(overlaysToRemove);
+        }
+        if (clusteringEnabled) {
+            scheduleClusterRebuild();
+        }
+        return true;
+    }
+
+    /**
+     * 同步各数据集在当前视口内的点：新进入的点写入存储，离开的点删除
+     * 聚合时数据集的点不写入存储，只按新视口重建聚合
+     */
+    private void refreshDatasetMarkers() {
+        if (datasets.isEmpty() || baiduMap == null) {
+            return;
+        }
+        if (clusteringEnabled) {
+            scheduleClusterRebuild();
+            return;
+        }
+        double[] bounds = computeCullBounds(baiduMap.getMapStatus());
+        if (bounds == null) {
+            return;
+        }
+        
+        try {
+            IntArrayList visibleHandles = new IntArrayList();
+            List<Overlay> overlaysToRemove = new ArrayList<>();
+            int addedCount = 0;
+            int removedCount = 0;
+            
+            for (DatasetLayer layer : datasets.values()) {
+                IntArrayList inView = new IntArrayList();
+                layer.dataset.query(bounds[0], bounds[1], bounds[2], bounds[3], layer.maxMarkers, inView);
+                Set<Integer> wanted = new HashSet<>();
+                for (int i = 0; i < inView.size(); i++) {
+                    wanted.add(inView.get(i));
+                }
+                
+                // 先删除离开视口（或已被单独删除）的点，腾出存储槽位
+                Iterator<Map.Entry<Integer, Integer>> iterator = layer.handleByIndex.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<Integer, Integer> entry = iterator.next();
+                    int handle = entry.getValue();
+                    if (!store.contains(handle) || !wanted.contains(entry.getKey())) {
+                        if (deleteMarker(handle, overlaysToRemove)) {
+                            removedCount++;
+                        }
+                        layer.indexByHandle.remove(handle);
+                        iterator.remove();
+                    }
+                }
+                
+                for (int i = 0; i < inView.size(); i++) {
+                    int index = inView.get(i);
+                    if (layer.handleByIndex.containsKey(index)) {
+                        continue;
+                    }
+                    int handle = insertMarker(layer.createMarkerInfo(index), visibleHandles);
+                    if (handle < 0) {
+                        break;
+                    }
+                    layer.handleByIndex.put(index, handle);
+                    layer.indexByHandle.put(handle, index);
+                    addedCount++;
+                }
+            }
+            
+            if (!overlaysToRemove.isEmpty()) {
+                baiduMap.removeOverLays(overlaysToRemove);
+            }
+            if (addedCount > 0) {
+                commitInsertedMarkers(visibleHandles);
+            }
+            
+            Log.d(TAG, "Dataset markers: +" + addedCount + " -" + removedCount);
+            
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to refresh dataset markers", e);
+        }
+    }
+
+    /**
+     * 删除各数据集写入存储的全部点，数据集保持打开
+     */
+    private void removeDatasetMarkers() {
+        List<Overlay> overlaysToRemove = new ArrayList<>();
+        for (DatasetLayer layer : datasets.values()) {
+            for (Integer handle : layer.indexByHandle.keySet()) {
+                deleteMarker(handle, overlaysToRemove);
+            }
+            layer.handleByIndex.clear();
+            layer.indexByHandle.clear();
+        }
+        if (!overlaysToRemove.isEmpty()) {
+            baiduMap.removeOverLays(overlaysToRemove);
+        }
+    }
+
+    /**
+     * 写入了该标记的数据集，普通标记返回 null
+     */
+    private DatasetLayer findDatasetLayer(int handle) {
+        for (DatasetLayer layer : datasets.values()) {
+            if (layer.indexByHandle.containsKey(handle)) {
+                return layer;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 数据集来源的标记，返回 {数据集ID, 点下标}，普通标记返回 null
+     */
+    private Object[] findDatasetPoint(int handle) {
+        for (DatasetLayer layer : datasets.values()) {
+            Integer index = layer.indexByHandle.get(handle);
+            if (index != null) {
+                return new Object[] { layer.datasetId, index };
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 获取标记信息（快照）
+     */
+    public MarkerInfo getMarkerInfo(String markerId) {
+        return store.get(MarkerStore.handleOf(markerId));
+    }
+
+    /**
+     * 获取标记数量
+     */
+    public int getMarkerCount() {
+        return store.size();
+    }
+
+    /**
+     * 查询距离指定坐标最近的标记，结果按距离升序排列
+     * radiusMeters 小于等于 0 表示不限距离，limit 小于等于 0 表示不限数量
+     */
+    public WritableArray queryMarkersNear(double latitude, double longitude, double radiusMeters, int limit) {
+        WritableArray result = Arguments.createArray();
+        try {
+            IntArrayList handles = new IntArrayList();
+            DoubleArrayList distances = new DoubleArrayList();
+            spatialIndex.nearest(latitude, longitude, radiusMeters, limit, handles, distances);
+            for (int i = 0; i < handles.size(); i++) {
+                WritableMap item = createQueryResult(handles.get(i));
+                item.putDouble("distance", distances.get(i));
+                result.pushMap(item);
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to query markers near " + latitude + ", " + longitude, e);
+        }
+        return result;
+    }
+
+    /**
+     * 查询矩形范围内的标记，limit 小于等于 0 表示不限数量
+     */
+    public WritableArray queryMarkersInBounds(double south, double west, double north, double east, int limit) {
+        WritableArray result = Arguments.createArray();
+        try {
+            IntArrayList handles = new IntArrayList();
+            spatialIndex.query(south, west, north, east, handles);
+            int count = limit > 0 ? Math.min(limit, handles.size()) : handles.size();
+            for (int i = 0; i < count; i++) {
+                result.pushMap(createQueryResult(handles.get(i)));
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to query markers in bounds", e);
+        }
+        return result;
+    }
+
+    private WritableMap createQueryResult(int handle) {
+        WritableMap coordinate = Arguments.createMap();
+        coordinate.putDouble("latitude", store.getLatitude(handle));
+        coordinate.putDouble("longitude", store.getLongitude(handle));
+        
+        WritableMap item = Arguments.createMap();
+        item.putString("id", MarkerStore.idOf(handle));
+        item.putMap("coordinate", coordinate);
+        return item;
+    }
+
+    /**
+     * 获取所有标记
+     * 每次调用都会为全部标记生成快照，只适合调试等低频场景，
+     * 范围和邻近查询请使用 queryMarkersNear / queryMarkersInBounds
+     */
+    public Map<String, MarkerInfo> getAllMarkers() {
+        Map<String, MarkerInfo> result = new HashMap<>();
+        for (int slot = 0; slot < store.slotCount(); slot++) {
+            int handle = store.handleAt(slot);
+            if (handle >= 0) {
+                result.put(MarkerStore.idOf(handle), store.get(handle));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 显示信息窗口
+     */
+    public void showInfoWindow(String markerId) {
+        try {
+            int handle = MarkerStore.handleOf(markerId);
+            MarkerInfo markerInfo = store.get(handle);
+            if (markerInfo == null) {
+                Log.w(TAG, "Marker not found for info window: " + markerId);
+                return;
+            }
+            
+            Log.d(TAG, "Showing info window for marker: " + markerId);
+            
+            // 显示信息窗口
+            Marker baiduMarker = store.getBaiduMarker(handle);
+            if (baiduMarker != null) {
+                InfoWindow infoWindow = new InfoWindow(
+                    createInfoWindowView(markerInfo),
+                    baiduMarker.getPosition(),
+                    -47
+                );
+                baiduMap.showInfoWindow(infoWindow);
+            }
+            
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to show info window for marker: " + markerId, e);
+        }
+    }
+
+    /**
+     * 隐藏信息窗口
+     */
+    public void hideInfoWindow() {
+        try {
+            Log.d(TAG, "Hiding info window");
+            
+            // 隐藏信息窗口
+            baiduMap.hideInfoWindow();
+            
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to hide info window", e);
+        }
+    }
+
+    /**
+     * 开启或关闭标记聚合
+     */
+    public void setClusteringEnabled(boolean enabled) {
+        if (clusteringEnabled == enabled) {
+            return;
+        }
+        
+        Log.d(TAG, "Clustering " + (enabled ? "enabled" : "disabled"));
+        clusteringEnabled = enabled;
+        
+        if (enabled) {
+            // 移除所有单独的百度标记，改由聚合结果渲染；数据集抽样写入的点改为直接参与聚合
+            dematerializeMarkers(materializedHandles());
+            removeDatasetMarkers();
+            scheduleClusterRebuild();
+        } else {
+            mainHandler.removeCallbacks(clusterRebuildRunnable);
+            clusterGeneration++;
+            clusterer = null;
+            removeClusterMarkers();
+            clusterLayers = new DatasetLayer[0];
+            clusterLayerOffsets = new int[0];
+            // 数据集的点恢复为按上限抽样
+            refreshDatasetMarkers();
+            
+            // 恢复为每个标记一个百度标记
+            if (renderBudget > 0) {
+                applyRenderBudget();
+            } else if (cullingEnabled) {
+                refreshCulledMarkers();
+            } else {
+                materializeAllMarkers();
+            }
+        }
+    }
+
+    /**
+     * 设置聚合半径（像素）
+     */
+    public void setClusterRadius(int radius) {
+        if (radius <= 0 || radius == clusterRadius) {
+            return;
+        }
+        clusterRadius = radius;
+        if (clusteringEnabled) {
+            scheduleClusterRebuild();
+        }
+    }
+
+    public boolean isClusteringEnabled() {
+        return clusteringEnabled;
+    }
+
+    /**
+     * 开启或关闭视口裁剪
+     * 开启后只为可见范围（含边距）内的标记创建百度标记
+     */
+    public void setCullingEnabled(boolean enabled) {
+        if (cullingEnabled == enabled) {
+            return;
+        }
+        
+        Log.d(TAG, "Viewport culling " + (enabled ? "enabled" : "disabled"));
+        cullingEnabled = enabled;
+        cullBounds = null;
+        
+        if (clusteringEnabled) {
+            if (clusterer != null) {
+                renderClusters(clusterer.clampZoom(baiduMap.getMapStatus().zoom));
+            }
+        } else if (enabled) {
+            refreshCulledMarkers();
+        } else {
+            materializeAllMarkers();
+        }
+    }
+
+    /**
+     * 设置属性过滤条件，expression 为 null 时取消过滤，返回满足条件的标记数量
+     * 批量求值使用属性位图，只更新过滤结果发生变化的标记；表达式格式错误时抛出 IllegalArgumentException
+     */
+    public int setMarkerFilter(Map<String, Object> expression) {
+        MarkerFilter filter = expression != null ? MarkerFilter.parse(expression) : null;
+        markerFilter = filter;
+        
+        BitSet alive = store.aliveSlots();
+        BitSet matched = filter != null ? filter.evaluate(store.getAttributeIndex(), alive) : alive;
+        
+        int changedCount = 0;
+        for (int slot = alive.nextSetBit(0); slot >= 0; slot = alive.nextSetBit(slot + 1)) {
+            int handle = store.handleAt(slot);
+            if (!store.setFilteredOut(handle, !matched.get(slot))) {
+                continue;
+            }
+            changedCount++;
+            Marker baiduMarker = store.getBaiduMarker(handle);
+            if (baiduMarker != null) {
+                baiduMarker.setVisible(isMarkerShown(handle));
+            }
+        }
+        
+        if (changedCount > 0) {
+            if (clusteringEnabled) {
+                scheduleClusterRebuild();
+            }
+            scheduleRenderBudgetRefresh();
+            scheduleDeclutter();
+        }
+        int matchedCount = matched.cardinality();
+        Log.d(TAG, "Marker filter applied: " + matchedCount + "/" + store.size() + " matched, "
+            + changedCount + " changed");
+        return matchedCount;
+    }
+
+    /**
+     * 按当前过滤条件更新单个标记的过滤状态，返回是否发生变化
+     */
+    private boolean updateFilterState(int handle) {
+        boolean filteredOut = markerFilter != null
+            && !markerFilter.matches(store.getAttributeIndex(), MarkerStore.slotOf(handle));
+        return store.setFilteredOut(handle, filteredOut);
+    }
+
+    /**
+     * 设置渲染预算（非聚合模式），视口内最多显示 maxMarkers 个标记，0 表示不限
+     */
+    public void setRenderBudget(int maxMarkers) {
+        int budget = Math.max(0, maxMarkers);
+        if (renderBudget == budget) {
+            return;
+        }
+        
+        Log.d(TAG, "Marker render budget: " + budget);
+        renderBudget = budget;
+        if (budget > 0) {
+            applyRenderBudget();
+            return;
+        }
+        
+        for (int i = 0; i < budgetHandles.size(); i++) {
+            int handle = budgetHandles.get(i);
+            if (store.contains(handle)) {
+                store.setInBudget(handle, false);
+            }
+        }
+        budgetHandles.clear();
+        budgetShownCount = -1;
+        budgetHiddenCount = -1;
+        if (!clusteringEnabled) {
+            if (cullingEnabled) {
+                refreshCulledMarkers();
+            } else {
+                materializeAllMarkers();
+            }
+        }
+    }
+
+    /**
+     * 标记增删后在下一次主线程循环中重新选择预算内的标记
+     */
+    private void scheduleRenderBudgetRefresh() {
+        if (renderBudget <= 0 || clusteringEnabled || budgetRefreshScheduled || destroyed) {
+            return;
+        }
+        budgetRefreshScheduled = true;
+        mainHandler.post(budgetRefreshRunnable);
+    }
+
+    /**
+     * 按当前视口重新选择预算内的标记并同步百度标记
+     */
+    private void applyRenderBudget() {
+        if (renderBudget <= 0 || clusteringEnabled || destroyed || baiduMap == null) {
+            return;
+        }
+        selectBudgetMarkers(baiduMap.getMapStatus());
+        refreshCulledMarkers();
+    }
+
+    /**
+     * 从视口内的标记中选出最多 renderBudget 个：zIndex 高的优先，同级按离视口中心由近到远
+     * 隐藏的标记数量变化时发送 onMarkerBudgetChange 事件，便于 JS 显示数量角标
+     */
+    private void selectBudgetMarkers(MapStatus mapStatus) {
+        if (mapStatus == null || mapStatus.bound == null || mapStatus.target == null) {
+            return;
+        }
+        for (int i = 0; i < budgetHandles.size(); i++) {
+            int handle = budgetHandles.get(i);
+            if (store.contains(handle)) {
+                store.setInBudget(handle, false);
+            }
+        }
+        budgetHandles.clear();
+        
+        LatLngBounds bound = mapStatus.bound;
+        IntArrayList candidates = new IntArrayList();
+        spatialIndex.query(bound.southwest.latitude, bound.southwest.longitude,
+            bound.northeast.latitude, bound.northeast.longitude, candidates);
+        int visibleCount = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            if (isMarkerVisible(candidates.get(i))) {
+                visibleCount++;
+            }
+        }
+        
+        // 平面近似距离足以排序，经度按中心纬度缩放
+        // 排序键打包成 long 直接对基本类型排序：先按距离（非负 float 的位模式与数值同序）排出名次，
+        // 再按 zIndex 取反 + 名次排序，得到 zIndex 降序、同级由近到远的顺序
+        double centerLat = mapStatus.target.latitude;
+        double centerLng = mapStatus.target.longitude;
+        double lngScale = Math.cos(Math.toRadians(centerLat));
+        long[] sortKeys = new long[visibleCount];
+        int n = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            int handle = candidates.get(i);
+            if (!isMarkerVisible(handle)) {
+                continue;
+            }
+            double dLat = store.getLatitude(handle) - centerLat;
+            double dLng = (store.getLongitude(handle) - centerLng) * lngScale;
+            float distance = (float) (dLat * dLat + dLng * dLng);
+            sortKeys[n++] = ((long) Float.floatToIntBits(distance) << 32) | i;
+        }
+        Arrays.sort(sortKeys);
+        int[] candidateByRank = new int[visibleCount];
+        for (int rank = 0; rank < visibleCount; rank++) {
+            int i = (int) sortKeys[rank];
+            candidateByRank[rank] = i;
+            sortKeys[rank] = ((long) ~store.getZIndex(candidates.get(i)) << 32) | rank;
+        }
+        Arrays.sort(sortKeys);
+        
+        int shown = Math.min(renderBudget, visibleCount);
+        for (int i = 0; i < shown; i++) {
+            int handle = candidates.get(candidateByRank[(int) sortKeys[i]]);
+            store.setInBudget(handle, true);
+            budgetHandles.add(handle);
+        }
+        
+        int hidden = visibleCount - shown;
+        if (shown != budgetShownCount || hidden != budgetHiddenCount) {
+            budgetShownCount = shown;
+            budgetHiddenCount = hidden;
+            sendMarkerBudgetEvent(shown, hidden);
+        }
+    }
+
+    /**
+     * 开启或关闭标记碰撞检测（非聚合模式）
+     * 开启后地图停止移动时按图标的屏幕尺寸检测重叠，只显示 zIndex 最高的标记
+     */
+    public void setDeclutterEnabled(boolean enabled) {
+        if (declutterEnabled == enabled) {
+            return;
+        }
+        
+        Log.d(TAG, "Marker declutter " + (enabled ? "enabled" : "disabled"));
+        declutterEnabled = enabled;
+        if (enabled) {
+            scheduleDeclutter();
+            return;
+        }
+        
+        // 恢复被隐藏的标记
+        for (Map.Entry<Marker, Integer> entry : markerHandlesByBaiduMarker.entrySet()) {
+            int handle = entry.getValue();
+            if (store.isDecluttered(handle)) {
+                store.setDecluttered(handle, false);
+                entry.getKey().setVisible(isMarkerVisible(handle));
+            }
+        }
+        declutterer = null;
+        declutterHidden = new boolean[0];
+    }
+
+    /**
+     * 标记在地图上是否应显示：自身可见且未被碰撞检测隐藏
+     */
+    private boolean isMarkerShown(int handle) {
+        return isMarkerVisible(handle) && !(declutterEnabled && store.isDecluttered(handle));
+    }
+
+    /**
+     * 标记自身可见且满足当前属性过滤条件
+     */
+    private boolean isMarkerVisible(int handle) {
+        return store.isVisible(handle) && !store.isFilteredOut(handle);
+    }
+
+    /**
+     * 在下一次主线程循环中执行碰撞检测，同一轮内的多次请求只执行一次
+     */
+    private void scheduleDeclutter() {
+        if (!declutterEnabled || declutterScheduled || destroyed) {
+            return;
+        }
+        declutterScheduled = true;
+        mainHandler.post(declutterRunnable);
+    }
+
+    /**
+     * 对已显示的标记做碰撞检测，重叠时隐藏优先级较低的标记
+     */
+    private void declutterMarkers() {
+        declutterScheduled = false;
+        if (!declutterEnabled || clusteringEnabled || destroyed || baiduMap == null) {
+            return;
+        }
+        try {
+            Projection projection = baiduMap.getProjection();
+            if (projection == null) {
+                return;
+            }
+            
+            if (declutterer == null) {
+                declutterer = new MarkerDeclutterer();
+            }
+            declutterer.reset();
+            IntArrayList handles = new IntArrayList(Math.max(1, markerHandlesByBaiduMarker.size()));
+            for (Integer handle : markerHandlesByBaiduMarker.values()) {
+                if (!isMarkerVisible(handle)) {
+                    continue;
+                }
+                Point point = projection.toScreenLocation(
+                    new LatLng(store.getLatitude(handle), store.getLongitude(handle)));
+                if (point == null) {
+                    continue;
+                }
+                handles.add(handle);
+                declutterer.add(point.x, point.y, getCollisionSizePx(store.getIconSize(handle)),
+                    store.getZIndex(handle));
+            }
+            
+            if (declutterHidden.length < handles.size()) {
+                declutterHidden = new boolean[handles.size()];
+            }
+            declutterer.run(mapView.getWidth(), mapView.getHeight(), declutterHidden);
+            
+            int hiddenCount = 0;
+            for (int i = 0; i < handles.size(); i++) {
+                int handle = handles.get(i);
+                boolean hidden = declutterHidden[i];
+                if (hidden) {
+                    hiddenCount++;
+                }
+                if (store.isDecluttered(handle) != hidden) {
+                    store.setDecluttered(handle, hidden);
+                    Marker baiduMarker = store.getBaiduMarker(handle);
+                    if (baiduMarker != null) {
+                        baiduMarker.setVisible(!hidden);
+                    }
+                }
+            }
+            Log.d(TAG, "Decluttered " + handles.size() + " markers, hidden " + hiddenCount);
+            
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to declutter markers", e);
+        }
+    }
+
+    /**
+     * 设置视口裁剪边距，取值为可见范围宽高的比例
+     */
+    public void setCullingMargin(float margin) {
+        cullingMargin = Math.max(0f, margin);
+        if (cullingEnabled && !clusteringEnabled) {
+            refreshCulledMarkers();
+        }
+    }
+
+    public boolean isCullingEnabled() {
+        return cullingEnabled;
+    }
+
+    /**
+     * 地图状态变化结束时刷新聚合或视口内的标记
+     */
+    public void onMapStatusChangeFinish(MapStatus mapStatus) {
+        if (mapStatus == null) {
+            return;
+        }
+        
+        if (cullingEnabled) {
+            cullBounds = computeCullBounds(mapStatus);
+        }
+        
+        refreshDatasetMarkers();
+        
+        if (renderBudget > 0 && !clusteringEnabled) {
+            mainHandler.removeCallbacks(budgetRefreshRunnable);
+            budgetRefreshScheduled = false;
+            selectBudgetMarkers(mapStatus);
+        }
+        
+        if (clusteringEnabled) {
+            if (clusterer == null) {
+                return;
+            }
+            int zoom = clusterer.clampZoom(mapStatus.zoom);
+            if (zoom != renderedClusterZoom || cullingEnabled) {
+                renderClusters(zoom);
+            }
+        } else if (cullingEnabled || renderBudget > 0) {
+            refreshCulledMarkers();
+        }
+        
+        scheduleDeclutter();
+    }
+
+    /**
+     * 根据当前视口增删百度标记，只处理与已显示集合的差异
+     */
+    private void refreshCulledMarkers() {
+        try {
+            double[] bounds = cullingEnabled ? getCullBounds() : null;
+            if (cullingEnabled && bounds == null) {
+                return;
+            }
+            
+            // 已显示但移出范围或预算的标记
+            IntArrayList stale = new IntArrayList();
+            for (Integer handle : markerHandlesByBaiduMarker.values()) {
+                if (!shouldMaterialize(handle)) {
+                    stale.add(handle);
+                }
+            }
+            dematerializeMarkers(stale);
+            
+            // 范围内尚未显示的标记，开启渲染预算时只需检查预算内的标记
+            IntArrayList inView;
+            if (renderBudget > 0) {
+                inView = budgetHandles;
+            } else {
+                inView = new IntArrayList();
+                spatialIndex.query(bounds[0], bounds[1], bounds[2], bounds[3], inView);
+            }
+            IntArrayList added = new IntArrayList(Math.max(1, inView.size()));
+            for (int i = 0; i < inView.size(); i++) {
+                int handle = inView.get(i);
+                if (store.contains(handle) && store.getBaiduMarker(handle) == null && shouldMaterialize(handle)) {
+                    added.add(handle);
+                }
+            }
+            materializeMarkers(added);
+            
+            Log.d(TAG, "Culled markers: +" + added.size() + " -" + stale.size() +
+                ", materialized " + markerHandlesByBaiduMarker.size() + "/" + store.size());
+            
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to refresh culled markers", e);
+        }
+    }
+
+    /**
+     * 单个标记位置变化后同步其是否需要显示
+     */
+    private void syncCulledMarker(int handle) {
+        boolean materialized = store.getBaiduMarker(handle) != null;
+        boolean wanted = shouldMaterialize(handle);
+        if (wanted && !materialized) {
+            createBaiduMarker(handle);
+        } else if (!wanted && materialized) {
+            releaseBaiduMarker(unbindBaiduMarker(handle), null);
+        }
+    }
+
+    /**
+     * 非聚合模式下判断标记是否需要创建百度标记
+     */
+    private boolean shouldMaterialize(int handle) {
+        if (renderBudget > 0 && !store.isInBudget(handle)) {
+            return false;
+        }
+        if (!cullingEnabled) {
+            return true;
+        }
+        double[] bounds = getCullBounds();
+        return bounds == null || isInBounds(bounds, store.getLatitude(handle), store.getLongitude(handle));
+    }
+
+    private double[] getCullBounds() {
+        if (cullBounds == null && baiduMap != null) {
+            cullBounds = computeCullBounds(baiduMap.getMapStatus());
+        }
+        return cullBounds;
+    }
+
+    /**
+     * 计算加上边距后的裁剪范围
+     */
+    private double[] computeCullBounds(MapStatus mapStatus) {
+        if (mapStatus == null || mapStatus.bound == null) {
+            return null;
+        }
+        LatLngBounds bound = mapStatus.bound;
+        double latSpan = bound.northeast.latitude - bound.southwest.latitude;
+        double lngSpan = bound.northeast.longitude - bound.southwest.longitude;
+        return new double[] {
+            bound.southwest.latitude - latSpan * cullingMargin,
+            bound.southwest.longitude - lngSpan * cullingMargin,
+            bound.northeast.latitude + latSpan * cullingMargin,
+            bound.northeast.longitude + lngSpan * cullingMargin
+        };
+    }
+
+    private static boolean isInBounds(double[] bounds, double latitude, double longitude) {
+        return latitude >= bounds[0] && latitude <= bounds[2]
+            && longitude >= bounds[1] && longitude <= bounds[3];
+    }
+
+    /**
+     * 更新标记坐标并同步空间索引
+     */
+    private void setMarkerPosition(int handle, double latitude, double longitude) {
+        spatialIndex.update(handle, store.getLatitude(handle), store.getLongitude(handle),
+            latitude, longitude);
+        store.setPosition(handle, latitude, longitude);
+    }
+
+    /**
+     * 合并短时间内的多次变更，延迟重建聚合
+     */
+    private void scheduleClusterRebuild() {
+        mainHandler.removeCallbacks(clusterRebuildRunnable);
+        mainHandler.postDelayed(clusterRebuildRunnable, CLUSTER_REBUILD_DELAY_MS);
+    }
+
+    /**
+     * 在后台线程重建聚合层级，完成后回到主线程渲染
+     * 数据集的点在后台线程按视口直接从映射文件读取，不经过标记存储
+     */
+    private void rebuildClusters() {
+        if (!clusteringEnabled) {
+            return;
+        }
+        
+        // 在主线程上按槽位顺序拍取坐标快照，已写入存储的数据集点由下面的数据集查询覆盖
+        final int count;
+        final int[] handles = new int[store.size()];
+        final double[] latitudes = new double[store.size()];
+        final double[] longitudes = new double[store.size()];
+        int i = 0;
+        for (int slot = 0; slot < store.slotCount(); slot++) {
+            int handle = store.handleAt(slot);
+            if (handle < 0 || !isMarkerVisible(handle) || findDatasetLayer(handle) != null) {
+                continue;
+            }
+            handles[i] = handle;
+            latitudes[i] = store.getLatitude(handle);
+            longitudes[i] = store.getLongitude(handle);
+            i++;
+        }
+        count = i;
+        
+        // 数据集的点没有自定义属性，是否满足过滤条件对整个数据集相同
+        final DatasetLayer[] layers = datasets.isEmpty() || !datasetPointsMatchFilter()
+            ? new DatasetLayer[0] : datasets.values().toArray(new DatasetLayer[0]);
+        final int[] offsets = new int[layers.length];
+        for (int l = 1; l < layers.length; l++) {
+            offsets[l] = offsets[l - 1] + layers[l - 1].dataset.size();
+        }
+        final double[] bounds = layers.length > 0 && baiduMap != null
+            ? computeCullBounds(baiduMap.getMapStatus()) : null;
+        
+        final int generation = ++clusterGeneration;
+        final int radius = clusterRadius;
+        
+        if (clusterExecutor == null) {
+            clusterExecutor = Executors.newSingleThreadExecutor();
+        }
+        
+        clusterExecutor.execute(() -> {
+            long start = System.currentTimeMillis();
+            int[] allHandles = handles;
+            double[] allLatitudes = latitudes;
+            double[] allLongitudes = longitudes;
+            int total = count;
+            if (bounds != null) {
+                // 视口内的数据集点全部参与聚合，计数与实际点数一致
+                IntArrayList[] inView = new IntArrayList[layers.length];
+                for (int l = 0; l < layers.length; l++) {
+                    inView[l] = new IntArrayList();
+                    layers[l].dataset.query(bounds[0], bounds[1], bounds[2], bounds[3], 0, inView[l]);
+                    total += inView[l].size();
+                }
+                allHandles = Arrays.copyOf(handles, total);
+                allLatitudes = Arrays.copyOf(latitudes, total);
+                allLongitudes = Arrays.copyOf(longitudes, total);
+                int n = count;
+                for (int l = 0; l < layers.length; l++) {
+                    MarkerDataset dataset = layers[l].dataset;
+                    for (int k = 0; k < inView[l].size(); k++) {
+                        int index = inView[l].get(k);
+                        allHandles[n] = -1 - (offsets[l] + index);
+                        allLatitudes[n] = dataset.getLatitude(index);
+                        allLongitudes[n] = dataset.getLongitude(index);
+                        n++;
+                    }
+                }
+            }
+            
+            MarkerClusterer built = new MarkerClusterer(radius,
+                MarkerClusterer.DEFAULT_MIN_ZOOM, MarkerClusterer.DEFAULT_MAX_ZOOM);
+            built.load(allHandles, allLatitudes, allLongitudes, total);
+            Log.d(TAG, "Clusters built for " + total + " markers (" + (total - count) +
+                " dataset points) in " + (System.currentTimeMillis() - start) + "ms");
+            
+            mainHandler.post(() -> {
+                if (!clusteringEnabled || generation != clusterGeneration || baiduMap == null) {
+                    return;
+                }
+                clusterer = built;
+                clusterLayers = layers;
+                clusterLayerOffsets = offsets;
+                renderClusters(clusterer.clampZoom(baiduMap.getMapStatus().zoom));
+            });
+        });
+    }
+
+    /**
+     * 数据集的点（没有自定义属性）是否满足当前过滤条件
+     */
+    private boolean datasetPointsMatchFilter() {
+        return markerFilter == null || markerFilter.matches(new MarkerAttributeIndex(), 0);
+    }
+
+    /**
+     * 为聚合结果中单独显示的数据集点写入存储，返回句柄；数据集已关闭或存储已满时返回 -1
+     */
+    private int materializeDatasetLeaf(int encodedHandle) {
+        int position = -1 - encodedHandle;
+        for (int l = clusterLayers.length - 1; l >= 0; l--) {
+            if (position < clusterLayerOffsets[l]) {
+                continue;
+            }
+            DatasetLayer layer = clusterLayers[l];
+            if (datasets.get(layer.datasetId) != layer) {
+                return -1;
+            }
+            int index = position - clusterLayerOffsets[l];
+            Integer existing = layer.handleByIndex.get(index);
+            if (existing != null && store.contains(existing)) {
+                return existing;
             }
-            
-            markers.put(markerId, markerInfo);
-            
-            Log.d(TAG, "Marker added successfully: " + markerId);
-            return markerId;
-            
-        } catch (Exception e) {
-            Log.e(TAG, "Failed to add marker", e);
-            return null;
+            // 聚合模式下 insertMarker 不收集待显示的句柄
+            int handle = insertMarker(layer.createMarkerInfo(index), null);
+            if (handle >= 0) {
+                layer.handleByIndex.put(index, handle);
+                layer.indexByHandle.put(handle, index);
+            }
+            return handle;
         }
+        return -1;
     }
 
     /**
-     * 更新标记
+     * 数据集点在聚合结果中的来源，返回 {数据集ID, 点下标}，数据集已关闭时返回 null
      */
-    public boolean updateMarker(String markerId, ReadableMap markerOptions) {
-        try {
-            MarkerInfo markerInfo = markers.get(markerId);
-            if (markerInfo == null) {
-                Log.w(TAG, "Marker not found for update: " + markerId);
-                return false;
+    private Object[] findClusterDatasetPoint(int encodedHandle) {
+        int position = -1 - encodedHandle;
+        for (int l = clusterLayers.length - 1; l >= 0; l--) {
+            if (position >= clusterLayerOffsets[l]) {
+                DatasetLayer layer = clusterLayers[l];
+                return datasets.get(layer.datasetId) == layer
+                    ? new Object[] { layer.datasetId, position - clusterLayerOffsets[l] } : null;
             }
+        }
+        return null;
+    }
+
+    /**
+     * 渲染指定缩放级别的聚合，只增删与当前显示不同的部分
+     */
+    private void renderClusters(int zoom) {
+        try {
+            List<MarkerClusterer.Cluster> clusters = clusterer.getClusters(zoom);
+            double[] bounds = cullingEnabled ? getCullBounds() : null;
             
-            Log.d(TAG, "Updating marker: " + markerId);
+            Set<Integer> wantedHandles = new HashSet<>();
+            Map<Long, MarkerClusterer.Cluster> wantedClusters = new HashMap<>();
+            for (MarkerClusterer.Cluster cluster : clusters) {
+                if (bounds != null && !isInBounds(bounds, cluster.getLatitude(), cluster.getLongitude())) {
+                    continue;
+                }
+                if (cluster.isLeaf()) {
+                    int handle = cluster.getMarkerHandle();
+                    if (handle < 0) {
+                        handle = materializeDatasetLeaf(handle);
+                    }
+                    if (handle >= 0) {
+                        wantedHandles.add(handle);
+                    }
+                } else {
+                    wantedClusters.put(cluster.getKey(), cluster);
+                }
+            }
             
-            // 更新标记信息
-            markerInfo.updateFromReadableMap(markerOptions);
+            // 移除不再需要的聚合标记和单个标记；成员不变的聚合（重建或缩放后键相同）保留原标记，
+            // 只在中心移动时原地更新位置，避免整层闪烁
+            List<Overlay> overlaysToRemove = new ArrayList<>();
+            Iterator<Map.Entry<Long, Marker>> it = clusterMarkers.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Long, Marker> entry = it.next();
+                Marker clusterMarker = entry.getValue();
+                MarkerClusterer.Cluster cluster = wantedClusters.remove(entry.getKey());
+                if (cluster == null) {
+                    clustersByBaiduMarker.remove(clusterMarker);
+                    overlaysToRemove.add(clusterMarker);
+                    it.remove();
+                    continue;
+                }
+                clustersByBaiduMarker.put(clusterMarker, cluster);
+                LatLng position = clusterMarker.getPosition();
+                if (position == null || position.latitude != cluster.getLatitude()
+                    || position.longitude != cluster.getLongitude()) {
+                    clusterMarker.setPosition(new LatLng(cluster.getLatitude(), cluster.getLongitude()));
+                }
+            }
             
-            // 更新百度地图标记
-            Marker baiduMarker = baiduMarkers.get(markerId);
-            if (baiduMarker != null) {
-                // 更新位置
-                if (markerOptions.hasKey("coordinate")) {
-                    LatLng newPosition = new LatLng(markerInfo.getLatitude(), markerInfo.getLongitude());
-                    baiduMarker.setPosition(newPosition);
+            IntArrayList shown = materializedHandles();
+            for (int i = 0; i < shown.size(); i++) {
+                int handle = shown.get(i);
+                if (wantedHandles.remove(handle)) {
+                    continue;
                 }
-                
-                // 更新标题
-                if (markerOptions.hasKey("title")) {
-                    baiduMarker.setTitle(markerInfo.getTitle());
+                // 不再单独显示的数据集点同时从存储中删除
+                DatasetLayer layer = findDatasetLayer(handle);
+                if (layer != null) {
+                    deleteMarker(handle, overlaysToRemove);
+                    layer.handleByIndex.remove(layer.indexByHandle.remove(handle));
+                } else {
+                    releaseBaiduMarker(unbindBaiduMarker(handle), overlaysToRemove);
                 }
-                
-                // 更新图标
-                if (markerOptions.hasKey("icon")) {
-                    BitmapDescriptor icon = createIconFromUri(markerInfo.getIconUri());
-                    if (icon != null) {
-                        baiduMarker.setIcon(icon);
+            }
+            
+            if (!overlaysToRemove.isEmpty()) {
+                baiduMap.removeOverLays(overlaysToRemove);
+            }
+            
+            // 一次性添加新出现的聚合标记和单个标记
+            List<MarkerClusterer.Cluster> newClusters = new ArrayList<>(wantedClusters.values());
+            IntArrayList candidates = new IntArrayList(Math.max(1, wantedHandles.size()));
+            for (Integer handle : wantedHandles) {
+                if (store.contains(handle)) {
+                    candidates.add(handle);
+                }
+            }
+            IntArrayList newMarkers = bindPooledMarkers(candidates);
+            List<OverlayOptions> options = new ArrayList<>(newClusters.size() + newMarkers.size());
+            for (MarkerClusterer.Cluster cluster : newClusters) {
+                options.add(buildClusterOptions(cluster));
+            }
+            for (int i = 0; i < newMarkers.size(); i++) {
+                options.add(buildMarkerOptions(newMarkers.get(i)));
+            }
+            
+            if (!options.isEmpty()) {
+                List<Overlay> overlays = baiduMap.addOverlays(options);
+                for (int i = 0; i < newClusters.size(); i++) {
+                    if (overlays != null && i < overlays.size() && overlays.get(i) instanceof Marker) {
+                        Marker clusterMarker = (Marker) overlays.get(i);
+                        clusterMarkers.put(newClusters.get(i).getKey(), clusterMarker);
+                        clustersByBaiduMarker.put(clusterMarker, newClusters.get(i));
                     }
                 }
-                
-                // 更新拖拽状态
-                baiduMarker.setDraggable(markerInfo.isDraggable());
+                if (overlays != null && overlays.size() > newClusters.size()) {
+                    bindBaiduMarkers(newMarkers, overlays.subList(newClusters.size(), overlays.size()));
+                }
             }
             
-            Log.d(TAG, "Marker updated successfully: " + markerId);
-            return true;
+            renderedClusterZoom = zoom;
+            Log.d(TAG, "Rendered " + clusters.size() + " clusters at zoom " + zoom);
             
         } catch (Exception e) {
-            Log.e(TAG, "Failed to update marker: " + markerId, e);
-            return false;
+            Log.e(TAG, "Failed to render clusters", e);
         }
     }
 
     /**
-     * 删除标记
+     * 构建聚合标记选项
      */
-    public boolean removeMarker(String markerId) {
-        try {
-            MarkerInfo markerInfo = markers.get(markerId);
-            if (markerInfo == null) {
-                Log.w(TAG, "Marker not found for removal: " + markerId);
-                return false;
-            }
-            
-            Log.d(TAG, "Removing marker: " + markerId);
-            
-            // 从百度地图中删除标记
-            Marker baiduMarker = baiduMarkers.get(markerId);
-            if (baiduMarker != null) {
-                baiduMarker.remove();
-                baiduMarkers.remove(markerId);
-            }
-            
-            markers.remove(markerId);
-            
-            Log.d(TAG, "Marker removed successfully: " + markerId);
-            return true;
-            
-        } catch (Exception e) {
-            Log.e(TAG, "Failed to remove marker: " + markerId, e);
-            return false;
+    private MarkerOptions buildClusterOptions(MarkerClusterer.Cluster cluster) {
+        Bundle extraInfo = new Bundle();
+        extraInfo.putInt(EXTRA_CLUSTER_ID, cluster.getClusterId());
+        
+        return new MarkerOptions()
+            .position(new LatLng(cluster.getLatitude(), cluster.getLongitude()))
+            .icon(getClusterIcon(cluster.getCount()))
+            .anchor(0.5f, 0.5f)
+            .extraInfo(extraInfo);
+    }
+
+    /**
+     * 移除全部聚合标记
+     */
+    private void removeClusterMarkers() {
+        if (!clusterMarkers.isEmpty()) {
+            baiduMap.removeOverLays(new ArrayList<Overlay>(clusterMarkers.values()));
         }
+        clusterMarkers.clear();
+        clustersByBaiduMarker.clear();
+        renderedClusterZoom = -1;
     }
 
     /**
-     * 删除所有标记
+     * 批量创建百度标记
      */
-    public void removeAllMarkers() {
-        try {
-            Log.d(TAG, "Removing all markers");
-            
-            // 从百度地图中删除所有标记
-            for (Marker marker : baiduMarkers.values()) {
-                marker.remove();
-            }
-            baiduMarkers.clear();
-            
-            markers.clear();
-            
-            Log.d(TAG, "All markers removed successfully");
-            
-        } catch (Exception e) {
-            Log.e(TAG, "Failed to remove all markers", e);
+    private void materializeMarkers(IntArrayList handles) {
+        FrameScheduler scheduler = mapView.getFrameScheduler();
+        if (handles.size() > SYNC_MATERIALIZE_LIMIT && scheduler != null) {
+            scheduleMaterialize(scheduler, handles);
+            return;
         }
+        createBaiduMarkers(handles);
     }
 
     /**
-     * 获取标记信息
+     * 优先从复用池取标记，其余通过一次 addOverlays 创建
      */
-    public MarkerInfo getMarkerInfo(String markerId) {
-        return markers.get(markerId);
+    private void createBaiduMarkers(IntArrayList handles) {
+        handles = bindPooledMarkers(handles);
+        if (handles.isEmpty()) {
+            return;
+        }
+        List<OverlayOptions> options = new ArrayList<>(handles.size());
+        for (int i = 0; i < handles.size(); i++) {
+            options.add(buildMarkerOptions(handles.get(i)));
+        }
+        bindBaiduMarkers(handles, baiduMap.addOverlays(options));
     }
 
     /**
-     * 获取所有标记
+     * 将大批量创建拆成分片交给 FrameScheduler，当前视口内的标记先创建
      */
-    public Map<String, MarkerInfo> getAllMarkers() {
-        return new HashMap<>(markers);
+    private void scheduleMaterialize(FrameScheduler scheduler, IntArrayList handles) {
+        MapStatus mapStatus = baiduMap.getMapStatus();
+        LatLngBounds viewport = mapStatus != null ? mapStatus.bound : null;
+        IntArrayList visible = new IntArrayList();
+        IntArrayList offscreen = new IntArrayList();
+        for (int i = 0; i < handles.size(); i++) {
+            int handle = handles.get(i);
+            if (viewport == null || viewport.contains(
+                    new LatLng(store.getLatitude(handle), store.getLongitude(handle)))) {
+                visible.add(handle);
+            } else {
+                offscreen.add(handle);
+            }
+        }
+        postMaterializeChunks(scheduler, visible, true);
+        postMaterializeChunks(scheduler, offscreen, false);
+    }
+
+    private void postMaterializeChunks(FrameScheduler scheduler, IntArrayList handles, boolean highPriority) {
+        int epoch = materializeEpoch;
+        for (int start = 0; start < handles.size(); start += MATERIALIZE_CHUNK_SIZE) {
+            int end = Math.min(handles.size(), start + MATERIALIZE_CHUNK_SIZE);
+            IntArrayList chunk = new IntArrayList();
+            for (int i = start; i < end; i++) {
+                chunk.add(handles.get(i));
+            }
+            scheduler.post(() -> materializeChunk(chunk, epoch), highPriority);
+        }
     }
 
     /**
-     * 显示信息窗口
+     * 执行一个分片，跳过排队期间已删除、已显示或不再需要显示的标记
      */
-    public void showInfoWindow(String markerId) {
-        try {
-            MarkerInfo markerInfo = markers.get(markerId);
-            if (markerInfo == null) {
-                Log.w(TAG, "Marker not found for info window: " + markerId);
-                return;
+    private void materializeChunk(IntArrayList chunk, int epoch) {
+        if (destroyed || epoch != materializeEpoch || clusteringEnabled) {
+            return;
+        }
+        IntArrayList pending = new IntArrayList();
+        for (int i = 0; i < chunk.size(); i++) {
+            int handle = chunk.get(i);
+            if (store.contains(handle) && store.getBaiduMarker(handle) == null && shouldMaterialize(handle)) {
+                pending.add(handle);
             }
-            
-            Log.d(TAG, "Showing info window for marker: " + markerId);
-            
-            // 显示信息窗口
-            Marker baiduMarker = baiduMarkers.get(markerId);
-            if (baiduMarker != null) {
-                InfoWindow infoWindow = new InfoWindow(
-                    createInfoWindowView(markerInfo),
-                    baiduMarker.getPosition(),
-                    -47
-                );
-                baiduMap.showInfoWindow(infoWindow);
+        }
+        createBaiduMarkers(pending);
+    }
+
+    /**
+     * 为所有尚未显示的标记创建百度标记
+     */
+    private void materializeAllMarkers() {
+        IntArrayList pending = new IntArrayList();
+        for (int slot = 0; slot < store.slotCount(); slot++) {
+            int handle = store.handleAt(slot);
+            if (handle >= 0 && store.getBaiduMarker(handle) == null && shouldMaterialize(handle)) {
+                pending.add(handle);
             }
-            
-        } catch (Exception e) {
-            Log.e(TAG, "Failed to show info window for marker: " + markerId, e);
         }
+        materializeMarkers(pending);
     }
 
     /**
-     * 隐藏信息窗口
+     * 批量移除百度标记，保留标记数据
      */
-    public void hideInfoWindow() {
-        try {
-            Log.d(TAG, "Hiding info window");
-            
-            // 隐藏信息窗口
-            baiduMap.hideInfoWindow();
-            
-        } catch (Exception e) {
-            Log.e(TAG, "Failed to hide info window", e);
+    private void dematerializeMarkers(IntArrayList handles) {
+        List<Overlay> overlaysToRemove = new ArrayList<>(handles.size());
+        for (int i = 0; i < handles.size(); i++) {
+            releaseBaiduMarker(unbindBaiduMarker(handles.get(i)), overlaysToRemove);
+        }
+        if (!overlaysToRemove.isEmpty()) {
+            baiduMap.removeOverLays(overlaysToRemove);
+        }
+    }
+
+    /**
+     * 点击聚合：发送事件并缩放到聚合展开的级别
+     */
+    private void onClusterClick(MarkerClusterer.Cluster cluster) {
+        LatLng position = new LatLng(cluster.getLatitude(), cluster.getLongitude());
+        sendClusterClickEvent(cluster, position);
+        
+        if (clusterer != null && cluster.getExpansionZoom() <= clusterer.getMaxZoom()) {
+            baiduMap.animateMapStatus(
+                MapStatusUpdateFactory.newLatLngZoom(position, cluster.getExpansionZoom()));
         }
     }
 
     /**
-     * 生成标记ID
+     * 获取聚合图标，按显示文本和尺寸缓存
      */
-    private String generateMarkerId() {
-        return "marker_" + markerIdGenerator.incrementAndGet();
+    private BitmapDescriptor getClusterIcon(int count) {
+        String label = formatClusterCount(count);
+        float density = reactContext.getResources().getDisplayMetrics().density;
+        int sizeDp = count < 10 ? 30 : (count < 100 ? 36 : (count < 1000 ? 42 : 50));
+        int size = (int) (sizeDp * density);
+        
+        String cacheKey = BitmapDescriptorCache.key(CLUSTER_ICON_KEY_PREFIX + label, size);
+        BitmapDescriptor icon = iconCache.get(cacheKey);
+        if (icon != null) {
+            return icon;
+        }
+        
+        Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        
+        Paint circlePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        circlePaint.setColor(Color.WHITE);
+        canvas.drawCircle(size / 2f, size / 2f, size / 2f, circlePaint);
+        circlePaint.setColor(count < 100 ? Color.rgb(51, 133, 255) : 
+            (count < 1000 ? Color.rgb(255, 152, 0) : Color.rgb(229, 57, 53)));
+        canvas.drawCircle(size / 2f, size / 2f, size / 2f - 2 * density, circlePaint);
+        
+        Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        textPaint.setColor(Color.WHITE);
+        textPaint.setTextSize(13 * density);
+        textPaint.setTextAlign(Paint.Align.CENTER);
+        textPaint.setFakeBoldText(true);
+        float textY = size / 2f - (textPaint.descent() + textPaint.ascent()) / 2f;
+        canvas.drawText(label, size / 2f, textY, textPaint);
+        
+        icon = BitmapDescriptorFactory.fromBitmap(bitmap);
+        iconCache.put(cacheKey, icon);
+        return icon;
+    }
+
+    private static String formatClusterCount(int count) {
+        if (count >= 10000) {
+            return (count / 1000) + "k";
+        } else if (count >= 1000) {
+            return String.format(Locale.US, "%.1fk", count / 1000.0);
+        }
+        return String.valueOf(count);
     }
 
+
     /**
-     * 根据百度标记查找标记ID
+     * 根据百度标记查找标记句柄，未找到时返回 -1
+     * 优先查反向索引，其次读取标记附带的 extraInfo
      */
-    private String findMarkerIdByBaiduMarker(Marker baiduMarker) {
-        for (Map.Entry<String, Marker> entry : baiduMarkers.entrySet()) {
-            if (entry.getValue().equals(baiduMarker)) {
-                return entry.getKey();
+    private int findMarkerHandleByBaiduMarker(Marker baiduMarker) {
+        if (baiduMarker == null) {
+            return -1;
+        }
+        
+        Integer handle = markerHandlesByBaiduMarker.get(baiduMarker);
+        if (handle != null) {
+            return handle;
+        }
+        
+        Bundle extraInfo = baiduMarker.getExtraInfo();
+        if (extraInfo != null) {
+            int extraHandle = MarkerStore.handleOf(extraInfo.getString(EXTRA_MARKER_ID));
+            if (store.getBaiduMarker(extraHandle) == baiduMarker) {
+                return extraHandle;
             }
         }
-        return null;
+        return -1;
     }
 
     /**
      * 从URI创建图标
+     * 命中进程级缓存时直接返回；否则在后台下载或解码，先返回占位图标，
+     * 并登记等待该图标的标记，完成后再替换
      */
-    private BitmapDescriptor createIconFromUri(String iconUri) {
-        try {
-            if (iconUri == null || iconUri.isEmpty()) {
-                return null;
+    private BitmapDescriptor createIconFromUri(int handle, MarkerInfo markerInfo) {
+        String iconUri = markerInfo.getIconUri();
+        if (iconUri == null || iconUri.isEmpty()) {
+            return null;
+        }
+        
+        int targetSizePx = getIconSizePx(markerInfo.getIconSize());
+        String cacheKey = BitmapDescriptorCache.key(iconUri, targetSizePx);
+        BitmapDescriptor icon = iconCache.get(cacheKey);
+        if (icon != null) {
+            return icon;
+        }
+        
+        Set<Integer> waitingHandles = pendingIcons.get(cacheKey);
+        if (waitingHandles == null) {
+            waitingHandles = new HashSet<>();
+            pendingIcons.put(cacheKey, waitingHandles);
+            if (isRemoteUri(iconUri)) {
+                remoteIconLoader.load(iconUri, targetSizePx, iconLoadCallback);
+            } else {
+                iconDecoder.decode(cacheKey, iconUri, targetSizePx, iconLoadCallback);
+            }
+        }
+        waitingHandles.add(handle);
+        return getPlaceholderIcon();
+    }
+
+    /**
+     * 图标解码的目标像素尺寸（长边），只缩小不放大
+     * 指定了 iconSize 时按其缩小；否则以 MAX_ICON_SIZE_DP 为上限，一般图标保持原始尺寸
+     */
+    private int getIconSizePx(float iconSizeDp) {
+        float sizeDp = iconSizeDp > 0 ? iconSizeDp : MAX_ICON_SIZE_DP;
+        return Math.round(sizeDp * displayDensity);
+    }
+
+    /**
+     * 碰撞检测使用的图标像素尺寸，未指定 iconSize 时按 DEFAULT_ICON_SIZE_DP 估算
+     */
+    private int getCollisionSizePx(float iconSizeDp) {
+        float sizeDp = iconSizeDp > 0 ? iconSizeDp : DEFAULT_ICON_SIZE_DP;
+        return Math.round(sizeDp * displayDensity);
+    }
+
+    /**
+     * 图标加载回调（主线程，同一批结果依次回调）
+     */
+    private final IconLoadCallback iconLoadCallback = new IconLoadCallback() {
+        @Override
+        public void onIconLoaded(String cacheKey, BitmapDescriptor icon) {
+            Set<Integer> waitingHandles = pendingIcons.remove(cacheKey);
+            if (destroyed || waitingHandles == null) {
+                return;
             }
             
-            // 处理不同类型的URI
-            if (iconUri.startsWith("http://") || iconUri.startsWith("https://")) {
-                // 网络图片 - 需要异步加载
-                // 简单实现：尝试从缓存或资源中获取
-                // 注意：完整实现需要异步下载和缓存机制
-                Context context = reactContext.getApplicationContext();
-                int resourceId = context.getResources().getIdentifier(
-                    "marker_icon", "drawable", context.getPackageName());
-                if (resourceId != 0) {
-                    return BitmapDescriptorFactory.fromResource(resourceId);
-                }
-                return BitmapDescriptorFactory.fromAsset("marker_default.png");
-            } else if (iconUri.startsWith("file://")) {
-                // 本地文件
-                String filePath = iconUri.substring(7);
-                Bitmap bitmap = BitmapFactory.decodeFile(filePath);
-                return BitmapDescriptorFactory.fromBitmap(bitmap);
-            } else {
-                // 资源文件
-                Context context = reactContext.getApplicationContext();
-                int resourceId = context.getResources().getIdentifier(
-                    iconUri, "drawable", context.getPackageName());
-                if (resourceId != 0) {
-                    return BitmapDescriptorFactory.fromResource(resourceId);
+            for (Integer handle : waitingHandles) {
+                Marker baiduMarker = store.getBaiduMarker(handle);
+                if (baiduMarker == null) {
+                    continue;
                 }
+                // 等待期间图标可能已被修改，只替换仍使用该图标的标记
+                String iconUri = store.getIconUri(handle);
+                if (iconUri != null && cacheKey.equals(
+                    BitmapDescriptorCache.key(iconUri, getIconSizePx(store.getIconSize(handle))))) {
+                    baiduMarker.setIcon(icon);
+                }
+            }
+        }
+
+        @Override
+        public void onIconFailed(String cacheKey, Exception error) {
+            pendingIcons.remove(cacheKey);
+            Log.e(TAG, "Failed to load icon: " + cacheKey, error);
+        }
+    };
+
+    /**
+     * 获取占位图标
+     */
+    private BitmapDescriptor getPlaceholderIcon() {
+        String cacheKey = BitmapDescriptorCache.key(PLACEHOLDER_ICON_KEY, 0);
+        BitmapDescriptor icon = iconCache.get(cacheKey);
+        if (icon == null) {
+            icon = createPlaceholderIcon();
+            iconCache.put(cacheKey, icon);
+        }
+        return icon;
+    }
+
+    private BitmapDescriptor createPlaceholderIcon() {
+        try {
+            Context context = reactContext.getApplicationContext();
+            int resourceId = context.getResources().getIdentifier(
+                "marker_icon", "drawable", context.getPackageName());
+            if (resourceId != 0) {
+                return BitmapDescriptorFactory.fromResource(resourceId);
             }
+            return BitmapDescriptorFactory.fromAsset("marker_default.png");
         } catch (Exception e) {
-            Log.e(TAG, "Failed to create icon from URI: " + iconUri, e);
+            Log.e(TAG, "Failed to create placeholder icon", e);
         }
         return null;
     }
 
+    private static boolean isRemoteUri(String iconUri) {
+        return iconUri.startsWith("http://") || iconUri.startsWith("https://");
+    }
+
     /**
      * 创建信息窗口视图
      */
@@ -379,6 +2352,12 @@ public class MarkerManager {
             coordinate.putDouble("longitude", position.longitude);
             event.putMap("coordinate", coordinate);
             
+            Object[] datasetPoint = findDatasetPoint(MarkerStore.handleOf(markerId));
+            if (datasetPoint != null) {
+                event.putString("datasetId", (String) datasetPoint[0]);
+                event.putInt("datasetIndex", (Integer) datasetPoint[1]);
+            }
+            
             reactContext.getJSModule(RCTEventEmitter.class)
                 .receiveEvent(mapView.getId(), "onMarkerPress", event);
                 
@@ -387,6 +2366,90 @@ public class MarkerManager {
         }
     }
 
+    /**
+     * 设置拖拽事件的最小发送间隔（毫秒），0 表示每帧最多一次
+     */
+    public void setDragEventInterval(long intervalMs) {
+        dragEventIntervalMs = Math.max(0, intervalMs);
+    }
+
+    private void scheduleDragFlush() {
+        if (dragFlushScheduled) {
+            return;
+        }
+        dragFlushScheduled = true;
+        if (dragEventIntervalMs <= 0) {
+            Choreographer.getInstance().postFrameCallback(dragFrameCallback);
+        } else {
+            long delay = lastDragFlushTime + dragEventIntervalMs - SystemClock.uptimeMillis();
+            mainHandler.postDelayed(dragFlushRunnable, Math.max(0, delay));
+        }
+    }
+
+    /**
+     * 发送合并后的拖拽事件
+     */
+    private void flushDragEvents() {
+        dragFlushScheduled = false;
+        lastDragFlushTime = SystemClock.uptimeMillis();
+        if (destroyed || pendingDrags.isEmpty()) {
+            return;
+        }
+        
+        List<Map.Entry<Integer, LatLng>> drags = new ArrayList<>(pendingDrags.entrySet());
+        pendingDrags.clear();
+        for (Map.Entry<Integer, LatLng> drag : drags) {
+            if (store.contains(drag.getKey())) {
+                sendMarkerDragEvent(MarkerStore.idOf(drag.getKey()), drag.getValue(), "drag");
+            }
+        }
+    }
+
+    /**
+     * 发送聚合点击事件
+     */
+    private void sendClusterClickEvent(MarkerClusterer.Cluster cluster, LatLng position) {
+        try {
+            WritableMap event = Arguments.createMap();
+            event.putInt("clusterId", cluster.getClusterId());
+            event.putInt("count", cluster.getCount());
+            event.putInt("expansionZoom", cluster.getExpansionZoom());
+            
+            WritableMap coordinate = Arguments.createMap();
+            coordinate.putDouble("latitude", position.latitude);
+            coordinate.putDouble("longitude", position.longitude);
+            event.putMap("coordinate", coordinate);
+            
+            // 未写入存储的数据集点没有标记ID，以 {datasetId, datasetIndex} 列出
+            IntArrayList memberHandles = new IntArrayList();
+            MarkerClusterer.collectMarkerHandles(cluster, memberHandles, CLUSTER_EVENT_MAX_MARKER_IDS);
+            WritableArray markerIds = Arguments.createArray();
+            WritableArray datasetPoints = Arguments.createArray();
+            for (int i = 0; i < memberHandles.size(); i++) {
+                int handle = memberHandles.get(i);
+                if (handle >= 0) {
+                    markerIds.pushString(MarkerStore.idOf(handle));
+                    continue;
+                }
+                Object[] datasetPoint = findClusterDatasetPoint(handle);
+                if (datasetPoint != null) {
+                    WritableMap point = Arguments.createMap();
+                    point.putString("datasetId", (String) datasetPoint[0]);
+                    point.putInt("datasetIndex", (Integer) datasetPoint[1]);
+                    datasetPoints.pushMap(point);
+                }
+            }
+            event.putArray("markerIds", markerIds);
+            event.putArray("datasetPoints", datasetPoints);
+            
+            reactContext.getJSModule(RCTEventEmitter.class)
+                .receiveEvent(mapView.getId(), "onClusterPress", event);
+                
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to send cluster click event", e);
+        }
+    }
+
     /**
      * 发送标记拖拽事件
      */
@@ -416,15 +2479,113 @@ public class MarkerManager {
         }
     }
 
+    /**
+     * 发送文件导入进度事件
+     */
+    void sendMarkersLoadEvent(String loadId, String state, int loaded, int skipped,
+                              long bytesRead, long totalBytes, String error) {
+        if (destroyed) {
+            return;
+        }
+        try {
+            WritableMap event = Arguments.createMap();
+            event.putString("loadId", loadId);
+            event.putString("state", state);
+            event.putInt("loaded", loaded);
+            event.putInt("skipped", skipped);
+            event.putDouble("bytesRead", bytesRead);
+            event.putDouble("totalBytes", totalBytes);
+            if (error != null) {
+                event.putString("error", error);
+            }
+            
+            reactContext.getJSModule(RCTEventEmitter.class)
+                .receiveEvent(mapView.getId(), "onMarkersLoadProgress", event);
+                
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to send markers load event", e);
+        }
+    }
+
+    /**
+     * 发送渲染预算事件，shownCount 为视口内显示的标记数，hiddenCount 为超出预算未显示的数量
+     */
+    private void sendMarkerBudgetEvent(int shownCount, int hiddenCount) {
+        if (destroyed) {
+            return;
+        }
+        try {
+            WritableMap event = Arguments.createMap();
+            event.putInt("shownCount", shownCount);
+            event.putInt("hiddenCount", hiddenCount);
+            
+            reactContext.getJSModule(RCTEventEmitter.class)
+                .receiveEvent(mapView.getId(), "onMarkerBudgetChange", event);
+                
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to send marker budget event", e);
+        }
+    }
+
     /**
      * 清理资源
      */
     public void destroy() {
         try {
             Log.d(TAG, "Destroying marker manager");
+            destroyed = true;
+            pendingIcons.clear();
+            pendingDrags.clear();
+            Choreographer.getInstance().removeFrameCallback(dragFrameCallback);
+            if (fileLoader != null) {
+                fileLoader.destroy();
+                fileLoader = null;
+            }
+            mainHandler.removeCallbacksAndMessages(null);
+            if (clusterExecutor != null) {
+                clusterExecutor.shutdownNow();
+                clusterExecutor = null;
+            }
             removeAllMarkers();
+            if (markerPool != null) {
+                markerPool.destroy();
+                markerPool = null;
+            }
         } catch (Exception e) {
             Log.e(TAG, "Error destroying marker manager", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 已打开的数据集及其已写入存储的点
+     */
+    private static class DatasetLayer {
+        final String datasetId;
+        final MarkerDataset dataset;
+        final String icon;
+        final float iconSize;
+        final int maxMarkers;
+        final Map<Integer, Integer> handleByIndex = new HashMap<>();
+        final Map<Integer, Integer> indexByHandle = new HashMap<>();
+
+        DatasetLayer(String datasetId, MarkerDataset dataset, ReadableMap options) {
+            this.datasetId = datasetId;
+            this.dataset = dataset;
+            this.icon = options != null && options.hasKey("icon") ? options.getString("icon") : null;
+            this.iconSize = options != null && options.hasKey("iconSize") ? (float) options.getDouble("iconSize") : 0f;
+            this.maxMarkers = options != null && options.hasKey("maxMarkers")
+                ? options.getInt("maxMarkers") : DEFAULT_DATASET_MAX_MARKERS;
+        }
+
+        MarkerInfo createMarkerInfo(int index) {
+            MarkerInfo markerInfo = new MarkerInfo(null);
+            markerInfo.setLatitude(dataset.getLatitude(index));
+            markerInfo.setLongitude(dataset.getLongitude(index));
+            markerInfo.setTitle(dataset.getTitle(index));
+            String pointIcon = dataset.getIcon(index);
+            markerInfo.setIconUri(pointIcon != null ? pointIcon : icon);
+            markerInfo.setIconSize(iconSize);
+            return markerInfo;
+        }
+    }
+}
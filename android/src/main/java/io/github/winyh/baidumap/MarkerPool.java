@@ -0,0 +1,132 @@
+package io.github.winyh.baidumap;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.baidu.mapapi.map.Marker;
+
+import java.util.ArrayDeque;
+
+/**
+ * 百度标记复用池
+ * 不再需要的标记隐藏后放入池中，需要新标记时重新设置位置和图标复用，减少 addOverlay / remove 的开销。
+ * 池满或内存紧张时才真正移除覆盖物。只能在主线程使用。
+ */
+public class MarkerPool implements ComponentCallbacks2 {
+    private static final String TAG = "BaiduMarkerPool";
+
+    private final Context appContext;
+    private final ArrayDeque<Marker> markers = new ArrayDeque<>();
+    private int maxSize;
+
+    private long hitCount;
+    private long missCount;
+    private long recycledCount;
+    private long evictionCount;
+
+    public MarkerPool(Context context, int maxSize) {
+        this.appContext = context.getApplicationContext();
+        this.maxSize = Math.max(0, maxSize);
+        appContext.registerComponentCallbacks(this);
+    }
+
+    /**
+     * 取出一个隐藏的标记，池为空时返回 null
+     */
+    public Marker acquire() {
+        Marker marker = markers.poll();
+        if (marker != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return marker;
+    }
+
+    /**
+     * 回收标记，池已满时返回 false，由调用方移除覆盖物
+     */
+    public boolean release(Marker marker) {
+        if (marker == null || markers.size() >= maxSize) {
+            return false;
+        }
+        marker.setVisible(false);
+        marker.setDraggable(false);
+        markers.push(marker);
+        recycledCount++;
+        return true;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = Math.max(0, maxSize);
+        trimToSize(this.maxSize);
+    }
+
+    /**
+     * 移除超出数量的池中标记
+     */
+    public void trimToSize(int size) {
+        while (markers.size() > size) {
+            markers.pollLast().remove();
+            evictionCount++;
+        }
+    }
+
+    public void clear() {
+        trimToSize(0);
+    }
+
+    public void destroy() {
+        clear();
+        appContext.unregisterComponentCallbacks(this);
+    }
+
+    public int getSize() {
+        return markers.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getRecycledCount() {
+        return recycledCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_MODERATE) {
+            Log.d(TAG, "Trim memory level " + level + ", clearing marker pool");
+            clear();
+        } else if (level >= TRIM_MEMORY_BACKGROUND || level == TRIM_MEMORY_RUNNING_LOW
+            || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            Log.d(TAG, "Trim memory level " + level + ", shrinking marker pool");
+            trimToSize(markers.size() / 2);
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        clear();
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfig) {
+    }
+}
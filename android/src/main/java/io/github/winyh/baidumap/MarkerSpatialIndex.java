@@ -0,0 +1,289 @@
+package io.github.winyh.baidumap;
+
+import java.util.PriorityQueue;
+
+/**
+ * 标记空间索引
+ * 基于经纬度的点四叉树，叶子节点以并行数组保存标记句柄和坐标，
+ * 超过容量后按象限拆分，用于视口裁剪等范围查询和最近邻查询。
+ */
+public class MarkerSpatialIndex {
+    private static final int NODE_CAPACITY = 32;
+    private static final int MAX_DEPTH = 20;
+    private static final double EARTH_RADIUS_METERS = 6371008.8;
+
+    private Node root;
+    private int size;
+
+    public MarkerSpatialIndex() {
+        clear();
+    }
+
+    /**
+     * 插入标记
+     */
+    public void insert(int markerHandle, double latitude, double longitude) {
+        root.insert(markerHandle, latitude, longitude, 0);
+        size++;
+    }
+
+    /**
+     * 删除标记，需要提供插入时的坐标以定位叶子节点
+     */
+    public boolean remove(int markerHandle, double latitude, double longitude) {
+        if (root.remove(markerHandle, latitude, longitude)) {
+            size--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 更新标记坐标
+     */
+    public void update(int markerHandle, double oldLatitude, double oldLongitude,
+                       double newLatitude, double newLongitude) {
+        if (oldLatitude == newLatitude && oldLongitude == newLongitude) {
+            return;
+        }
+        remove(markerHandle, oldLatitude, oldLongitude);
+        insert(markerHandle, newLatitude, newLongitude);
+    }
+
+    /**
+     * 查询矩形范围内的标记
+     */
+    public void query(double minLatitude, double minLongitude,
+                      double maxLatitude, double maxLongitude, IntArrayList out) {
+        root.query(minLatitude, minLongitude, maxLatitude, maxLongitude, out);
+    }
+
+    /**
+     * 按距离由近到远查询标记（最优优先搜索）
+     * radiusMeters 小于等于 0 表示不限距离，limit 小于等于 0 表示不限数量；
+     * 结果句柄写入 outHandles，对应距离（米）写入 outDistances
+     */
+    public void nearest(double latitude, double longitude, double radiusMeters, int limit,
+                        IntArrayList outHandles, DoubleArrayList outDistances) {
+        double maxDistance = radiusMeters > 0 ? radiusMeters : Double.POSITIVE_INFINITY;
+        int maxCount = limit > 0 ? limit : Integer.MAX_VALUE;
+
+        PriorityQueue<Candidate> queue = new PriorityQueue<>();
+        queue.add(new Candidate(root, -1, root.minDistance(latitude, longitude)));
+        while (!queue.isEmpty() && outHandles.size() < maxCount) {
+            Candidate candidate = queue.poll();
+            if (candidate.distance > maxDistance) {
+                break;
+            }
+            Node node = candidate.node;
+            if (node == null) {
+                outHandles.add(candidate.handle);
+                outDistances.add(candidate.distance);
+            } else if (node.children != null) {
+                for (Node child : node.children) {
+                    double distance = child.minDistance(latitude, longitude);
+                    if (distance <= maxDistance) {
+                        queue.add(new Candidate(child, -1, distance));
+                    }
+                }
+            } else {
+                for (int i = 0; i < node.count; i++) {
+                    double distance = distanceMeters(latitude, longitude, node.lats[i], node.lngs[i]);
+                    if (distance <= maxDistance) {
+                        queue.add(new Candidate(null, node.ids[i], distance));
+                    }
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        root = new Node(-90, -180, 90, 180);
+        size = 0;
+    }
+
+    /**
+     * 两点间的球面距离（米）
+     */
+    static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double dPhi = phi2 - phi1;
+        double dLambda = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dPhi / 2) * Math.sin(dPhi / 2)
+            + Math.cos(phi1) * Math.cos(phi2) * Math.sin(dLambda / 2) * Math.sin(dLambda / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * 搜索队列中的节点或标记，node 为 null 时表示单个标记
+     */
+    private static class Candidate implements Comparable<Candidate> {
+        final Node node;
+        final int handle;
+        final double distance;
+
+        Candidate(Node node, int handle, double distance) {
+            this.node = node;
+            this.handle = handle;
+            this.distance = distance;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            return Double.compare(distance, other.distance);
+        }
+    }
+
+    /**
+     * 四叉树节点
+     */
+    private static class Node {
+        final double minLat;
+        final double minLng;
+        final double maxLat;
+        final double maxLng;
+
+        // 叶子数据
+        int[] ids = new int[NODE_CAPACITY];
+        double[] lats = new double[NODE_CAPACITY];
+        double[] lngs = new double[NODE_CAPACITY];
+        int count;
+
+        // 子节点：0 西南，1 东南，2 西北，3 东北
+        Node[] children;
+
+        Node(double minLat, double minLng, double maxLat, double maxLng) {
+            this.minLat = minLat;
+            this.minLng = minLng;
+            this.maxLat = maxLat;
+            this.maxLng = maxLng;
+        }
+
+        void insert(int id, double lat, double lng, int depth) {
+            if (children != null) {
+                childFor(lat, lng).insert(id, lat, lng, depth + 1);
+                return;
+            }
+
+            if (count == ids.length) {
+                if (depth < MAX_DEPTH) {
+                    split(depth);
+                    childFor(lat, lng).insert(id, lat, lng, depth + 1);
+                    return;
+                }
+                // 达到最大深度（大量重合点）时直接扩容
+                grow();
+            }
+
+            ids[count] = id;
+            lats[count] = lat;
+            lngs[count] = lng;
+            count++;
+        }
+
+        boolean remove(int id, double lat, double lng) {
+            if (children != null) {
+                return childFor(lat, lng).remove(id, lat, lng);
+            }
+            for (int i = 0; i < count; i++) {
+                if (ids[i] == id) {
+                    int last = count - 1;
+                    ids[i] = ids[last];
+                    lats[i] = lats[last];
+                    lngs[i] = lngs[last];
+                    count = last;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void query(double qMinLat, double qMinLng, double qMaxLat, double qMaxLng, IntArrayList out) {
+            if (qMinLat > maxLat || qMaxLat < minLat || qMinLng > maxLng || qMaxLng < minLng) {
+                return;
+            }
+
+            if (children != null) {
+                for (Node child : children) {
+                    child.query(qMinLat, qMinLng, qMaxLat, qMaxLng, out);
+                }
+                return;
+            }
+
+            boolean contained = qMinLat <= minLat && qMaxLat >= maxLat
+                && qMinLng <= minLng && qMaxLng >= maxLng;
+            for (int i = 0; i < count; i++) {
+                if (contained || (lats[i] >= qMinLat && lats[i] <= qMaxLat
+                    && lngs[i] >= qMinLng && lngs[i] <= qMaxLng)) {
+                    out.add(ids[i]);
+                }
+            }
+        }
+
+        private void split(int depth) {
+            double midLat = (minLat + maxLat) / 2;
+            double midLng = (minLng + maxLng) / 2;
+            children = new Node[] {
+                new Node(minLat, minLng, midLat, midLng),
+                new Node(minLat, midLng, midLat, maxLng),
+                new Node(midLat, minLng, maxLat, midLng),
+                new Node(midLat, midLng, maxLat, maxLng)
+            };
+            for (int i = 0; i < count; i++) {
+                childFor(lats[i], lngs[i]).insert(ids[i], lats[i], lngs[i], depth + 1);
+            }
+            ids = null;
+            lats = null;
+            lngs = null;
+            count = 0;
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            int[] newIds = new int[capacity];
+            double[] newLats = new double[capacity];
+            double[] newLngs = new double[capacity];
+            System.arraycopy(ids, 0, newIds, 0, count);
+            System.arraycopy(lats, 0, newLats, 0, count);
+            System.arraycopy(lngs, 0, newLngs, 0, count);
+            ids = newIds;
+            lats = newLats;
+            lngs = newLngs;
+        }
+
+        /**
+         * 查询点到节点范围的距离下界（米），点在范围内时为 0
+         */
+        double minDistance(double lat, double lng) {
+            double clampedLat = Math.max(minLat, Math.min(maxLat, lat));
+            double clampedLng = Math.max(minLng, Math.min(maxLng, lng));
+            if (clampedLat == lat && clampedLng == lng) {
+                return 0;
+            }
+            // 分别由纬度差和经度差推出下界，取较大者；大圆路线可能经过更高纬度，
+            // 因此经度方向按节点内余弦最小的纬度估计
+            double latDistance = EARTH_RADIUS_METERS * Math.toRadians(Math.abs(lat - clampedLat));
+            double lngDistance = 0;
+            if (clampedLng != lng) {
+                double maxAbsLat = Math.max(Math.abs(minLat), Math.abs(maxLat));
+                double cosProduct = Math.cos(Math.toRadians(lat)) * Math.cos(Math.toRadians(maxAbsLat));
+                double halfDelta = Math.sin(Math.toRadians(Math.abs(lng - clampedLng)) / 2);
+                lngDistance = 2 * EARTH_RADIUS_METERS
+                    * Math.asin(Math.min(1, Math.sqrt(Math.max(0, cosProduct)) * halfDelta));
+            }
+            return Math.max(latDistance, lngDistance);
+        }
+
+        private Node childFor(double lat, double lng) {
+            double midLat = (minLat + maxLat) / 2;
+            double midLng = (minLng + maxLng) / 2;
+            int index = (lat >= midLat ? 2 : 0) + (lng >= midLng ? 1 : 0);
+            return children[index];
+        }
+    }
+}
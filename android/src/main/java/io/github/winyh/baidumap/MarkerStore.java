@@ -0,0 +1,565 @@
+package io.github.winyh.baidumap;
+
+import com.baidu.mapapi.map.Marker;
+import com.facebook.react.bridge.ReadableMap;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 标记数据存储
+ * 以结构数组（SoA）保存标记属性：坐标、透明度、旋转等放在并行的基本类型数组中，
+ * 标题、描述和图标地址去重后以字符串池下标保存，百度标记只为已显示的标记单独保存。
+ * 标记以 int 句柄标识，句柄由槽位和代数组成，槽位复用后旧句柄自动失效。
+ * 只能在主线程访问。
+ */
+public class MarkerStore {
+    private static final String ID_PREFIX = "marker_";
+    private static final int SLOT_BITS = 20;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int MAX_GENERATION = (1 << (31 - SLOT_BITS)) - 1;
+    // 代数用尽的槽位，不再分配，任何句柄都不会与之匹配
+    private static final int RETIRED_GENERATION = MAX_GENERATION + 1;
+    public static final int MAX_MARKERS = 1 << SLOT_BITS;
+
+    private static final byte FLAG_ALIVE = 1;
+    private static final byte FLAG_DRAGGABLE = 1 << 1;
+    private static final byte FLAG_VISIBLE = 1 << 2;
+    private static final byte FLAG_FLAT = 1 << 3;
+    // 被碰撞检测临时隐藏，不属于标记自身属性
+    private static final byte FLAG_DECLUTTERED = 1 << 4;
+    // 被选入当前视口的渲染预算
+    private static final byte FLAG_IN_BUDGET = 1 << 5;
+    // 不满足当前属性过滤条件
+    private static final byte FLAG_FILTERED_OUT = 1 << 6;
+    private static final byte TRANSIENT_FLAGS = FLAG_DECLUTTERED | FLAG_IN_BUDGET | FLAG_FILTERED_OUT;
+
+    // 并行数组，下标为槽位
+    private double[] latitudes;
+    private double[] longitudes;
+    private float[] alphas;
+    private float[] rotations;
+    private float[] iconSizes;
+    private int[] zIndexes;
+    private int[] generations;
+    private byte[] flags;
+    // 字符串池下标，0 表示 null
+    private int[] titles;
+    private int[] descriptions;
+    private int[] iconUris;
+    private final MarkerAttributeIndex attributes = new MarkerAttributeIndex();
+
+    // 已使用的槽位上界与空闲槽位栈
+    private int slotCount;
+    private int[] freeSlots;
+    private int freeCount;
+    private int size;
+
+    // 大量标记通常共用少数几个图标和标题
+    private final StringPool strings = new StringPool();
+    // 已显示标记对应的百度标记，键为槽位
+    private final Map<Integer, Marker> baiduMarkers = new HashMap<>();
+
+    public MarkerStore() {
+        allocate(64);
+    }
+
+    private void allocate(int capacity) {
+        latitudes = new double[capacity];
+        longitudes = new double[capacity];
+        alphas = new float[capacity];
+        rotations = new float[capacity];
+        iconSizes = new float[capacity];
+        zIndexes = new int[capacity];
+        generations = new int[capacity];
+        flags = new byte[capacity];
+        titles = new int[capacity];
+        descriptions = new int[capacity];
+        iconUris = new int[capacity];
+        freeSlots = new int[16];
+        slotCount = 0;
+        freeCount = 0;
+        size = 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= latitudes.length) {
+            return;
+        }
+        int newCapacity = Math.min(MAX_MARKERS, Math.max(capacity, latitudes.length * 2));
+        latitudes = Arrays.copyOf(latitudes, newCapacity);
+        longitudes = Arrays.copyOf(longitudes, newCapacity);
+        alphas = Arrays.copyOf(alphas, newCapacity);
+        rotations = Arrays.copyOf(rotations, newCapacity);
+        iconSizes = Arrays.copyOf(iconSizes, newCapacity);
+        zIndexes = Arrays.copyOf(zIndexes, newCapacity);
+        generations = Arrays.copyOf(generations, newCapacity);
+        flags = Arrays.copyOf(flags, newCapacity);
+        titles = Arrays.copyOf(titles, newCapacity);
+        descriptions = Arrays.copyOf(descriptions, newCapacity);
+        iconUris = Arrays.copyOf(iconUris, newCapacity);
+    }
+
+    /**
+     * 添加标记并返回句柄，容量已满时返回 -1
+     */
+    public int add(MarkerInfo markerInfo) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount >= MAX_MARKERS) {
+                return -1;
+            }
+            ensureCapacity(slotCount + 1);
+            slot = slotCount++;
+        }
+        flags[slot] = FLAG_ALIVE;
+        write(slot, markerInfo);
+        size++;
+        return handleForSlot(slot);
+    }
+
+    /**
+     * 删除标记，句柄随即失效
+     */
+    public boolean remove(int handle) {
+        if (!contains(handle)) {
+            return false;
+        }
+        int slot = handle & SLOT_MASK;
+        flags[slot] = 0;
+        titles[slot] = strings.release(titles[slot]);
+        descriptions[slot] = strings.release(descriptions[slot]);
+        iconUris[slot] = strings.release(iconUris[slot]);
+        baiduMarkers.remove(slot);
+        attributes.clear(slot);
+        // 代数回绕前不再复用该槽位
+        if (retire(slot)) {
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * 删除全部标记。槽位和代数保留，存活槽位的代数递增，清空前的句柄全部失效
+     */
+    public void clear() {
+        strings.clear();
+        attributes.clearAll();
+        Arrays.fill(titles, 0, slotCount, 0);
+        Arrays.fill(descriptions, 0, slotCount, 0);
+        Arrays.fill(iconUris, 0, slotCount, 0);
+        baiduMarkers.clear();
+
+        if (freeSlots.length < slotCount) {
+            freeSlots = new int[slotCount];
+        }
+        freeCount = 0;
+        // 倒序入栈，之后从低位槽位开始复用
+        for (int slot = slotCount - 1; slot >= 0; slot--) {
+            boolean reusable = (flags[slot] & FLAG_ALIVE) == 0
+                ? generations[slot] != RETIRED_GENERATION
+                : retire(slot);
+            flags[slot] = 0;
+            if (reusable) {
+                freeSlots[freeCount++] = slot;
+            }
+        }
+        size = 0;
+    }
+
+    /**
+     * 递增槽位代数使旧句柄失效，代数用尽时标记为停用并返回 false
+     */
+    private boolean retire(int slot) {
+        if (generations[slot] < MAX_GENERATION) {
+            generations[slot]++;
+            return true;
+        }
+        generations[slot] = RETIRED_GENERATION;
+        return false;
+    }
+
+    public boolean contains(int handle) {
+        if (handle < 0) {
+            return false;
+        }
+        int slot = handle & SLOT_MASK;
+        return slot < slotCount && (flags[slot] & FLAG_ALIVE) != 0
+            && generations[slot] == (handle >>> SLOT_BITS);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 槽位上界，配合 handleAt 遍历全部标记
+     */
+    public int slotCount() {
+        return slotCount;
+    }
+
+    /**
+     * 返回槽位上的标记句柄，空槽位返回 -1
+     */
+    public int handleAt(int slot) {
+        return (flags[slot] & FLAG_ALIVE) != 0 ? handleForSlot(slot) : -1;
+    }
+
+    /**
+     * 生成包含当前属性的 MarkerInfo 快照，修改快照不会影响存储
+     */
+    public MarkerInfo get(int handle) {
+        return snapshot(handle, true);
+    }
+
+    private MarkerInfo snapshot(int handle, boolean withAttributes) {
+        if (!contains(handle)) {
+            return null;
+        }
+        int slot = handle & SLOT_MASK;
+        MarkerInfo markerInfo = new MarkerInfo(idOf(handle));
+        markerInfo.setLatitude(latitudes[slot]);
+        markerInfo.setLongitude(longitudes[slot]);
+        markerInfo.setTitle(strings.get(titles[slot]));
+        markerInfo.setDescription(strings.get(descriptions[slot]));
+        markerInfo.setIconUri(strings.get(iconUris[slot]));
+        markerInfo.setIconSize(iconSizes[slot]);
+        markerInfo.setDraggable((flags[slot] & FLAG_DRAGGABLE) != 0);
+        markerInfo.setVisible((flags[slot] & FLAG_VISIBLE) != 0);
+        markerInfo.setFlat((flags[slot] & FLAG_FLAT) != 0);
+        markerInfo.setAlpha(alphas[slot]);
+        markerInfo.setRotation(rotations[slot]);
+        markerInfo.setZIndex(zIndexes[slot]);
+        if (withAttributes) {
+            markerInfo.setAttributes(attributes.getAll(slot));
+        }
+        return markerInfo;
+    }
+
+    /**
+     * 用选项更新标记，返回变化字段掩码（MarkerInfo.FIELD_*）
+     * 只写回变化的字段；选项不含 attributes 时不读取也不重建属性索引
+     */
+    public int update(int handle, ReadableMap options) {
+        if (options == null) {
+            return 0;
+        }
+        MarkerInfo markerInfo = snapshot(handle, options.hasKey("attributes"));
+        if (markerInfo == null) {
+            return 0;
+        }
+        int changed = markerInfo.updateFromReadableMap(options);
+        return changed != 0 ? update(handle, markerInfo, changed) : 0;
+    }
+
+    /**
+     * 从 source 复制 fields 掩码指定的属性，返回实际变化的字段掩码
+     */
+    public int update(int handle, MarkerInfo source, int fields) {
+        if (!contains(handle)) {
+            return 0;
+        }
+        int slot = handle & SLOT_MASK;
+        int changed = 0;
+
+        if ((fields & MarkerInfo.FIELD_POSITION) != 0
+            && (latitudes[slot] != source.getLatitude() || longitudes[slot] != source.getLongitude())) {
+            latitudes[slot] = source.getLatitude();
+            longitudes[slot] = source.getLongitude();
+            changed |= MarkerInfo.FIELD_POSITION;
+        }
+        if ((fields & MarkerInfo.FIELD_TITLE) != 0 && !equals(strings.get(titles[slot]), source.getTitle())) {
+            titles[slot] = strings.replace(titles[slot], source.getTitle());
+            changed |= MarkerInfo.FIELD_TITLE;
+        }
+        if ((fields & MarkerInfo.FIELD_DESCRIPTION) != 0
+            && !equals(strings.get(descriptions[slot]), source.getDescription())) {
+            descriptions[slot] = strings.replace(descriptions[slot], source.getDescription());
+            changed |= MarkerInfo.FIELD_DESCRIPTION;
+        }
+        if ((fields & MarkerInfo.FIELD_ICON) != 0
+            && (!equals(strings.get(iconUris[slot]), source.getIconUri()) || iconSizes[slot] != source.getIconSize())) {
+            iconUris[slot] = strings.replace(iconUris[slot], source.getIconUri());
+            iconSizes[slot] = source.getIconSize();
+            changed |= MarkerInfo.FIELD_ICON;
+        }
+        if ((fields & MarkerInfo.FIELD_DRAGGABLE) != 0 && setFlag(slot, FLAG_DRAGGABLE, source.isDraggable())) {
+            changed |= MarkerInfo.FIELD_DRAGGABLE;
+        }
+        if ((fields & MarkerInfo.FIELD_VISIBLE) != 0 && setFlag(slot, FLAG_VISIBLE, source.isVisible())) {
+            changed |= MarkerInfo.FIELD_VISIBLE;
+        }
+        if ((fields & MarkerInfo.FIELD_ALPHA) != 0 && alphas[slot] != source.getAlpha()) {
+            alphas[slot] = source.getAlpha();
+            changed |= MarkerInfo.FIELD_ALPHA;
+        }
+        if ((fields & MarkerInfo.FIELD_ROTATION) != 0 && rotations[slot] != source.getRotation()) {
+            rotations[slot] = source.getRotation();
+            changed |= MarkerInfo.FIELD_ROTATION;
+        }
+        if ((fields & MarkerInfo.FIELD_FLAT) != 0 && setFlag(slot, FLAG_FLAT, source.isFlat())) {
+            changed |= MarkerInfo.FIELD_FLAT;
+        }
+        if ((fields & MarkerInfo.FIELD_Z_INDEX) != 0 && zIndexes[slot] != source.getZIndex()) {
+            zIndexes[slot] = source.getZIndex();
+            changed |= MarkerInfo.FIELD_Z_INDEX;
+        }
+        if ((fields & MarkerInfo.FIELD_ATTRIBUTES) != 0) {
+            Map<String, Object> current = attributes.getAll(slot);
+            Map<String, Object> next = source.getAttributes() == null || source.getAttributes().isEmpty()
+                ? null : source.getAttributes();
+            if (current == null ? next != null : !current.equals(next)) {
+                attributes.set(slot, next);
+                changed |= MarkerInfo.FIELD_ATTRIBUTES;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * 设置标志位，返回是否发生变化
+     */
+    private boolean setFlag(int slot, byte flag, boolean value) {
+        boolean current = (flags[slot] & flag) != 0;
+        if (current == value) {
+            return false;
+        }
+        flags[slot] = (byte) (value ? flags[slot] | flag : flags[slot] & ~flag);
+        return true;
+    }
+
+    private static boolean equals(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private void write(int slot, MarkerInfo markerInfo) {
+        latitudes[slot] = markerInfo.getLatitude();
+        longitudes[slot] = markerInfo.getLongitude();
+        alphas[slot] = markerInfo.getAlpha();
+        rotations[slot] = markerInfo.getRotation();
+        iconSizes[slot] = markerInfo.getIconSize();
+        zIndexes[slot] = markerInfo.getZIndex();
+        titles[slot] = strings.replace(titles[slot], markerInfo.getTitle());
+        descriptions[slot] = strings.replace(descriptions[slot], markerInfo.getDescription());
+        iconUris[slot] = strings.replace(iconUris[slot], markerInfo.getIconUri());
+        attributes.set(slot, markerInfo.getAttributes());
+
+        byte value = FLAG_ALIVE;
+        if (markerInfo.isDraggable()) value |= FLAG_DRAGGABLE;
+        if (markerInfo.isVisible()) value |= FLAG_VISIBLE;
+        if (markerInfo.isFlat()) value |= FLAG_FLAT;
+        // 碰撞检测、渲染预算和过滤的状态不属于标记属性，更新时保留
+        flags[slot] = (byte) (value | (flags[slot] & TRANSIENT_FLAGS));
+    }
+
+
+    // 热路径上按句柄直接读取的字段，调用方需保证句柄有效
+    public double getLatitude(int handle) {
+        return latitudes[handle & SLOT_MASK];
+    }
+
+    public double getLongitude(int handle) {
+        return longitudes[handle & SLOT_MASK];
+    }
+
+    public float getRotation(int handle) {
+        return rotations[handle & SLOT_MASK];
+    }
+
+    public boolean isVisible(int handle) {
+        return (flags[handle & SLOT_MASK] & FLAG_VISIBLE) != 0;
+    }
+
+    public int getZIndex(int handle) {
+        return zIndexes[handle & SLOT_MASK];
+    }
+
+    public boolean isDecluttered(int handle) {
+        return (flags[handle & SLOT_MASK] & FLAG_DECLUTTERED) != 0;
+    }
+
+    public void setDecluttered(int handle, boolean decluttered) {
+        setFlag(handle & SLOT_MASK, FLAG_DECLUTTERED, decluttered);
+    }
+
+    public boolean isInBudget(int handle) {
+        return (flags[handle & SLOT_MASK] & FLAG_IN_BUDGET) != 0;
+    }
+
+    public void setInBudget(int handle, boolean inBudget) {
+        setFlag(handle & SLOT_MASK, FLAG_IN_BUDGET, inBudget);
+    }
+
+    public boolean isFilteredOut(int handle) {
+        return (flags[handle & SLOT_MASK] & FLAG_FILTERED_OUT) != 0;
+    }
+
+    /**
+     * 设置是否被过滤隐藏，返回是否发生变化
+     */
+    public boolean setFilteredOut(int handle, boolean filteredOut) {
+        return setFlag(handle & SLOT_MASK, FLAG_FILTERED_OUT, filteredOut);
+    }
+
+    /**
+     * 自定义属性的列式索引，槽位为句柄的低位
+     */
+    public MarkerAttributeIndex getAttributeIndex() {
+        return attributes;
+    }
+
+    /**
+     * 全部存活槽位的位图
+     */
+    public BitSet aliveSlots() {
+        BitSet slots = new BitSet(slotCount);
+        for (int slot = 0; slot < slotCount; slot++) {
+            if ((flags[slot] & FLAG_ALIVE) != 0) {
+                slots.set(slot);
+            }
+        }
+        return slots;
+    }
+
+    public static int slotOf(int handle) {
+        return handle & SLOT_MASK;
+    }
+
+    public String getIconUri(int handle) {
+        return strings.get(iconUris[handle & SLOT_MASK]);
+    }
+
+    public float getIconSize(int handle) {
+        return iconSizes[handle & SLOT_MASK];
+    }
+
+    public void setPosition(int handle, double latitude, double longitude) {
+        int slot = handle & SLOT_MASK;
+        latitudes[slot] = latitude;
+        longitudes[slot] = longitude;
+    }
+
+    public void setRotation(int handle, float rotation) {
+        rotations[handle & SLOT_MASK] = rotation;
+    }
+
+    /**
+     * 标记当前对应的百度标记，未显示时为 null
+     */
+    public Marker getBaiduMarker(int handle) {
+        return contains(handle) ? baiduMarkers.get(handle & SLOT_MASK) : null;
+    }
+
+    public void setBaiduMarker(int handle, Marker baiduMarker) {
+        if (baiduMarker != null) {
+            baiduMarkers.put(handle & SLOT_MASK, baiduMarker);
+        } else {
+            baiduMarkers.remove(handle & SLOT_MASK);
+        }
+    }
+
+    private int handleForSlot(int slot) {
+        return (generations[slot] << SLOT_BITS) | slot;
+    }
+
+    /**
+     * 句柄转换为对外的标记ID
+     */
+    public static String idOf(int handle) {
+        return ID_PREFIX + handle;
+    }
+
+    /**
+     * 标记ID转换为句柄，格式不合法时返回 -1
+     */
+    public static int handleOf(String markerId) {
+        if (markerId == null || !markerId.startsWith(ID_PREFIX)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(markerId.substring(ID_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 带引用计数的字符串池，下标从 1 开始，0 表示 null。引用归零的下标回收复用
+     */
+    private static class StringPool {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private String[] values = new String[16];
+        private int[] refCounts = new int[16];
+        private int[] freeIndexes = new int[16];
+        private int freeCount;
+        private int count = 1;
+
+        String get(int index) {
+            return values[index];
+        }
+
+        /**
+         * 释放 oldIndex 的引用并返回 value 的下标
+         */
+        int replace(int oldIndex, String value) {
+            if (value == null) {
+                return release(oldIndex);
+            }
+            if (oldIndex != 0 && value.equals(values[oldIndex])) {
+                return oldIndex;
+            }
+            release(oldIndex);
+            Integer pooled = indexes.get(value);
+            if (pooled != null) {
+                refCounts[pooled]++;
+                return pooled;
+            }
+            int index;
+            if (freeCount > 0) {
+                index = freeIndexes[--freeCount];
+            } else {
+                if (count == values.length) {
+                    values = Arrays.copyOf(values, count * 2);
+                    refCounts = Arrays.copyOf(refCounts, count * 2);
+                }
+                index = count++;
+            }
+            values[index] = value;
+            refCounts[index] = 1;
+            indexes.put(value, index);
+            return index;
+        }
+
+        /**
+         * 释放一个引用，始终返回 0，方便调用方直接写回
+         */
+        int release(int index) {
+            if (index != 0 && --refCounts[index] == 0) {
+                indexes.remove(values[index]);
+                values[index] = null;
+                if (freeCount == freeIndexes.length) {
+                    freeIndexes = Arrays.copyOf(freeIndexes, freeCount * 2);
+                }
+                freeIndexes[freeCount++] = index;
+            }
+            return 0;
+        }
+
+        void clear() {
+            indexes.clear();
+            Arrays.fill(values, null);
+            Arrays.fill(refCounts, 0);
+            freeCount = 0;
+            count = 1;
+        }
+    }
+}
@@ -13,6 +13,8 @@ import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.uimanager.events.RCTEventEmitter;
 
+import java.util.Map;
+
 public class MarkerView extends View {
     private static final String TAG = "BaiduMarkerView";
     
@@ -20,21 +22,11 @@ public class MarkerView extends View {
     private String markerId;
     private BaiduMapView parentMapView;
     
-    // 标记属性
-    private double latitude = 0.0;
-    private double longitude = 0.0;
-    private String title;
-    private String description;
-    private String iconUri;
-    private boolean draggable = false;
-    private boolean visible = true;
-    private float alpha = 1.0f;
-    private float rotation = 0.0f;
-    private boolean flat = false;
-    private int zIndex = 0;
+    // 标记属性，直接作为类型化更新的数据源传给 MarkerManager
+    private final MarkerInfo props = new MarkerInfo(null);
     
     // 状态标记
-    private boolean needsUpdate = false;
+    private int dirtyFields = 0; // MarkerInfo.FIELD_* 掩码
     private boolean isAddedToMap = false;
 
     public MarkerView(@NonNull Context context) {
@@ -84,8 +76,7 @@ public class MarkerView extends View {
     private void addToMap() {
         if (parentMapView != null && !isAddedToMap) {
             try {
-                ReadableMap markerOptions = createMarkerOptions();
-                markerId = parentMapView.addMarker(markerOptions);
+                markerId = parentMapView.addMarker(props);
                 
                 if (markerId != null) {
                     isAddedToMap = true;
@@ -121,139 +112,115 @@ public class MarkerView extends View {
     }
 
     /**
-     * 更新地图上的标记
+     * 更新地图上的标记，只复制变化的属性（MarkerInfo.FIELD_* 掩码）
      */
-    private void updateOnMap() {
+    private void updateOnMap(int fields) {
         if (parentMapView != null && isAddedToMap && markerId != null) {
             try {
-                ReadableMap markerOptions = createMarkerOptions();
-                boolean updated = parentMapView.updateMarker(markerId, markerOptions);
-                
-                if (updated) {
-                    Log.d(TAG, "Marker updated on map: " + markerId);
-                } else {
+                if (!parentMapView.updateMarker(markerId, props, fields)) {
                     Log.w(TAG, "Failed to update marker on map: " + markerId);
                 }
-                
             } catch (Exception e) {
                 Log.e(TAG, "Error updating marker on map", e);
             }
         }
     }
 
-    /**
-     * 创建标记选项
-     */
-    private ReadableMap createMarkerOptions() {
-        WritableMap options = Arguments.createMap();
-        
-        // 坐标
-        WritableMap coordinate = Arguments.createMap();
-        coordinate.putDouble("latitude", latitude);
-        coordinate.putDouble("longitude", longitude);
-        options.putMap("coordinate", coordinate);
-        
-        // 其他属性
-        if (title != null) {
-            options.putString("title", title);
-        }
-        if (description != null) {
-            options.putString("description", description);
-        }
-        if (iconUri != null) {
-            options.putString("icon", iconUri);
-        }
-        
-        options.putBoolean("draggable", draggable);
-        options.putBoolean("visible", visible);
-        options.putDouble("alpha", alpha);
-        options.putDouble("rotation", rotation);
-        options.putBoolean("flat", flat);
-        options.putInt("zIndex", zIndex);
-        
-        return options;
-    }
-
     /**
      * 属性更新后的处理
      */
     public void onAfterUpdateTransaction() {
-        if (needsUpdate) {
-            updateOnMap();
-            needsUpdate = false;
+        if (dirtyFields != 0) {
+            updateOnMap(dirtyFields);
+            dirtyFields = 0;
         }
     }
 
     // 属性设置方法
     public void setCoordinate(double latitude, double longitude) {
-        if (this.latitude != latitude || this.longitude != longitude) {
-            this.latitude = latitude;
-            this.longitude = longitude;
-            needsUpdate = true;
+        if (props.getLatitude() != latitude || props.getLongitude() != longitude) {
+            props.setLatitude(latitude);
+            props.setLongitude(longitude);
+            dirtyFields |= MarkerInfo.FIELD_POSITION;
         }
     }
 
     public void setTitle(String title) {
-        if (!equals(this.title, title)) {
-            this.title = title;
-            needsUpdate = true;
+        if (!equals(props.getTitle(), title)) {
+            props.setTitle(title);
+            dirtyFields |= MarkerInfo.FIELD_TITLE;
         }
     }
 
     public void setDescription(String description) {
-        if (!equals(this.description, description)) {
-            this.description = description;
-            needsUpdate = true;
+        if (!equals(props.getDescription(), description)) {
+            props.setDescription(description);
+            dirtyFields |= MarkerInfo.FIELD_DESCRIPTION;
         }
     }
 
     public void setIcon(String iconUri) {
-        if (!equals(this.iconUri, iconUri)) {
-            this.iconUri = iconUri;
-            needsUpdate = true;
+        if (!equals(props.getIconUri(), iconUri)) {
+            props.setIconUri(iconUri);
+            dirtyFields |= MarkerInfo.FIELD_ICON;
+        }
+    }
+
+    public void setIconSize(float iconSize) {
+        if (props.getIconSize() != iconSize) {
+            props.setIconSize(iconSize);
+            dirtyFields |= MarkerInfo.FIELD_ICON;
         }
     }
 
     public void setDraggable(boolean draggable) {
-        if (this.draggable != draggable) {
-            this.draggable = draggable;
-            needsUpdate = true;
+        if (props.isDraggable() != draggable) {
+            props.setDraggable(draggable);
+            dirtyFields |= MarkerInfo.FIELD_DRAGGABLE;
         }
     }
 
     public void setVisible(boolean visible) {
-        if (this.visible != visible) {
-            this.visible = visible;
-            needsUpdate = true;
+        if (props.isVisible() != visible) {
+            props.setVisible(visible);
+            dirtyFields |= MarkerInfo.FIELD_VISIBLE;
         }
     }
 
     public void setAlpha(float alpha) {
         alpha = Math.max(0.0f, Math.min(1.0f, alpha));
-        if (this.alpha != alpha) {
-            this.alpha = alpha;
-            needsUpdate = true;
+        if (props.getAlpha() != alpha) {
+            props.setAlpha(alpha);
+            dirtyFields |= MarkerInfo.FIELD_ALPHA;
         }
     }
 
     public void setRotation(float rotation) {
-        if (this.rotation != rotation) {
-            this.rotation = rotation;
-            needsUpdate = true;
+        if (props.getRotation() != rotation) {
+            props.setRotation(rotation);
+            dirtyFields |= MarkerInfo.FIELD_ROTATION;
         }
     }
 
     public void setFlat(boolean flat) {
-        if (this.flat != flat) {
-            this.flat = flat;
-            needsUpdate = true;
+        if (props.isFlat() != flat) {
+            props.setFlat(flat);
+            dirtyFields |= MarkerInfo.FIELD_FLAT;
         }
     }
 
     public void setZIndex(int zIndex) {
-        if (this.zIndex != zIndex) {
-            this.zIndex = zIndex;
-            needsUpdate = true;
+        if (props.getZIndex() != zIndex) {
+            props.setZIndex(zIndex);
+            dirtyFields |= MarkerInfo.FIELD_Z_INDEX;
+        }
+    }
+
+    public void setAttributes(ReadableMap attributes) {
+        Map<String, Object> newAttributes = MarkerInfo.parseAttributes(attributes);
+        if (!equals(props.getAttributes(), newAttributes)) {
+            props.setAttributes(newAttributes);
+            dirtyFields |= MarkerInfo.FIELD_ATTRIBUTES;
         }
     }
 
@@ -263,8 +230,8 @@ public class MarkerView extends View {
         event.putString("markerId", markerId);
         
         WritableMap coordinate = Arguments.createMap();
-        coordinate.putDouble("latitude", latitude);
-        coordinate.putDouble("longitude", longitude);
+        coordinate.putDouble("latitude", props.getLatitude());
+        coordinate.putDouble("longitude", props.getLongitude());
         event.putMap("coordinate", coordinate);
         
         reactContext.getJSModule(RCTEventEmitter.class)
@@ -295,47 +262,47 @@ public class MarkerView extends View {
     }
 
     public double getLatitude() {
-        return latitude;
+        return props.getLatitude();
     }
 
     public double getLongitude() {
-        return longitude;
+        return props.getLongitude();
     }
 
     public String getTitle() {
-        return title;
+        return props.getTitle();
     }
 
     public String getDescription() {
-        return description;
+        return props.getDescription();
     }
 
     public String getIconUri() {
-        return iconUri;
+        return props.getIconUri();
     }
 
     public boolean isDraggable() {
-        return draggable;
+        return props.isDraggable();
     }
 
     public boolean isVisible() {
-        return visible;
+        return props.isVisible();
     }
 
     public float getAlpha() {
-        return alpha;
+        return props.getAlpha();
     }
 
     public float getRotation() {
-        return rotation;
+        return props.getRotation();
     }
 
     public boolean isFlat() {
-        return flat;
+        return props.isFlat();
     }
 
     public int getZIndex() {
-        return zIndex;
+        return props.getZIndex();
     }
 
     public void onDestroy() {
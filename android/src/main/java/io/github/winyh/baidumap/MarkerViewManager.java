@@ -57,6 +57,11 @@ public class MarkerViewManager extends SimpleViewManager<MarkerView> {
         view.setIcon(icon);
     }
 
+    @ReactProp(name = "iconSize")
+    public void setIconSize(MarkerView view, float iconSize) {
+        view.setIconSize(iconSize);
+    }
+
     @ReactProp(name = "draggable")
     public void setDraggable(MarkerView view, boolean draggable) {
         view.setDraggable(draggable);
@@ -87,6 +92,11 @@ public class MarkerViewManager extends SimpleViewManager<MarkerView> {
         view.setZIndex(zIndex);
     }
 
+    @ReactProp(name = "attributes")
+    public void setAttributes(MarkerView view, @Nullable ReadableMap attributes) {
+        view.setAttributes(attributes);
+    }
+
     @Override
     public void onDropViewInstance(@NonNull MarkerView view) {
         view.onDestroy();
@@ -3,33 +3,38 @@ package io.github.winyh.baidumap;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class OverlayInfo {
+    private static final int[] EMPTY_PATTERN = new int[0];
+
     private String overlayId;
     private String type; // "polyline", "polygon", "circle"
-    private List<CoordinateInfo> coordinates;
+    private CoordinateBuffer coordinates; // 折线、多边形的坐标，百度地图的 LatLng 列表按需生成
     private CoordinateInfo center; // 用于圆形
     private int radius; // 用于圆形
     private String strokeColor;
     private int strokeWidth;
     private String fillColor;
-    private List<Integer> strokePattern;
+    private int[] strokePattern;
     private boolean visible;
     private int zIndex;
+    private float simplificationTolerance; // 折线简化容差（像素），0 表示不简化
+    private int maxPoints; // 折线最多保留的点数，超出时丢弃最早的点，0 表示不限制
+    private int encodedPrecision; // 编码折线的精度，后续更新未指定时沿用
 
     public OverlayInfo(String overlayId, String type, ReadableMap options) {
         this.overlayId = overlayId;
         this.type = type;
-        this.coordinates = new ArrayList<>();
+        this.coordinates = new CoordinateBuffer();
         this.strokeColor = "#0000FF"; // 默认蓝色
         this.strokeWidth = 5;
         this.fillColor = "#800000FF"; // 默认半透明蓝色
-        this.strokePattern = new ArrayList<>();
+        this.strokePattern = EMPTY_PATTERN;
         this.visible = true;
         this.zIndex = 0;
         this.radius = 100; // 默认半径
+        this.simplificationTolerance = PolylineLod.DEFAULT_TOLERANCE_PX;
+        this.maxPoints = 0;
+        this.encodedPrecision = CoordinateDecoder.DEFAULT_ENCODED_PRECISION;
         
         updateFromReadableMap(options);
     }
@@ -37,10 +42,14 @@ public class OverlayInfo {
     public void updateFromReadableMap(ReadableMap options) {
         if (options == null) return;
 
-        // 坐标信息
+        // 编码折线精度
+        if (options.hasKey("encodedPrecision")) {
+            this.encodedPrecision = options.getInt("encodedPrecision");
+        }
+
+        // 坐标信息：对象数组、扁平数字数组或编码折线字符串
         if (options.hasKey("coordinates")) {
-            ReadableArray coordArray = options.getArray("coordinates");
-            parseCoordinates(coordArray);
+            this.coordinates = CoordinateDecoder.decode(options, "coordinates", encodedPrecision);
         }
 
         // 圆形中心点
@@ -89,36 +98,45 @@ public class OverlayInfo {
         if (options.hasKey("zIndex")) {
             this.zIndex = options.getInt("zIndex");
         }
+
+        // 折线简化容差
+        if (options.hasKey("simplificationTolerance")) {
+            this.simplificationTolerance = Math.max(0f, (float) options.getDouble("simplificationTolerance"));
+        }
+
+        // 折线最大点数
+        if (options.hasKey("maxPoints")) {
+            this.maxPoints = Math.max(0, options.getInt("maxPoints"));
+        }
     }
 
     /**
-     * 解析坐标数组
+     * 复制另一个覆盖物的样式，用于批量添加时的共享样式；颜色字符串和虚线数组直接共用
      */
-    private void parseCoordinates(ReadableArray coordArray) {
-        coordinates.clear();
-        
-        if (coordArray != null) {
-            for (int i = 0; i < coordArray.size(); i++) {
-                ReadableMap coord = coordArray.getMap(i);
-                if (coord != null && coord.hasKey("latitude") && coord.hasKey("longitude")) {
-                    double lat = coord.getDouble("latitude");
-                    double lng = coord.getDouble("longitude");
-                    coordinates.add(new CoordinateInfo(lat, lng));
-                }
-            }
-        }
+    void copyStyleFrom(OverlayInfo other) {
+        this.strokeColor = other.strokeColor;
+        this.strokeWidth = other.strokeWidth;
+        this.fillColor = other.fillColor;
+        this.strokePattern = other.strokePattern;
+        this.visible = other.visible;
+        this.zIndex = other.zIndex;
+        this.simplificationTolerance = other.simplificationTolerance;
+        this.maxPoints = other.maxPoints;
+        this.encodedPrecision = other.encodedPrecision;
     }
 
     /**
      * 解析虚线样式
      */
     private void parseStrokePattern(ReadableArray patternArray) {
-        strokePattern.clear();
+        if (patternArray == null || patternArray.size() == 0) {
+            strokePattern = EMPTY_PATTERN;
+            return;
+        }
         
-        if (patternArray != null) {
-            for (int i = 0; i < patternArray.size(); i++) {
-                strokePattern.add(patternArray.getInt(i));
-            }
+        strokePattern = new int[patternArray.size()];
+        for (int i = 0; i < strokePattern.length; i++) {
+            strokePattern[i] = patternArray.getInt(i);
         }
     }
 
@@ -131,11 +149,11 @@ public class OverlayInfo {
         return type;
     }
 
-    public List<CoordinateInfo> getCoordinates() {
+    public CoordinateBuffer getCoordinates() {
         return coordinates;
     }
 
-    public void setCoordinates(List<CoordinateInfo> coordinates) {
+    public void setCoordinates(CoordinateBuffer coordinates) {
         this.coordinates = coordinates;
     }
 
@@ -179,12 +197,12 @@ public class OverlayInfo {
         this.fillColor = fillColor;
     }
 
-    public List<Integer> getStrokePattern() {
+    public int[] getStrokePattern() {
         return strokePattern;
     }
 
-    public void setStrokePattern(List<Integer> strokePattern) {
-        this.strokePattern = strokePattern;
+    public void setStrokePattern(int[] strokePattern) {
+        this.strokePattern = strokePattern != null ? strokePattern : EMPTY_PATTERN;
     }
 
     public boolean isVisible() {
@@ -203,6 +221,30 @@ public class OverlayInfo {
         this.zIndex = zIndex;
     }
 
+    public float getSimplificationTolerance() {
+        return simplificationTolerance;
+    }
+
+    public void setSimplificationTolerance(float simplificationTolerance) {
+        this.simplificationTolerance = Math.max(0f, simplificationTolerance);
+    }
+
+    public int getMaxPoints() {
+        return maxPoints;
+    }
+
+    public void setMaxPoints(int maxPoints) {
+        this.maxPoints = Math.max(0, maxPoints);
+    }
+
+    public int getEncodedPrecision() {
+        return encodedPrecision;
+    }
+
+    public void setEncodedPrecision(int encodedPrecision) {
+        this.encodedPrecision = encodedPrecision;
+    }
+
     /**
      * 坐标信息类
      */
@@ -245,7 +287,7 @@ public class OverlayInfo {
         return "OverlayInfo{" +
                 "overlayId='" + overlayId + '\'' +
                 ", type='" + type + '\'' +
-                ", coordinates=" + coordinates.size() +
+                ", points=" + coordinates.size() +
                 ", center=" + center +
                 ", radius=" + radius +
                 ", strokeColor='" + strokeColor + '\'' +
@@ -1,11 +1,14 @@
 package io.github.winyh.baidumap;
 
 import android.graphics.Color;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 
 import com.baidu.mapapi.map.BaiduMap;
 import com.baidu.mapapi.map.Circle;
 import com.baidu.mapapi.map.CircleOptions;
+import com.baidu.mapapi.map.MapStatus;
 import com.baidu.mapapi.map.Overlay;
 import com.baidu.mapapi.map.OverlayOptions;
 import com.baidu.mapapi.map.Polygon;
@@ -22,9 +25,14 @@ import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.WritableMap;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class OverlayManager {
@@ -40,6 +48,40 @@ public class OverlayManager {
     // 百度地图相关对象
     private BaiduMap baiduMap;
     private Map<String, Overlay> baiduOverlays = new HashMap<>();
+    
+    // 折线多级简化：点数超过阈值的折线在后台构建 LOD，地图停止移动后切换到对应级别
+    private static final int LOD_MIN_POINTS = 500;
+    // LOD 构建完成前使用的抽稀点数
+    private static final int LOD_INITIAL_MAX_POINTS = 2000;
+    private Map<String, PolylineLod> polylineLods = new HashMap<>();
+    private Map<String, int[]> appliedPolylineLevels = new HashMap<>();
+    private Map<String, Integer> pendingLodRequests = new HashMap<>();
+    private int lodRequestCounter = 0;
+    // 后台线程：构建 LOD
+    private ExecutorService backgroundExecutor;
+    // 解析批量添加的覆盖物，与 LOD 构建分开，互不阻塞
+    private ExecutorService batchExecutor;
+    // 增量更新的折线：LOD 过期后按固定间隔重新构建，期间显示旧级别（去掉已裁剪的头部）加上新追加的点
+    private static final long LOD_REBUILD_INTERVAL_MS = 3000;
+    private Map<String, Integer> trimmedPointCounts = new HashMap<>();
+    private Map<String, Integer> lodTrimBases = new HashMap<>();
+    private Set<String> staleLods = new HashSet<>();
+    private boolean lodRebuildScheduled = false;
+    private Handler mainHandler = new Handler(Looper.getMainLooper());
+    private boolean destroyed = false;
+    // 删除全部覆盖物时递增，丢弃之前提交、尚未完成的批量添加
+    private int overlayEpoch = 0;
+    // 超过该数量的批量添加交给 FrameScheduler 按帧分片提交
+    private static final int SYNC_BATCH_LIMIT = 200;
+    private static final int BATCH_CHUNK_SIZE = 100;
+    private Set<PendingBatch> pendingBatches = new HashSet<>();
+
+    /**
+     * 批量添加完成回调，ID 与输入顺序一致，无效的条目为 null
+     */
+    public interface BatchCallback {
+        void onOverlaysAdded(List<String> overlayIds);
+    }
 
     public OverlayManager(ReactContext reactContext, BaiduMapView mapView) {
         this.reactContext = reactContext;
@@ -57,30 +99,36 @@ public class OverlayManager {
             
             Log.d(TAG, "Adding polyline: " + overlayId);
             
-            List<LatLng> points = parseCoordinates(polylineOptions.getArray("coordinates"));
+            CoordinateBuffer points = overlayInfo.getCoordinates();
+            int maxPoints = overlayInfo.getMaxPoints();
+            if (maxPoints > 0 && points.size() > maxPoints) {
+                trimHead(overlayId, points, points.size() - maxPoints);
+            }
             if (points.size() < 2) {
                 Log.w(TAG, "Polyline requires at least 2 points");
                 return null;
             }
             
+            // 点数较多时先用抽稀结果显示，后台构建 LOD
+            boolean useLod = shouldUseLod(points, overlayInfo);
             PolylineOptions options = new PolylineOptions()
-                .points(points)
+                .points(useLod ? PolylineLod.decimate(points, LOD_INITIAL_MAX_POINTS) : points.toLatLngList())
                 .width(getStrokeWidth(polylineOptions))
                 .color(getStrokeColor(polylineOptions));
             
             // 设置虚线样式
-            if (polylineOptions.hasKey("strokePattern")) {
-                List<Integer> pattern = parseStrokePattern(polylineOptions.getArray("strokePattern"));
-                if (!pattern.isEmpty()) {
-                    options.dottedLine(true);
-                    // 百度地图的虚线样式设置
-                }
+            if (overlayInfo.getStrokePattern().length > 0) {
+                options.dottedLine(true);
+                // 百度地图的虚线样式设置
             }
             
             Polyline polyline = (Polyline) baiduMap.addOverlay(options);
             baiduOverlays.put(overlayId, polyline);
             
             overlays.put(overlayId, overlayInfo);
+            if (useLod) {
+                buildPolylineLod(overlayId, points, overlayInfo.getSimplificationTolerance());
+            }
             
             Log.d(TAG, "Polyline added successfully: " + overlayId);
             return overlayId;
@@ -101,14 +149,14 @@ public class OverlayManager {
             
             Log.d(TAG, "Adding polygon: " + overlayId);
             
-            List<LatLng> points = parseCoordinates(polygonOptions.getArray("coordinates"));
+            CoordinateBuffer points = overlayInfo.getCoordinates();
             if (points.size() < 3) {
                 Log.w(TAG, "Polygon requires at least 3 points");
                 return null;
             }
             
             PolygonOptions options = new PolygonOptions()
-                .points(points)
+                .points(points.toLatLngList())
                 .stroke(new Stroke(getStrokeWidth(polygonOptions), getStrokeColor(polygonOptions)))
                 .fillColor(getFillColor(polygonOptions));
             
@@ -169,6 +217,246 @@ public class OverlayManager {
         }
     }
 
+    /**
+     * 批量添加覆盖物
+     * 每项包含 type（polyline / polygon / circle）和几何信息，未指定的样式使用 sharedStyle。
+     * 解析和构建 OverlayOptions 在后台线程进行，同一批次中相同的颜色只解析一次、相同的边框共用一个 Stroke，
+     * 最后回到主线程通过 addOverlays 提交，数量较多时按帧分片提交。返回 false 表示已销毁
+     */
+    public boolean addOverlays(ReadableArray items, ReadableMap sharedStyle, BatchCallback callback) {
+        if (destroyed) {
+            return false;
+        }
+        final int epoch = overlayEpoch;
+        
+        getBatchExecutor().execute(() -> {
+            long start = System.currentTimeMillis();
+            int count = items.size();
+            List<String> overlayIds = new ArrayList<>(count);
+            IntArrayList positions = new IntArrayList(count);
+            List<OverlayInfo> infos = new ArrayList<>(count);
+            List<OverlayOptions> options = new ArrayList<>(count);
+            BatchStyle style = new BatchStyle();
+            OverlayInfo template = new OverlayInfo(null, null, sharedStyle);
+            
+            for (int i = 0; i < count; i++) {
+                OverlayInfo overlayInfo = null;
+                OverlayOptions overlayOptions = null;
+                try {
+                    ReadableMap item = items.getMap(i);
+                    String type = item != null && item.hasKey("type") ? item.getString("type") : null;
+                    if (type != null) {
+                        overlayInfo = new OverlayInfo(generateOverlayId(type), type, null);
+                        overlayInfo.copyStyleFrom(template);
+                        overlayInfo.updateFromReadableMap(item);
+                        overlayOptions = buildBatchOptions(overlayInfo, style);
+                    }
+                } catch (Exception e) {
+                    Log.w(TAG, "Invalid overlay at index " + i, e);
+                }
+                if (overlayOptions != null) {
+                    positions.add(i);
+                    overlayIds.add(overlayInfo.getOverlayId());
+                    infos.add(overlayInfo);
+                    options.add(overlayOptions);
+                } else {
+                    overlayIds.add(null);
+                }
+            }
+            long elapsed = System.currentTimeMillis() - start;
+            
+            mainHandler.post(() -> {
+                if (destroyed || epoch != overlayEpoch) {
+                    callback.onOverlaysAdded(new ArrayList<>(Collections.nCopies(count, (String) null)));
+                    return;
+                }
+                Log.d(TAG, "Prepared " + infos.size() + "/" + count + " overlays in " + elapsed + "ms");
+                commitBatch(new PendingBatch(overlayIds, positions, infos, options, callback));
+            });
+        });
+        return true;
+    }
+
+    /**
+     * 提交已解析的批次：数量较少或调度器不可用时一次提交，否则拆成分片交给 FrameScheduler
+     */
+    private void commitBatch(PendingBatch batch) {
+        int total = batch.options.size();
+        FrameScheduler scheduler = mapView.getFrameScheduler();
+        if (total <= SYNC_BATCH_LIMIT || scheduler == null) {
+            addBatchChunk(batch, 0, total);
+            batch.callback.onOverlaysAdded(batch.overlayIds);
+            return;
+        }
+
+        pendingBatches.add(batch);
+        batch.remainingChunks = (total + BATCH_CHUNK_SIZE - 1) / BATCH_CHUNK_SIZE;
+        for (int start = 0; start < total; start += BATCH_CHUNK_SIZE) {
+            final int from = start;
+            final int to = Math.min(total, start + BATCH_CHUNK_SIZE);
+            scheduler.post(() -> {
+                // 排队期间已删除全部覆盖物或已销毁
+                if (!pendingBatches.contains(batch)) {
+                    return;
+                }
+                addBatchChunk(batch, from, to);
+                if (--batch.remainingChunks == 0) {
+                    pendingBatches.remove(batch);
+                    batch.callback.onOverlaysAdded(batch.overlayIds);
+                }
+            }, false);
+        }
+    }
+
+    /**
+     * 通过一次 addOverlays 提交批次中 [from, to) 范围的覆盖物并登记，未创建成功的 ID 置为 null
+     */
+    private void addBatchChunk(PendingBatch batch, int from, int to) {
+        int registered = from;
+        try {
+            List<Overlay> created = baiduMap.addOverlays(batch.options.subList(from, to));
+            int createdCount = created != null ? created.size() : 0;
+            for (; registered < to && registered - from < createdCount; registered++) {
+                Overlay overlay = created.get(registered - from);
+                if (overlay == null) {
+                    batch.overlayIds.set(batch.positions.get(registered), null);
+                    continue;
+                }
+                OverlayInfo overlayInfo = batch.infos.get(registered);
+                String overlayId = overlayInfo.getOverlayId();
+                baiduOverlays.put(overlayId, overlay);
+                overlays.put(overlayId, overlayInfo);
+                if ("polyline".equals(overlayInfo.getType())
+                    && shouldUseLod(overlayInfo.getCoordinates(), overlayInfo)) {
+                    buildPolylineLod(overlayId, overlayInfo.getCoordinates(), overlayInfo.getSimplificationTolerance());
+                }
+            }
+            if (registered < to) {
+                Log.w(TAG, "addOverlays created " + createdCount + " of " + (to - from) + " overlays");
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to add overlays", e);
+        }
+        // 地图返回的覆盖物少于提交数量或提交失败时，其余条目没有登记
+        for (int i = registered; i < to; i++) {
+            batch.overlayIds.set(batch.positions.get(i), null);
+        }
+    }
+
+    /**
+     * 放弃分片提交中的批次，已提交的部分由调用方删除，回调全部返回 null
+     */
+    private void cancelPendingBatches() {
+        List<PendingBatch> batches = new ArrayList<>(pendingBatches);
+        pendingBatches.clear();
+        for (PendingBatch batch : batches) {
+            batch.callback.onOverlaysAdded(new ArrayList<>(Collections.nCopies(batch.overlayIds.size(), (String) null)));
+        }
+    }
+
+    /**
+     * 已解析、等待提交的批量添加
+     */
+    private static class PendingBatch {
+        final List<String> overlayIds;
+        // infos 中每项在 overlayIds 中的位置
+        final IntArrayList positions;
+        final List<OverlayInfo> infos;
+        final List<OverlayOptions> options;
+        final BatchCallback callback;
+        int remainingChunks;
+
+        PendingBatch(List<String> overlayIds, IntArrayList positions, List<OverlayInfo> infos,
+                     List<OverlayOptions> options, BatchCallback callback) {
+            this.overlayIds = overlayIds;
+            this.positions = positions;
+            this.infos = infos;
+            this.options = options;
+            this.callback = callback;
+        }
+    }
+
+    /**
+     * 按合并后的样式构建单个覆盖物的 OverlayOptions，几何信息无效时返回 null
+     */
+    private OverlayOptions buildBatchOptions(OverlayInfo overlayInfo, BatchStyle style) {
+        int strokeColor = style.color(overlayInfo.getStrokeColor());
+        switch (overlayInfo.getType()) {
+            case "polyline": {
+                CoordinateBuffer points = overlayInfo.getCoordinates();
+                int maxPoints = overlayInfo.getMaxPoints();
+                if (maxPoints > 0 && points.size() > maxPoints) {
+                    points.trimHead(points.size() - maxPoints);
+                }
+                if (points.size() < 2) {
+                    return null;
+                }
+                boolean useLod = shouldUseLod(points, overlayInfo);
+                return new PolylineOptions()
+                    .points(useLod ? PolylineLod.decimate(points, LOD_INITIAL_MAX_POINTS) : points.toLatLngList())
+                    .width(overlayInfo.getStrokeWidth())
+                    .color(strokeColor)
+                    .dottedLine(overlayInfo.getStrokePattern().length > 0)
+                    .visible(overlayInfo.isVisible())
+                    .zIndex(overlayInfo.getZIndex());
+            }
+            case "polygon": {
+                CoordinateBuffer points = overlayInfo.getCoordinates();
+                if (points.size() < 3) {
+                    return null;
+                }
+                return new PolygonOptions()
+                    .points(points.toLatLngList())
+                    .stroke(style.stroke(overlayInfo.getStrokeWidth(), strokeColor))
+                    .fillColor(style.color(overlayInfo.getFillColor()))
+                    .visible(overlayInfo.isVisible())
+                    .zIndex(overlayInfo.getZIndex());
+            }
+            case "circle": {
+                OverlayInfo.CoordinateInfo center = overlayInfo.getCenter();
+                if (center == null) {
+                    return null;
+                }
+                return new CircleOptions()
+                    .center(new LatLng(center.getLatitude(), center.getLongitude()))
+                    .radius(overlayInfo.getRadius())
+                    .stroke(style.stroke(overlayInfo.getStrokeWidth(), strokeColor))
+                    .fillColor(style.color(overlayInfo.getFillColor()))
+                    .visible(overlayInfo.isVisible())
+                    .zIndex(overlayInfo.getZIndex());
+            }
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 批量添加时的样式缓存，只在一个批次内使用
+     */
+    private class BatchStyle {
+        private final Map<String, Integer> colors = new HashMap<>();
+        private final Map<Long, Stroke> strokes = new HashMap<>();
+
+        int color(String value) {
+            Integer color = colors.get(value);
+            if (color == null) {
+                color = parseColor(value);
+                colors.put(value, color);
+            }
+            return color;
+        }
+
+        Stroke stroke(int width, int color) {
+            long key = ((long) width << 32) | (color & 0xffffffffL);
+            Stroke stroke = strokes.get(key);
+            if (stroke == null) {
+                stroke = new Stroke(width, color);
+                strokes.put(key, stroke);
+            }
+            return stroke;
+        }
+    }
+
     /**
      * 更新覆盖物
      */
@@ -192,13 +480,13 @@ public class OverlayManager {
                 String type = overlayInfo.getType();
                 switch (type) {
                     case "polyline":
-                        updatePolyline((Polyline) baiduOverlay, options);
+                        updatePolyline(overlayId, (Polyline) baiduOverlay, overlayInfo, options);
                         break;
                     case "polygon":
-                        updatePolygon((Polygon) baiduOverlay, options);
+                        updatePolygon((Polygon) baiduOverlay, overlayInfo, options);
                         break;
                     case "circle":
-                        updateCircle((Circle) baiduOverlay, options);
+                        updateCircle((Circle) baiduOverlay, overlayInfo, options);
                         break;
                 }
             }
@@ -233,6 +521,8 @@ public class OverlayManager {
             }
             
             overlays.remove(overlayId);
+            clearPolylineLod(overlayId);
+            trimmedPointCounts.remove(overlayId);
             
             Log.d(TAG, "Overlay removed successfully: " + overlayId);
             return true;
@@ -257,6 +547,14 @@ public class OverlayManager {
             baiduOverlays.clear();
             
             overlays.clear();
+            overlayEpoch++;
+            cancelPendingBatches();
+            polylineLods.clear();
+            appliedPolylineLevels.clear();
+            pendingLodRequests.clear();
+            trimmedPointCounts.clear();
+            lodTrimBases.clear();
+            staleLods.clear();
             
             Log.d(TAG, "All overlays removed successfully");
             
@@ -266,40 +564,319 @@ public class OverlayManager {
     }
 
     /**
-     * 解析坐标数组
+     * 向折线末尾追加坐标，只需传输新增的点；设置了 maxPoints 时丢弃最早的点
+     * 返回追加后的点数，折线不存在时返回 -1
      */
-    private List<LatLng> parseCoordinates(ReadableArray coordinates) {
-        List<LatLng> points = new ArrayList<>();
-        
-        if (coordinates != null) {
-            for (int i = 0; i < coordinates.size(); i++) {
-                ReadableMap coord = coordinates.getMap(i);
-                if (coord != null && coord.hasKey("latitude") && coord.hasKey("longitude")) {
-                    double lat = coord.getDouble("latitude");
-                    double lng = coord.getDouble("longitude");
-                    points.add(new LatLng(lat, lng));
-                }
+    public int appendPolylinePoints(String overlayId, CoordinateBuffer newPoints) {
+        try {
+            OverlayInfo overlayInfo = overlays.get(overlayId);
+            Overlay overlay = baiduOverlays.get(overlayId);
+            if (overlayInfo == null || !(overlay instanceof Polyline)) {
+                Log.w(TAG, "Polyline not found for append: " + overlayId);
+                return -1;
             }
+            
+            CoordinateBuffer points = overlayInfo.getCoordinates();
+            if (newPoints.isEmpty()) {
+                return points.size();
+            }
+            points.addAll(newPoints);
+            int maxPoints = overlayInfo.getMaxPoints();
+            if (maxPoints > 0 && points.size() > maxPoints) {
+                trimHead(overlayId, points, points.size() - maxPoints);
+            }
+            refreshPolylinePoints(overlayId, (Polyline) overlay, overlayInfo);
+            return points.size();
+            
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to append polyline points: " + overlayId, e);
+            return -1;
         }
-        
-        return points;
     }
 
     /**
-     * 解析虚线样式
+     * 删除折线开头的 count 个坐标
+     * 返回删除后的点数，折线不存在时返回 -1
+     */
+    public int trimPolylineHead(String overlayId, int count) {
+        try {
+            OverlayInfo overlayInfo = overlays.get(overlayId);
+            Overlay overlay = baiduOverlays.get(overlayId);
+            if (overlayInfo == null || !(overlay instanceof Polyline)) {
+                Log.w(TAG, "Polyline not found for trim: " + overlayId);
+                return -1;
+            }
+            
+            CoordinateBuffer points = overlayInfo.getCoordinates();
+            int trimCount = Math.min(count, points.size());
+            if (trimCount <= 0) {
+                return points.size();
+            }
+            trimHead(overlayId, points, trimCount);
+            refreshPolylinePoints(overlayId, (Polyline) overlay, overlayInfo);
+            return points.size();
+            
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to trim polyline: " + overlayId, e);
+            return -1;
+        }
+    }
+
+    private void trimHead(String overlayId, CoordinateBuffer points, int count) {
+        points.trimHead(count);
+        trimmedPointCounts.put(overlayId, getTrimmedCount(overlayId) + count);
+    }
+
+    private int getTrimmedCount(String overlayId) {
+        Integer count = trimmedPointCounts.get(overlayId);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * 坐标变化后刷新折线显示
+     * 已有 LOD 时沿用旧级别并接上新追加的点，LOD 标记为过期，稍后在后台重新构建
      */
-    private List<Integer> parseStrokePattern(ReadableArray pattern) {
-        List<Integer> result = new ArrayList<>();
+    private void refreshPolylinePoints(String overlayId, Polyline polyline, OverlayInfo overlayInfo) {
+        CoordinateBuffer points = overlayInfo.getCoordinates();
+        if (points.size() < 2) {
+            // 百度地图折线至少需要两个点，点数不足时先隐藏
+            clearPolylineLod(overlayId);
+            polyline.setVisible(false);
+            return;
+        }
+        if (overlayInfo.isVisible() && !polyline.isVisible()) {
+            polyline.setVisible(true);
+        }
+        if (!shouldUseLod(points, overlayInfo)) {
+            clearPolylineLod(overlayId);
+            polyline.setPoints(points.toLatLngList());
+            return;
+        }
         
-        if (pattern != null) {
-            for (int i = 0; i < pattern.size(); i++) {
-                result.add(pattern.getInt(i));
+        PolylineLod lod = polylineLods.get(overlayId);
+        MapStatus mapStatus = baiduMap.getMapStatus();
+        if (lod != null && mapStatus != null) {
+            applyPolylineLod(overlayId, mapStatus.zoom, true);
+        } else {
+            polyline.setPoints(PolylineLod.decimate(points, LOD_INITIAL_MAX_POINTS));
+        }
+        if (lod == null && !pendingLodRequests.containsKey(overlayId)) {
+            buildPolylineLod(overlayId, points, overlayInfo.getSimplificationTolerance());
+        } else {
+            scheduleLodRebuild(overlayId);
+        }
+    }
+
+    /**
+     * 标记 LOD 过期，同一时间最多只有一次待执行的重建
+     */
+    private void scheduleLodRebuild(String overlayId) {
+        staleLods.add(overlayId);
+        if (lodRebuildScheduled) {
+            return;
+        }
+        lodRebuildScheduled = true;
+        mainHandler.postDelayed(this::rebuildStaleLods, LOD_REBUILD_INTERVAL_MS);
+    }
+
+    private void rebuildStaleLods() {
+        lodRebuildScheduled = false;
+        if (destroyed) {
+            return;
+        }
+        for (String overlayId : staleLods) {
+            OverlayInfo overlayInfo = overlays.get(overlayId);
+            if (overlayInfo != null && shouldUseLod(overlayInfo.getCoordinates(), overlayInfo)) {
+                buildPolylineLod(overlayId, overlayInfo.getCoordinates(), overlayInfo.getSimplificationTolerance());
+            }
+        }
+        staleLods.clear();
+    }
+
+    /**
+     * 更新折线：坐标、简化容差或最大点数变化时重新构建 LOD
+     */
+    private void updatePolyline(String overlayId, Polyline polyline, OverlayInfo overlayInfo, ReadableMap options) {
+        if (options.hasKey("coordinates") || options.hasKey("simplificationTolerance") || options.hasKey("maxPoints")) {
+            CoordinateBuffer points = overlayInfo.getCoordinates();
+            int maxPoints = overlayInfo.getMaxPoints();
+            if (maxPoints > 0 && points.size() > maxPoints) {
+                trimHead(overlayId, points, points.size() - maxPoints);
+            }
+            clearPolylineLod(overlayId);
+            refreshPolylinePoints(overlayId, polyline, overlayInfo);
+        }
+        if (options.hasKey("strokeWidth")) {
+            polyline.setWidth(getStrokeWidth(options));
+        }
+        if (options.hasKey("strokeColor")) {
+            polyline.setColor(getStrokeColor(options));
+        }
+        if (options.hasKey("strokePattern")) {
+            polyline.setDottedLine(overlayInfo.getStrokePattern().length > 0);
+        }
+        if (options.hasKey("visible")) {
+            polyline.setVisible(overlayInfo.isVisible());
+        }
+        if (options.hasKey("zIndex")) {
+            polyline.setZIndex(overlayInfo.getZIndex());
+        }
+    }
+
+    /**
+     * 按更新后的覆盖物信息修改多边形，只修改 options 中出现的属性
+     */
+    private void updatePolygon(Polygon polygon, OverlayInfo overlayInfo, ReadableMap options) {
+        if (options.hasKey("coordinates")) {
+            CoordinateBuffer points = overlayInfo.getCoordinates();
+            if (points.size() >= 3) {
+                polygon.setPoints(points.toLatLngList());
+            } else {
+                Log.w(TAG, "Polygon requires at least 3 points, keeping previous points");
             }
         }
+        if (options.hasKey("strokeWidth") || options.hasKey("strokeColor")) {
+            polygon.setStroke(new Stroke(overlayInfo.getStrokeWidth(), parseColor(overlayInfo.getStrokeColor())));
+        }
+        if (options.hasKey("fillColor")) {
+            polygon.setFillColor(parseColor(overlayInfo.getFillColor()));
+        }
+        if (options.hasKey("visible")) {
+            polygon.setVisible(overlayInfo.isVisible());
+        }
+        if (options.hasKey("zIndex")) {
+            polygon.setZIndex(overlayInfo.getZIndex());
+        }
+    }
+
+    /**
+     * 按更新后的覆盖物信息修改圆形，只修改 options 中出现的属性
+     */
+    private void updateCircle(Circle circle, OverlayInfo overlayInfo, ReadableMap options) {
+        OverlayInfo.CoordinateInfo center = overlayInfo.getCenter();
+        if (options.hasKey("center") && center != null) {
+            circle.setCenter(new LatLng(center.getLatitude(), center.getLongitude()));
+        }
+        if (options.hasKey("radius")) {
+            circle.setRadius(overlayInfo.getRadius());
+        }
+        if (options.hasKey("strokeWidth") || options.hasKey("strokeColor")) {
+            circle.setStroke(new Stroke(overlayInfo.getStrokeWidth(), parseColor(overlayInfo.getStrokeColor())));
+        }
+        if (options.hasKey("fillColor")) {
+            circle.setFillColor(parseColor(overlayInfo.getFillColor()));
+        }
+        if (options.hasKey("visible")) {
+            circle.setVisible(overlayInfo.isVisible());
+        }
+        if (options.hasKey("zIndex")) {
+            circle.setZIndex(overlayInfo.getZIndex());
+        }
+    }
+
+    private boolean shouldUseLod(CoordinateBuffer points, OverlayInfo overlayInfo) {
+        return overlayInfo.getSimplificationTolerance() > 0 && points.size() > LOD_MIN_POINTS;
+    }
+
+    /**
+     * 在后台线程构建折线 LOD，完成后回到主线程按当前缩放级别设置坐标
+     * 同一折线的旧请求结果会被丢弃
+     */
+    private void buildPolylineLod(String overlayId, CoordinateBuffer points, float tolerancePx) {
+        final int request = ++lodRequestCounter;
+        pendingLodRequests.put(overlayId, request);
+        // 坐标会被追加和裁剪修改，后台使用副本
+        final double[] snapshot = points.toArray();
+        final int trimBase = getTrimmedCount(overlayId);
         
+        getBackgroundExecutor().execute(() -> {
+            long start = System.currentTimeMillis();
+            PolylineLod lod = PolylineLod.build(snapshot, tolerancePx);
+            long elapsed = System.currentTimeMillis() - start;
+            
+            mainHandler.post(() -> {
+                Integer current = pendingLodRequests.get(overlayId);
+                if (destroyed || current == null || current != request) {
+                    return;
+                }
+                pendingLodRequests.remove(overlayId);
+                polylineLods.put(overlayId, lod);
+                lodTrimBases.put(overlayId, trimBase);
+                Log.d(TAG, "Polyline LOD built for " + overlayId + ": " + lod.getPointCount()
+                    + " points in " + elapsed + "ms");
+                MapStatus mapStatus = baiduMap.getMapStatus();
+                if (mapStatus != null) {
+                    applyPolylineLod(overlayId, mapStatus.zoom, true);
+                }
+            });
+        });
+    }
+
+    /**
+     * 切换折线到缩放级别对应的坐标，级别未变化且 force 为 false 时不做处理
+     */
+    private void applyPolylineLod(String overlayId, float zoom, boolean force) {
+        PolylineLod lod = polylineLods.get(overlayId);
+        Overlay overlay = baiduOverlays.get(overlayId);
+        OverlayInfo overlayInfo = overlays.get(overlayId);
+        if (lod == null || !(overlay instanceof Polyline) || overlayInfo == null) {
+            return;
+        }
+        int[] level = lod.levelFor(zoom);
+        if (!force && appliedPolylineLevels.get(overlayId) == level) {
+            return;
+        }
+        ((Polyline) overlay).setPoints(composeLodPoints(overlayId, lod, zoom, overlayInfo.getCoordinates()));
+        appliedPolylineLevels.put(overlayId, level);
+    }
+
+    /**
+     * 合成 LOD 构建之后有增量变化的坐标：去掉已裁剪的头部，再接上之后追加的点
+     */
+    private List<LatLng> composeLodPoints(String overlayId, PolylineLod lod, float zoom, CoordinateBuffer points) {
+        Integer trimBase = lodTrimBases.get(overlayId);
+        int trimmed = getTrimmedCount(overlayId) - (trimBase != null ? trimBase : 0);
+        // 构建时的坐标中仍保留的点数，位于当前列表开头
+        int retained = Math.max(0, lod.getPointCount() - trimmed);
+        List<LatLng> result = lod.pointsFor(zoom, trimmed);
+        points.appendTo(result, retained, points.size());
         return result;
     }
 
+    private ExecutorService getBackgroundExecutor() {
+        if (backgroundExecutor == null) {
+            backgroundExecutor = Executors.newSingleThreadExecutor();
+        }
+        return backgroundExecutor;
+    }
+
+    private ExecutorService getBatchExecutor() {
+        if (batchExecutor == null) {
+            batchExecutor = Executors.newSingleThreadExecutor();
+        }
+        return batchExecutor;
+    }
+
+    private void clearPolylineLod(String overlayId) {
+        polylineLods.remove(overlayId);
+        appliedPolylineLevels.remove(overlayId);
+        pendingLodRequests.remove(overlayId);
+        lodTrimBases.remove(overlayId);
+        staleLods.remove(overlayId);
+    }
+
+    /**
+     * 地图状态变化结束，切换折线 LOD 级别
+     */
+    public void onMapStatusChangeFinish(MapStatus mapStatus) {
+        if (mapStatus == null || polylineLods.isEmpty()) {
+            return;
+        }
+        for (String overlayId : polylineLods.keySet()) {
+            applyPolylineLod(overlayId, mapStatus.zoom, false);
+        }
+    }
+
     /**
      * 获取线条宽度
      */
@@ -424,7 +1001,16 @@ public class OverlayManager {
     public void destroy() {
         try {
             Log.d(TAG, "Destroying overlay manager");
+            destroyed = true;
             removeAllOverlays();
+            if (backgroundExecutor != null) {
+                backgroundExecutor.shutdownNow();
+                backgroundExecutor = null;
+            }
+            if (batchExecutor != null) {
+                batchExecutor.shutdownNow();
+                batchExecutor = null;
+            }
         } catch (Exception e) {
             Log.e(TAG, "Error destroying overlay manager", e);
         }
@@ -0,0 +1,226 @@
+package io.github.winyh.baidumap;
+
+import com.baidu.mapapi.model.LatLng;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 折线多级简化（LOD 金字塔）
+ * 对全部坐标做一次 Douglas-Peucker，记录每个点被保留时的偏离距离（重要度），
+ * 再按每个缩放级别的像素容差筛选出各级保留的下标。相邻级别结果相同时共享同一个下标数组。
+ * 坐标以 [lat, lng, ...] 数组保存，LatLng 列表只在设置到地图时按需生成。
+ * 构建在后台线程完成，之后只读；传入的坐标数组构建后不能再修改。
+ */
+public class PolylineLod {
+    public static final float DEFAULT_TOLERANCE_PX = 1f;
+    static final int MIN_ZOOM = 3;
+    static final int MAX_ZOOM = 21;
+    // 百度地图 18 级时约 1 墨卡托单位/像素，每级缩放翻倍
+    private static final int REFERENCE_ZOOM = 18;
+    private static final double METERS_PER_DEGREE = 6371008.8 * Math.PI / 180;
+
+    private final double[] coordinates;
+    private final int[][] levels;
+
+    private PolylineLod(double[] coordinates, int levelCount) {
+        this.coordinates = coordinates;
+        levels = new int[levelCount][];
+    }
+
+    /**
+     * 构建多级下标，coordinates 为 [lat, lng, ...]，tolerancePx 为屏幕上允许的最大偏离像素
+     */
+    public static PolylineLod build(double[] coordinates, float tolerancePx) {
+        int n = coordinates.length / 2;
+        float[] importance = computeImportance(coordinates, n);
+
+        double meanLat = 0;
+        for (int i = 0; i < n; i++) {
+            meanLat += coordinates[i * 2];
+        }
+        double cosLat = Math.cos(Math.toRadians(meanLat / Math.max(1, n)));
+
+        PolylineLod lod = new PolylineLod(coordinates, MAX_ZOOM - MIN_ZOOM + 1);
+        int[] finer = null;
+        for (int zoom = MAX_ZOOM; zoom >= MIN_ZOOM; zoom--) {
+            double tolerance = toleranceMeters(tolerancePx, zoom, cosLat);
+            int count = 0;
+            for (int i = 0; i < n; i++) {
+                if (importance[i] > tolerance) {
+                    count++;
+                }
+            }
+            int[] level;
+            if (finer != null && count == finer.length) {
+                level = finer;
+            } else {
+                level = new int[count];
+                int k = 0;
+                for (int i = 0; i < n; i++) {
+                    if (importance[i] > tolerance) {
+                        level[k++] = i;
+                    }
+                }
+            }
+            lod.levels[zoom - MIN_ZOOM] = level;
+            finer = level;
+        }
+        return lod;
+    }
+
+    /**
+     * 返回缩放级别保留的下标，小数级别按向上取整（更精细的一级）
+     * 结果相同的级别返回同一个数组，可用于判断级别是否变化
+     */
+    public int[] levelFor(float zoom) {
+        int index = (int) Math.ceil(zoom) - MIN_ZOOM;
+        return levels[Math.max(0, Math.min(levels.length - 1, index))];
+    }
+
+    /**
+     * 生成缩放级别对应的坐标，去掉前 fromIndex 个点，用于头部被裁剪、尚未重新构建的折线
+     * 新的起点作为端点始终保留
+     */
+    public List<LatLng> pointsFor(float zoom, int fromIndex) {
+        int[] level = levelFor(zoom);
+        List<LatLng> result = new ArrayList<>(level.length);
+        if (fromIndex >= getPointCount()) {
+            return result;
+        }
+        int k = 0;
+        if (fromIndex > 0) {
+            result.add(pointAt(fromIndex));
+            while (k < level.length && level[k] <= fromIndex) {
+                k++;
+            }
+        }
+        for (; k < level.length; k++) {
+            result.add(pointAt(level[k]));
+        }
+        return result;
+    }
+
+    /**
+     * 构建时的原始点数
+     */
+    public int getPointCount() {
+        return coordinates.length / 2;
+    }
+
+    private LatLng pointAt(int index) {
+        return new LatLng(coordinates[index * 2], coordinates[index * 2 + 1]);
+    }
+
+    /**
+     * 在后台简化完成前使用的等间隔抽稀，保留首尾点
+     */
+    public static List<LatLng> decimate(CoordinateBuffer points, int maxPoints) {
+        int n = points.size();
+        if (n <= maxPoints) {
+            return points.toLatLngList();
+        }
+        double step = (double) (n - 1) / (maxPoints - 1);
+        List<LatLng> result = new ArrayList<>(maxPoints);
+        for (int i = 0; i < maxPoints - 1; i++) {
+            int index = (int) (i * step);
+            result.add(new LatLng(points.getLatitude(index), points.getLongitude(index)));
+        }
+        result.add(new LatLng(points.getLatitude(n - 1), points.getLongitude(n - 1)));
+        return result;
+    }
+
+    private static double toleranceMeters(float tolerancePx, int zoom, double cosLat) {
+        return tolerancePx * Math.pow(2, REFERENCE_ZOOM - zoom) * cosLat;
+    }
+
+    /**
+     * 非递归的 Douglas-Peucker：每个点的重要度为其被选中时到所在线段的距离（米），
+     * 并且不超过父线段选中点的重要度，保证按阈值筛选的结果与直接简化一致。首尾点为无穷大
+     */
+    static float[] computeImportance(double[] coordinates, int n) {
+        float[] importance = new float[n];
+        if (n == 0) {
+            return importance;
+        }
+
+        // 以第一个点为原点投影到平面（米）
+        double originLat = coordinates[0];
+        double originLng = coordinates[1];
+        double cosLat = Math.cos(Math.toRadians(originLat));
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = (coordinates[i * 2 + 1] - originLng) * METERS_PER_DEGREE * cosLat;
+            ys[i] = (coordinates[i * 2] - originLat) * METERS_PER_DEGREE;
+        }
+
+        importance[0] = Float.POSITIVE_INFINITY;
+        importance[n - 1] = Float.POSITIVE_INFINITY;
+
+        // 待处理线段栈：起点、终点、父级重要度
+        int[] starts = new int[64];
+        int[] ends = new int[64];
+        float[] limits = new float[64];
+        int top = 0;
+        starts[top] = 0;
+        ends[top] = n - 1;
+        limits[top] = Float.POSITIVE_INFINITY;
+        top++;
+
+        while (top > 0) {
+            top--;
+            int start = starts[top];
+            int end = ends[top];
+            float limit = limits[top];
+            if (end - start < 2) {
+                continue;
+            }
+
+            double ax = xs[start];
+            double ay = ys[start];
+            double dx = xs[end] - ax;
+            double dy = ys[end] - ay;
+            double lengthSquared = dx * dx + dy * dy;
+
+            int farthest = -1;
+            double maxDistance = -1;
+            for (int i = start + 1; i < end; i++) {
+                double distance = segmentDistance(xs[i] - ax, ys[i] - ay, dx, dy, lengthSquared);
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    farthest = i;
+                }
+            }
+
+            float value = Math.min(limit, (float) maxDistance);
+            importance[farthest] = value;
+
+            if (top + 2 > starts.length) {
+                starts = Arrays.copyOf(starts, starts.length * 2);
+                ends = Arrays.copyOf(ends, ends.length * 2);
+                limits = Arrays.copyOf(limits, limits.length * 2);
+            }
+            starts[top] = start;
+            ends[top] = farthest;
+            limits[top] = value;
+            top++;
+            starts[top] = farthest;
+            ends[top] = end;
+            limits[top] = value;
+            top++;
+        }
+        return importance;
+    }
+
+    private static double segmentDistance(double px, double py, double dx, double dy, double lengthSquared) {
+        if (lengthSquared == 0) {
+            return Math.sqrt(px * px + py * py);
+        }
+        double t = Math.max(0, Math.min(1, (px * dx + py * dy) / lengthSquared));
+        double ex = px - t * dx;
+        double ey = py - t * dy;
+        return Math.sqrt(ex * ex + ey * ey);
+    }
+}
@@ -0,0 +1,140 @@
+package io.github.winyh.baidumap;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.baidu.mapapi.map.BitmapDescriptor;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+
+/**
+ * 网络图标异步加载器
+ * 进程级共享一个 OkHttp 连接池，下载和磁盘缓存由 IconFetcher 负责，相同 URL 只下载一次，
+ * 再按每种目标尺寸分别交给 IconDecoder 在后台解码，相同 URL 和尺寸的请求只解码一次。
+ * 回调统一在主线程执行。
+ */
+public class RemoteIconLoader {
+    private static final String TAG = "BaiduRemoteIconLoader";
+    private static final String DISK_CACHE_DIR = "baidu_map_icons";
+    private static final long MAX_DISK_CACHE_BYTES = 20L * 1024 * 1024;
+    // 单个图标的最大下载大小
+    private static final long MAX_DOWNLOAD_BYTES = 2L * 1024 * 1024;
+
+    private static volatile RemoteIconLoader instance;
+
+    private final ExecutorService ioExecutor;
+    private final Handler mainHandler;
+    private final IconFetcher iconFetcher;
+    private final IconDecoder iconDecoder;
+
+    // 正在进行的请求，按缓存键（URL + 尺寸）去重
+    private final Map<String, List<IconLoadCallback>> inFlight = new HashMap<>();
+
+    private RemoteIconLoader(Context context) {
+        Context appContext = context.getApplicationContext();
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+            .connectionPool(new ConnectionPool(4, 5, TimeUnit.MINUTES))
+            .connectTimeout(10, TimeUnit.SECONDS)
+            .readTimeout(15, TimeUnit.SECONDS)
+            .build();
+        this.ioExecutor = Executors.newSingleThreadExecutor();
+        this.mainHandler = new Handler(Looper.getMainLooper());
+        this.iconFetcher = new IconFetcher(httpClient, ioExecutor,
+            new File(appContext.getCacheDir(), DISK_CACHE_DIR), MAX_DISK_CACHE_BYTES, MAX_DOWNLOAD_BYTES);
+        this.iconDecoder = IconDecoder.getInstance(appContext);
+    }
+
+    public static RemoteIconLoader getInstance(Context context) {
+        if (instance == null) {
+            synchronized (RemoteIconLoader.class) {
+                if (instance == null) {
+                    instance = new RemoteIconLoader(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 异步加载网络图标，targetSizePx 为解码后长边的目标像素
+     */
+    public void load(String url, int targetSizePx, IconLoadCallback callback) {
+        final String cacheKey = BitmapDescriptorCache.key(url, targetSizePx);
+
+        synchronized (inFlight) {
+            List<IconLoadCallback> callbacks = inFlight.get(cacheKey);
+            if (callbacks != null) {
+                // 已有相同请求，等待其结果
+                callbacks.add(callback);
+                return;
+            }
+            callbacks = new ArrayList<>();
+            callbacks.add(callback);
+            inFlight.put(cacheKey, callbacks);
+        }
+
+        iconFetcher.fetch(url, new IconFetcher.Callback() {
+            @Override
+            public void onFetched(File file) {
+                decodeCachedFile(cacheKey, file, targetSizePx);
+            }
+
+            @Override
+            public void onFetchFailed(IOException error) {
+                Log.w(TAG, "Failed to download icon: " + url, error);
+                deliverFailure(cacheKey, error);
+            }
+        });
+    }
+
+    /**
+     * 解码磁盘缓存文件并分发结果，无法解码的缓存文件会被删除
+     */
+    private void decodeCachedFile(String cacheKey, File file, int targetSizePx) {
+        iconDecoder.decode(cacheKey, file.getPath(), targetSizePx, new IconLoadCallback() {
+            @Override
+            public void onIconLoaded(String key, BitmapDescriptor icon) {
+                for (IconLoadCallback callback : takeCallbacks(cacheKey)) {
+                    callback.onIconLoaded(cacheKey, icon);
+                }
+            }
+
+            @Override
+            public void onIconFailed(String key, Exception error) {
+                ioExecutor.execute(file::delete);
+                for (IconLoadCallback callback : takeCallbacks(cacheKey)) {
+                    callback.onIconFailed(cacheKey, error);
+                }
+            }
+        });
+    }
+
+    private void deliverFailure(String cacheKey, Exception error) {
+        final List<IconLoadCallback> callbacks = takeCallbacks(cacheKey);
+        mainHandler.post(() -> {
+            for (IconLoadCallback callback : callbacks) {
+                callback.onIconFailed(cacheKey, error);
+            }
+        });
+    }
+
+    private List<IconLoadCallback> takeCallbacks(String cacheKey) {
+        synchronized (inFlight) {
+            List<IconLoadCallback> callbacks = inFlight.remove(cacheKey);
+            return callbacks != null ? callbacks : new ArrayList<>();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.winyh.baidumap;
+
+import static org.junit.Assert.assertEquals;
+
+import com.baidu.mapapi.model.LatLng;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 500 个各 1000 点的多边形：CoordinateBuffer 与原先 OverlayInfo 中 List<CoordinateInfo> 的堆占用对比，
+ * 只输出结果不做断言，默认不参与单元测试（见 HeapMeter 的说明）
+ * 百度覆盖物自身持有的 List<LatLng> 两种方式都存在，单独测量；其大小取决于 classpath 上的 LatLng 实现
+ */
+public class CoordinateBufferBenchmark {
+    @Test
+    public void polygonGeometryHeap() {
+        int polygons = 500;
+        int pointsPerPolygon = 1000;
+
+        long before = HeapMeter.usedBytes();
+        List<List<OverlayInfo.CoordinateInfo>> objectLists = new ArrayList<>(polygons);
+        for (int p = 0; p < polygons; p++) {
+            List<OverlayInfo.CoordinateInfo> coordinates = new ArrayList<>(pointsPerPolygon);
+            for (int i = 0; i < pointsPerPolygon; i++) {
+                coordinates.add(new OverlayInfo.CoordinateInfo(30 + p * 1e-3, 120 + i * 1e-5));
+            }
+            objectLists.add(coordinates);
+        }
+        long objectBytes = HeapMeter.usedBytes() - before;
+        assertEquals(polygons, objectLists.size());
+        objectLists = null;
+
+        before = HeapMeter.usedBytes();
+        List<CoordinateBuffer> buffers = new ArrayList<>(polygons);
+        for (int p = 0; p < polygons; p++) {
+            CoordinateBuffer coordinates = new CoordinateBuffer(pointsPerPolygon);
+            for (int i = 0; i < pointsPerPolygon; i++) {
+                coordinates.add(30 + p * 1e-3, 120 + i * 1e-5);
+            }
+            buffers.add(coordinates);
+        }
+        long bufferBytes = HeapMeter.usedBytes() - before;
+
+        before = HeapMeter.usedBytes();
+        List<List<LatLng>> sdkLists = new ArrayList<>(polygons);
+        for (CoordinateBuffer coordinates : buffers) {
+            sdkLists.add(coordinates.toLatLngList());
+        }
+        long sdkBytes = HeapMeter.usedBytes() - before;
+        // 测量期间保持两组数据可达
+        assertEquals(polygons, sdkLists.size());
+        assertEquals(polygons, buffers.size());
+
+        System.out.println("500 x 1000-point polygons: CoordinateBuffer " + bufferBytes / 1024
+            + " KB, List<CoordinateInfo> " + objectBytes / 1024 + " KB, SDK List<LatLng> " + sdkBytes / 1024 + " KB");
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.winyh.baidumap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.baidu.mapapi.model.LatLng;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CoordinateBufferTest {
+    @Test
+    public void addGrowsAndKeepsOrder() {
+        CoordinateBuffer points = new CoordinateBuffer(1);
+        for (int i = 0; i < 100; i++) {
+            points.add(i, -i);
+        }
+
+        assertEquals(100, points.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, points.getLatitude(i), 0);
+            assertEquals(-i, points.getLongitude(i), 0);
+        }
+    }
+
+    @Test
+    public void trimHeadShiftsIndexes() {
+        CoordinateBuffer points = buffer(0, 10);
+        points.trimHead(4);
+
+        assertEquals(6, points.size());
+        assertEquals(4, points.getLatitude(0), 0);
+        assertArrayEquals(new double[] { 4, 4, 5, 5, 6, 6, 7, 7, 8, 8, 9, 9 }, points.toArray(), 0);
+
+        points.trimHead(100);
+        assertTrue(points.isEmpty());
+        points.add(1, 1);
+        assertEquals(1, points.getLatitude(0), 0);
+    }
+
+    @Test
+    public void appendAfterTrimReusesHeadSpace() {
+        CoordinateBuffer points = buffer(0, 16);
+        for (int round = 0; round < 100; round++) {
+            points.trimHead(8);
+            points.addAll(buffer(16 + round * 8, 8));
+        }
+
+        assertEquals(16, points.size());
+        for (int i = 0; i < 16; i++) {
+            assertEquals(800 + i, points.getLatitude(i), 0);
+        }
+    }
+
+    @Test
+    public void latLngRangesMatchStoredPoints() {
+        CoordinateBuffer points = buffer(0, 10);
+        points.trimHead(2);
+
+        List<LatLng> all = points.toLatLngList();
+        assertEquals(8, all.size());
+        assertEquals(2, all.get(0).latitude, 0);
+
+        List<LatLng> range = points.toLatLngList(3, 5);
+        assertEquals(2, range.size());
+        assertEquals(5, range.get(0).latitude, 0);
+
+        List<LatLng> appended = new ArrayList<>();
+        points.appendTo(appended, 6, 8);
+        assertEquals(9, appended.get(1).longitude, 0);
+    }
+
+    private static CoordinateBuffer buffer(int first, int count) {
+        CoordinateBuffer points = new CoordinateBuffer();
+        for (int i = first; i < first + count; i++) {
+            points.add(i, i);
+        }
+        return points;
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.winyh.baidumap;
+
+import static org.junit.Assert.assertEquals;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+
+import org.junit.Test;
+
+/**
+ * 10 万点路线三种输入的解析耗时，只输出结果不做断言，默认不参与单元测试
+ * 运行：./gradlew testDebugUnitTest -Pbenchmarks --tests '*Benchmark'
+ * JavaOnlyMap / JavaOnlyArray 基于 Java 集合，不含真实桥接下每次 hasKey / getDouble 的 JNI 开销，
+ * 对象数组在设备上的差距会更大
+ */
+public class CoordinateDecoderBenchmark {
+    @Test
+    public void parseOneHundredThousandPoints() {
+        int count = 100_000;
+        double[] coordinates = CoordinateDecoderTest.route(count);
+        JavaOnlyArray objects = new JavaOnlyArray();
+        JavaOnlyArray flat = new JavaOnlyArray();
+        for (int i = 0; i < count; i++) {
+            objects.pushMap(CoordinateDecoderTest.point(coordinates[i * 2], coordinates[i * 2 + 1]));
+            flat.pushDouble(coordinates[i * 2]);
+            flat.pushDouble(coordinates[i * 2 + 1]);
+        }
+        String encoded = CoordinateDecoderTest.encode(coordinates, 5);
+
+        long objectNanos = Long.MAX_VALUE;
+        long flatNanos = Long.MAX_VALUE;
+        long encodedNanos = Long.MAX_VALUE;
+        for (int run = 0; run < 10; run++) {
+            long start = System.nanoTime();
+            assertEquals(count, CoordinateDecoder.decodeObjectArray(objects).size());
+            objectNanos = Math.min(objectNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            assertEquals(count, CoordinateDecoder.decodeFlatArray(flat).size());
+            flatNanos = Math.min(flatNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            assertEquals(count, CoordinateDecoder.decodeEncodedPolyline(encoded, 5).size());
+            encodedNanos = Math.min(encodedNanos, System.nanoTime() - start);
+        }
+
+        System.out.println("Parse 100k points (best of 10): objects " + objectNanos / 1000 + "us, flat "
+            + flatNanos / 1000 + "us, encoded " + encodedNanos / 1000 + "us");
+    }
+}
@@ -0,0 +1,143 @@
+package io.github.winyh.baidumap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+
+import org.junit.Test;
+
+public class CoordinateDecoderTest {
+    // Google 文档中的示例：(38.5, -120.2), (40.7, -120.95), (43.252, -126.453)
+    private static final String SAMPLE = "_p~iF~ps|U_ulLnnqC_mqNvxq`@";
+
+    @Test
+    public void decodesEncodedPolyline() {
+        CoordinateBuffer points = CoordinateDecoder.decodeEncodedPolyline(SAMPLE, 5);
+
+        assertEquals(3, points.size());
+        assertEquals(38.5, points.getLatitude(0), 1e-9);
+        assertEquals(-120.2, points.getLongitude(0), 1e-9);
+        assertEquals(43.252, points.getLatitude(2), 1e-9);
+        assertEquals(-126.453, points.getLongitude(2), 1e-9);
+    }
+
+    @Test
+    public void encodedPrecisionComesFromOptionsOrDefault() {
+        JavaOnlyMap options = new JavaOnlyMap();
+        options.putString("coordinates", SAMPLE);
+
+        assertEquals(38.5, CoordinateDecoder.decode(options, "coordinates").getLatitude(0), 1e-9);
+        assertEquals(3.85, CoordinateDecoder.decode(options, "coordinates", 6).getLatitude(0), 1e-9);
+
+        options.putInt("encodedPrecision", 5);
+        assertEquals(38.5, CoordinateDecoder.decode(options, "coordinates", 6).getLatitude(0), 1e-9);
+    }
+
+    @Test
+    public void decodesFlatAndObjectArrays() {
+        JavaOnlyMap options = new JavaOnlyMap();
+        options.putArray("coordinates", JavaOnlyArray.of(39.9, 116.4, 31.2, 121.5));
+        CoordinateBuffer flat = CoordinateDecoder.decode(options, "coordinates");
+
+        JavaOnlyArray objects = new JavaOnlyArray();
+        objects.pushMap(point(39.9, 116.4));
+        objects.pushMap(new JavaOnlyMap());
+        objects.pushMap(point(31.2, 121.5));
+        options.putArray("coordinates", objects);
+        CoordinateBuffer parsed = CoordinateDecoder.decode(options, "coordinates");
+
+        assertEquals(2, flat.size());
+        assertEquals(2, parsed.size());
+        for (int i = 0; i < 2; i++) {
+            assertEquals(flat.getLatitude(i), parsed.getLatitude(i), 0);
+            assertEquals(flat.getLongitude(i), parsed.getLongitude(i), 0);
+        }
+    }
+
+    @Test
+    public void missingCoordinatesDecodeToEmptyBuffer() {
+        assertTrue(CoordinateDecoder.decode(null, "coordinates").isEmpty());
+        assertTrue(CoordinateDecoder.decode(new JavaOnlyMap(), "coordinates").isEmpty());
+        JavaOnlyMap options = new JavaOnlyMap();
+        options.putArray("coordinates", new JavaOnlyArray());
+        assertTrue(CoordinateDecoder.decode(options, "coordinates").isEmpty());
+    }
+
+    @Test
+    public void rejectsMalformedInput() {
+        try {
+            CoordinateDecoder.decodeFlatArray(JavaOnlyArray.of(1.0, 2.0, 3.0));
+            fail("odd length accepted");
+        } catch (IllegalArgumentException expected) {
+            // 预期异常
+        }
+        try {
+            CoordinateDecoder.decodeEncodedPolyline(SAMPLE.substring(0, SAMPLE.length() - 1), 5);
+            fail("truncated string accepted");
+        } catch (IllegalArgumentException expected) {
+            // 预期异常
+        }
+        try {
+            CoordinateDecoder.decodeEncodedPolyline("_p~iF ps|U", 5);
+            fail("invalid character accepted");
+        } catch (IllegalArgumentException expected) {
+            // 预期异常
+        }
+    }
+
+    @Test
+    public void encodeDecodeRoundTrip() {
+        double[] coordinates = route(1000);
+        CoordinateBuffer points = CoordinateDecoder.decodeEncodedPolyline(encode(coordinates, 6), 6);
+
+        assertEquals(1000, points.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(coordinates[i * 2], points.getLatitude(i), 1e-6);
+            assertEquals(coordinates[i * 2 + 1], points.getLongitude(i), 1e-6);
+        }
+    }
+
+    static JavaOnlyMap point(double latitude, double longitude) {
+        JavaOnlyMap point = new JavaOnlyMap();
+        point.putDouble("latitude", latitude);
+        point.putDouble("longitude", longitude);
+        return point;
+    }
+
+    static double[] route(int count) {
+        double[] coordinates = new double[count * 2];
+        for (int i = 0; i < count; i++) {
+            coordinates[i * 2] = 39.9 + Math.sin(i / 100.0) * 0.01 + i * 1e-6;
+            coordinates[i * 2 + 1] = 116.4 + Math.cos(i / 80.0) * 0.01 + i * 1e-6;
+        }
+        return coordinates;
+    }
+
+    static String encode(double[] coordinates, int precision) {
+        double factor = Math.pow(10, precision);
+        StringBuilder builder = new StringBuilder();
+        long previousLat = 0;
+        long previousLng = 0;
+        for (int i = 0; i < coordinates.length; i += 2) {
+            long lat = Math.round(coordinates[i] * factor);
+            long lng = Math.round(coordinates[i + 1] * factor);
+            encodeValue(lat - previousLat, builder);
+            encodeValue(lng - previousLng, builder);
+            previousLat = lat;
+            previousLng = lng;
+        }
+        return builder.toString();
+    }
+
+    private static void encodeValue(long value, StringBuilder builder) {
+        long v = value < 0 ? ~(value << 1) : value << 1;
+        while (v >= 0x20) {
+            builder.append((char) ((0x20 | (v & 0x1f)) + 63));
+            v >>= 5;
+        }
+        builder.append((char) (v + 63));
+    }
+}
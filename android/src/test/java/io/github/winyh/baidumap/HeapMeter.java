@@ -0,0 +1,27 @@
+package io.github.winyh.baidumap;
+
+/**
+ * 基准测试用的堆占用测量，通过多次 GC 后比较 Runtime 的已用内存
+ * System.gc() 不保证执行，结果只用于数量级比较，不能作为断言条件；
+ * 不同 JVM 的对象头和指针压缩也会影响绝对值
+ */
+final class HeapMeter {
+    private HeapMeter() {
+    }
+
+    static long usedBytes() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
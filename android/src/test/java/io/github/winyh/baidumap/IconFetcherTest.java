@@ -0,0 +1,190 @@
+package io.github.winyh.baidumap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+
+public class IconFetcherTest {
+    private static final long MAX_CACHE_BYTES = 1024;
+    private static final long MAX_DOWNLOAD_BYTES = 256;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private ExecutorService ioExecutor;
+    private File cacheDir;
+    private IconFetcher fetcher;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        ioExecutor = Executors.newSingleThreadExecutor();
+        cacheDir = temporaryFolder.newFolder("icons");
+        fetcher = new IconFetcher(new OkHttpClient(), ioExecutor, cacheDir, MAX_CACHE_BYTES, MAX_DOWNLOAD_BYTES);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        ioExecutor.shutdownNow();
+        server.shutdown();
+    }
+
+    @Test
+    public void concurrentRequestsForSameUrlDownloadOnce() throws Exception {
+        server.enqueue(new MockResponse().setBody(body(100)).setBodyDelay(200, TimeUnit.MILLISECONDS));
+        String url = server.url("/icon.png").toString();
+
+        Result first = new Result();
+        Result second = new Result();
+        fetcher.fetch(url, first);
+        fetcher.fetch(url, second);
+
+        first.await();
+        second.await();
+        assertEquals(1, server.getRequestCount());
+        assertNotNull(first.file);
+        assertSame(first.file, second.file);
+        assertArrayEquals(body(100).readByteArray(), Files.readAllBytes(first.file.toPath()));
+    }
+
+    @Test
+    public void cachedFileIsServedWithoutNetwork() throws Exception {
+        server.enqueue(new MockResponse().setBody(body(50)));
+        String url = server.url("/icon.png").toString();
+
+        Result first = new Result();
+        fetcher.fetch(url, first);
+        first.await();
+
+        Result second = new Result();
+        fetcher.fetch(url, second);
+        second.await();
+
+        assertEquals(1, server.getRequestCount());
+        assertEquals(first.file, second.file);
+    }
+
+    @Test
+    public void oversizedDownloadFailsWithoutLeavingFiles() throws Exception {
+        server.enqueue(new MockResponse().setBody(body((int) MAX_DOWNLOAD_BYTES + 1)));
+        String url = server.url("/large.png").toString();
+
+        Result result = new Result();
+        fetcher.fetch(url, result);
+        result.await();
+
+        assertNull(result.file);
+        assertNotNull(result.error);
+        assertFalse(fetcher.fileFor(url).exists());
+        assertEquals(0, cacheDir.list().length);
+    }
+
+    @Test
+    public void chunkedOversizedDownloadFails() throws Exception {
+        server.enqueue(new MockResponse().setChunkedBody(body((int) MAX_DOWNLOAD_BYTES * 2), 64));
+        String url = server.url("/chunked.png").toString();
+
+        Result result = new Result();
+        fetcher.fetch(url, result);
+        result.await();
+
+        assertNotNull(result.error);
+        assertEquals(0, cacheDir.list().length);
+    }
+
+    @Test
+    public void httpErrorIsReportedToEveryWaiter() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(404).setBodyDelay(100, TimeUnit.MILLISECONDS));
+        String url = server.url("/missing.png").toString();
+
+        Result first = new Result();
+        Result second = new Result();
+        fetcher.fetch(url, first);
+        fetcher.fetch(url, second);
+        first.await();
+        second.await();
+
+        assertNotNull(first.error);
+        assertNotNull(second.error);
+        assertEquals(1, server.getRequestCount());
+        assertFalse(fetcher.fileFor(url).exists());
+    }
+
+    @Test
+    public void trimEvictsOldestAndKeepsTempFiles() throws Exception {
+        File oldest = writeFile("a", 600, 1000);
+        File newest = writeFile("b", 600, 2000);
+        File temp = writeFile("c" + IconFetcher.TEMP_SUFFIX, 600, 0);
+
+        fetcher.trimCache();
+
+        assertFalse(oldest.exists());
+        assertTrue(newest.exists());
+        assertTrue(temp.exists());
+    }
+
+    private File writeFile(String name, int size, long lastModified) throws IOException {
+        File file = new File(cacheDir, name);
+        try (FileOutputStream output = new FileOutputStream(file)) {
+            output.write(new byte[size]);
+        }
+        file.setLastModified(lastModified);
+        return file;
+    }
+
+    private static Buffer body(int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) i;
+        }
+        return new Buffer().write(bytes);
+    }
+
+    private static class Result implements IconFetcher.Callback {
+        private final CountDownLatch latch = new CountDownLatch(1);
+        volatile File file;
+        volatile IOException error;
+
+        @Override
+        public void onFetched(File file) {
+            this.file = file;
+            latch.countDown();
+        }
+
+        @Override
+        public void onFetchFailed(IOException error) {
+            this.error = error;
+            latch.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue("callback not invoked", latch.await(5, TimeUnit.SECONDS));
+        }
+    }
+}
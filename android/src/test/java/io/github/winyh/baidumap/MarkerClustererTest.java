@@ -0,0 +1,152 @@
+package io.github.winyh.baidumap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class MarkerClustererTest {
+    @Test
+    public void everyLevelAccountsForAllMarkers() {
+        MarkerClusterer clusterer = load(grid(20), 60);
+
+        for (int zoom = clusterer.getMinZoom(); zoom <= clusterer.getMaxZoom() + 1; zoom++) {
+            int total = 0;
+            for (MarkerClusterer.Cluster cluster : clusterer.getClusters(zoom)) {
+                total += cluster.getCount();
+            }
+            assertEquals("zoom " + zoom, 400, total);
+        }
+    }
+
+    @Test
+    public void clustersGetCoarserWhenZoomingOut() {
+        MarkerClusterer clusterer = load(grid(20), 60);
+
+        int previous = Integer.MAX_VALUE;
+        for (int zoom = clusterer.getMaxZoom() + 1; zoom >= clusterer.getMinZoom(); zoom--) {
+            int size = clusterer.getClusters(zoom).size();
+            assertTrue(size <= previous);
+            previous = size;
+        }
+        assertEquals(400, clusterer.getClusters(clusterer.getMaxZoom() + 1).size());
+        assertEquals(1, clusterer.getClusters(clusterer.getMinZoom()).size());
+    }
+
+    @Test
+    public void collectMarkerHandlesReturnsMembers() {
+        MarkerClusterer clusterer = load(grid(10), 60);
+        MarkerClusterer.Cluster root = clusterer.getClusters(clusterer.getMinZoom()).get(0);
+        assertFalse(root.isLeaf());
+        assertTrue(root.getExpansionZoom() > clusterer.getMinZoom());
+
+        IntArrayList handles = new IntArrayList();
+        MarkerClusterer.collectMarkerHandles(root, handles, Integer.MAX_VALUE);
+        Set<Integer> unique = new HashSet<>();
+        for (int i = 0; i < handles.size(); i++) {
+            unique.add(handles.get(i));
+        }
+        assertEquals(100, unique.size());
+
+        IntArrayList limited = new IntArrayList();
+        MarkerClusterer.collectMarkerHandles(root, limited, 7);
+        assertEquals(7, limited.size());
+    }
+
+    @Test
+    public void clusterKeysAreUniquePerLevelAndStableAcrossRebuilds() {
+        MarkerClusterer first = load(grid(20), 60);
+        MarkerClusterer second = load(grid(20), 60);
+
+        for (int zoom = first.getMinZoom(); zoom <= first.getMaxZoom() + 1; zoom++) {
+            Set<Long> keys = new HashSet<>();
+            for (MarkerClusterer.Cluster cluster : first.getClusters(zoom)) {
+                assertTrue(keys.add(cluster.getKey()));
+            }
+            Set<Long> rebuiltKeys = new HashSet<>();
+            for (MarkerClusterer.Cluster cluster : second.getClusters(zoom)) {
+                rebuiltKeys.add(cluster.getKey());
+            }
+            assertEquals("zoom " + zoom, keys, rebuiltKeys);
+        }
+    }
+
+    @Test
+    public void distantMarkersStaySeparate() {
+        int[] handles = { 0, 1 };
+        double[] lats = { 39.9, -33.9 };
+        double[] lngs = { 116.4, 151.2 };
+        MarkerClusterer clusterer = new MarkerClusterer(60, 3, 21);
+        clusterer.load(handles, lats, lngs, 2);
+
+        List<MarkerClusterer.Cluster> clusters = clusterer.getClusters(3);
+        assertEquals(2, clusters.size());
+        for (MarkerClusterer.Cluster cluster : clusters) {
+            assertTrue(cluster.isLeaf());
+            double lat = lats[cluster.getMarkerHandle()];
+            double lng = lngs[cluster.getMarkerHandle()];
+            assertEquals(lat, cluster.getLatitude(), 1e-9);
+            assertEquals(lng, cluster.getLongitude(), 1e-9);
+        }
+    }
+
+    @Test
+    public void negativeHandlesAreLeavesAndCollected() {
+        int[] handles = { -1, -2, 5 };
+        double[] lats = { 39.9, 39.9001, 39.9002 };
+        double[] lngs = { 116.4, 116.4001, 116.4002 };
+        MarkerClusterer clusterer = new MarkerClusterer(60, 3, 21);
+        clusterer.load(handles, lats, lngs, 3);
+
+        for (MarkerClusterer.Cluster leaf : clusterer.getClusters(clusterer.getMaxZoom() + 1)) {
+            assertTrue(leaf.isLeaf());
+        }
+        MarkerClusterer.Cluster root = clusterer.getClusters(3).get(0);
+        assertFalse(root.isLeaf());
+        assertEquals(3, root.getCount());
+        IntArrayList members = new IntArrayList();
+        MarkerClusterer.collectMarkerHandles(root, members, Integer.MAX_VALUE);
+        Set<Integer> unique = new HashSet<>();
+        for (int i = 0; i < members.size(); i++) {
+            unique.add(members.get(i));
+        }
+        assertEquals(new HashSet<>(Arrays.asList(-1, -2, 5)), unique);
+    }
+
+    @Test
+    public void clampZoomStaysInRange() {
+        MarkerClusterer clusterer = new MarkerClusterer(60, 3, 21);
+        assertEquals(3, clusterer.clampZoom(1.5f));
+        assertEquals(12, clusterer.clampZoom(12.9f));
+        assertEquals(22, clusterer.clampZoom(25f));
+    }
+
+    private static MarkerClusterer load(double[][] points, int radius) {
+        int count = points[0].length;
+        int[] handles = new int[count];
+        for (int i = 0; i < count; i++) {
+            handles[i] = i;
+        }
+        MarkerClusterer clusterer = new MarkerClusterer(radius,
+            MarkerClusterer.DEFAULT_MIN_ZOOM, MarkerClusterer.DEFAULT_MAX_ZOOM);
+        clusterer.load(handles, points[0], points[1], count);
+        return clusterer;
+    }
+
+    // size x size 的网格，间距约 100 米
+    private static double[][] grid(int size) {
+        double[] lats = new double[size * size];
+        double[] lngs = new double[size * size];
+        for (int i = 0; i < size * size; i++) {
+            lats[i] = 39.9 + (i / size) * 1e-3;
+            lngs[i] = 116.4 + (i % size) * 1e-3;
+        }
+        return new double[][] { lats, lngs };
+    }
+}
@@ -0,0 +1,156 @@
+package io.github.winyh.baidumap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+public class MarkerDatasetTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void roundTripsPointsAndDictionaries() throws IOException {
+        MarkerDatasetWriter writer = new MarkerDatasetWriter();
+        writer.add(39.9, 116.4, "北京", "https://example.com/a.png");
+        writer.add(31.2, 121.5, null, "https://example.com/a.png");
+        writer.add(22.5, 114.1, "深圳", null);
+        MarkerDataset dataset = MarkerDataset.open(write(writer));
+
+        assertEquals(3, dataset.size());
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < dataset.size(); i++) {
+            seen.add(dataset.getLatitude(i) + "," + dataset.getLongitude(i) + ","
+                + dataset.getTitle(i) + "," + dataset.getIcon(i));
+        }
+        assertTrue(seen.contains("39.9,116.4,北京,https://example.com/a.png"));
+        assertTrue(seen.contains("31.2,121.5,null,https://example.com/a.png"));
+        assertTrue(seen.contains("22.5,114.1,深圳,null"));
+    }
+
+    @Test
+    public void queryReturnsOnlyPointsInRange() throws IOException {
+        MarkerDataset dataset = MarkerDataset.open(write(grid(100)));
+
+        IntArrayList out = new IntArrayList();
+        dataset.query(10, 20, 20, 30, 0, out);
+
+        // 网格为 0..99 的整数坐标，[10, 20] x [20, 30] 内共 11 x 11 个点
+        assertEquals(121, out.size());
+        for (int i = 0; i < out.size(); i++) {
+            double lat = dataset.getLatitude(out.get(i));
+            double lng = dataset.getLongitude(out.get(i));
+            assertTrue(lat >= 10 && lat <= 20 && lng >= 20 && lng <= 30);
+        }
+    }
+
+    @Test
+    public void limitedQuerySamplesWholeRange() throws IOException {
+        MarkerDataset dataset = MarkerDataset.open(write(grid(100)));
+
+        IntArrayList out = new IntArrayList();
+        dataset.query(0, 0, 99, 99, 100, out);
+
+        assertTrue(out.size() <= 100 && out.size() >= 80);
+        // 抽样结果应分布在整个范围的四个象限，而不是集中在最先扫描的一条
+        int[] quadrants = new int[4];
+        for (int i = 0; i < out.size(); i++) {
+            int index = out.get(i);
+            int quadrant = (dataset.getLatitude(index) < 50 ? 0 : 2) + (dataset.getLongitude(index) < 50 ? 0 : 1);
+            quadrants[quadrant]++;
+        }
+        for (int count : quadrants) {
+            assertTrue("quadrant count " + count, count >= 15);
+        }
+    }
+
+    @Test
+    public void sampleKeepsEverythingUnderLimit() {
+        IntArrayList values = range(0, 10);
+        IntArrayList out = new IntArrayList();
+        MarkerDataset.sample(values, 20, out);
+        assertEquals(10, out.size());
+    }
+
+    @Test
+    public void sampleIsStableAcrossOverlappingRanges() {
+        IntArrayList first = new IntArrayList();
+        MarkerDataset.sample(range(0, 10000), 500, first);
+        IntArrayList second = new IntArrayList();
+        MarkerDataset.sample(range(1000, 11000), 500, second);
+
+        assertTrue(first.size() <= 500 && first.size() > 400);
+        Set<Integer> selected = new HashSet<>();
+        for (int i = 0; i < first.size(); i++) {
+            selected.add(first.get(i));
+        }
+        // 两次都在范围内的点，大部分应保持选中
+        int overlap = 0;
+        int candidates = 0;
+        for (int i = 0; i < second.size(); i++) {
+            int value = second.get(i);
+            if (value < 10000) {
+                candidates++;
+                if (selected.contains(value)) {
+                    overlap++;
+                }
+            }
+        }
+        assertTrue("overlap " + overlap + " of " + candidates, overlap >= candidates * 8 / 10);
+    }
+
+    @Test
+    public void queryOutsideDatasetIsEmpty() throws IOException {
+        MarkerDataset dataset = MarkerDataset.open(write(grid(10)));
+        IntArrayList out = new IntArrayList();
+        dataset.query(50, 50, 60, 60, 0, out);
+        assertTrue(out.isEmpty());
+    }
+
+    @Test
+    public void rejectsFilesWithoutHeader() throws IOException {
+        File file = temporaryFolder.newFile("bad.bin");
+        try (FileOutputStream output = new FileOutputStream(file)) {
+            output.write(new byte[128]);
+        }
+        try {
+            MarkerDataset.open(file);
+            fail("expected IOException");
+        } catch (IOException expected) {
+            // 预期异常
+        }
+    }
+
+    private MarkerDatasetWriter grid(int size) {
+        MarkerDatasetWriter writer = new MarkerDatasetWriter();
+        for (int lat = 0; lat < size; lat++) {
+            for (int lng = 0; lng < size; lng++) {
+                writer.add(lat, lng, null, null);
+            }
+        }
+        return writer;
+    }
+
+    private static IntArrayList range(int from, int to) {
+        IntArrayList values = new IntArrayList();
+        for (int i = from; i < to; i++) {
+            values.add(i);
+        }
+        return values;
+    }
+
+    private File write(MarkerDatasetWriter writer) throws IOException {
+        File file = temporaryFolder.newFile();
+        writer.write(file);
+        return file;
+    }
+}
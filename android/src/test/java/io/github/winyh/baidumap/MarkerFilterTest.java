@@ -0,0 +1,179 @@
+package io.github.winyh.baidumap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class MarkerFilterTest {
+    private static final String[] TYPES = { "truck", "van", "car" };
+
+    private MarkerAttributeIndex index;
+    private BitSet universe;
+
+    @Before
+    public void setUp() {
+        index = new MarkerAttributeIndex();
+        universe = new BitSet();
+        for (int slot = 0; slot < 30; slot++) {
+            Map<String, Object> attributes = new HashMap<>();
+            attributes.put("type", TYPES[slot % 3]);
+            attributes.put("active", slot % 2 == 0);
+            attributes.put("level", slot % 5);
+            index.set(slot, attributes);
+            universe.set(slot);
+        }
+    }
+
+    @Test
+    public void equalityAndArrayValues() {
+        assertFilter(expression("type", "truck"));
+        assertFilter(expression("type", Arrays.asList("truck", "van")));
+        // JS 数字都是 double，整数属性也应匹配
+        assertFilter(expression("level", 3.0));
+        assertFilter(expression("missing", "x"));
+    }
+
+    @Test
+    public void combinators() {
+        Map<String, Object> both = new HashMap<>();
+        both.put("type", "van");
+        both.put("active", true);
+        assertFilter(both);
+
+        assertFilter(Collections.<String, Object>singletonMap("any",
+            Arrays.asList(expression("type", "car"), expression("level", 0))));
+        assertFilter(Collections.<String, Object>singletonMap("all",
+            Arrays.asList(expression("active", false), expression("level", Arrays.asList(1, 2)))));
+        assertFilter(Collections.<String, Object>singletonMap("not", expression("type", "truck")));
+    }
+
+    @Test
+    public void rejectsMalformedExpressions() {
+        assertInvalid(null);
+        assertInvalid(Collections.<String, Object>singletonMap("all", "type"));
+        assertInvalid(Collections.<String, Object>singletonMap("not", "type"));
+        assertInvalid(expression("type", Collections.singletonMap("nested", 1)));
+    }
+
+    @Test
+    public void attributeIndexSharesValuesAndClearsSlots() {
+        assertSame(index.get(0, "type"), index.get(3, "type"));
+        assertEquals(10, index.slotsWithValue("type", "truck").cardinality());
+
+        index.clear(0);
+        assertNull(index.get(0, "type"));
+        assertNull(index.getAll(0));
+        assertEquals(9, index.slotsWithValue("type", "truck").cardinality());
+
+        index.set(3, null);
+        index.set(6, null);
+        for (int slot = 9; slot < 30; slot += 3) {
+            index.clear(slot);
+        }
+        assertNull(index.slotsWithValue("type", "truck"));
+    }
+
+    /**
+     * 批量求值的位图应与逐个槽位判断的结果一致
+     */
+    private void assertFilter(Map<String, Object> expression) {
+        MarkerFilter filter = MarkerFilter.parse(expression);
+        BitSet expected = new BitSet();
+        for (int slot = universe.nextSetBit(0); slot >= 0; slot = universe.nextSetBit(slot + 1)) {
+            if (filter.matches(index, slot)) {
+                expected.set(slot);
+            }
+        }
+        assertEquals(expression.toString(), expected, filter.evaluate(index, universe));
+        assertEquals(expected.cardinality(), bruteForce(expression));
+    }
+
+    /**
+     * 直接按属性值计算匹配数量，不经过索引
+     */
+    @SuppressWarnings("unchecked")
+    private int bruteForce(Map<String, Object> expression) {
+        int count = 0;
+        for (int slot = 0; slot < 30; slot++) {
+            if (evaluate(expression, slot)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean evaluate(Map<String, Object> expression, int slot) {
+        for (Map.Entry<String, Object> entry : expression.entrySet()) {
+            Object value = entry.getValue();
+            boolean result;
+            switch (entry.getKey()) {
+                case "all":
+                    result = true;
+                    for (Object child : (Iterable<Object>) value) {
+                        result &= evaluate((Map<String, Object>) child, slot);
+                    }
+                    break;
+                case "any":
+                    result = false;
+                    for (Object child : (Iterable<Object>) value) {
+                        result |= evaluate((Map<String, Object>) child, slot);
+                    }
+                    break;
+                case "not":
+                    result = !evaluate((Map<String, Object>) value, slot);
+                    break;
+                default:
+                    Object actual = attribute(entry.getKey(), slot);
+                    Iterable<Object> candidates = value instanceof Iterable
+                        ? (Iterable<Object>) value : Collections.singletonList(value);
+                    result = false;
+                    for (Object candidate : candidates) {
+                        result |= actual != null && actual.equals(MarkerAttributeIndex.normalize(candidate));
+                    }
+            }
+            if (!result) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object attribute(String name, int slot) {
+        switch (name) {
+            case "type":
+                return TYPES[slot % 3];
+            case "active":
+                return slot % 2 == 0;
+            case "level":
+                return (double) (slot % 5);
+            default:
+                return null;
+        }
+    }
+
+    private static Map<String, Object> expression(String name, Object value) {
+        Map<String, Object> expression = new HashMap<>();
+        expression.put(name, value);
+        return expression;
+    }
+
+    private static void assertInvalid(Map<String, Object> expression) {
+        try {
+            MarkerFilter.parse(expression);
+            fail("accepted " + expression);
+        } catch (IllegalArgumentException expected) {
+            // 预期异常
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.winyh.baidumap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class MarkerSpatialIndexTest {
+    @Test
+    public void queryMatchesBruteForce() {
+        Random random = new Random(42);
+        int count = 5000;
+        double[] lats = new double[count];
+        double[] lngs = new double[count];
+        MarkerSpatialIndex index = new MarkerSpatialIndex();
+        for (int i = 0; i < count; i++) {
+            lats[i] = 39 + random.nextDouble();
+            lngs[i] = 116 + random.nextDouble();
+            index.insert(i, lats[i], lngs[i]);
+        }
+        assertEquals(count, index.size());
+
+        for (int q = 0; q < 20; q++) {
+            double minLat = 39 + random.nextDouble() * 0.8;
+            double minLng = 116 + random.nextDouble() * 0.8;
+            double maxLat = minLat + 0.2;
+            double maxLng = minLng + 0.2;
+
+            Set<Integer> expected = new HashSet<>();
+            for (int i = 0; i < count; i++) {
+                if (lats[i] >= minLat && lats[i] <= maxLat && lngs[i] >= minLng && lngs[i] <= maxLng) {
+                    expected.add(i);
+                }
+            }
+            IntArrayList out = new IntArrayList();
+            index.query(minLat, minLng, maxLat, maxLng, out);
+            assertEquals(expected, toSet(out));
+        }
+    }
+
+    @Test
+    public void removeAndUpdateMoveMarkers() {
+        MarkerSpatialIndex index = new MarkerSpatialIndex();
+        index.insert(1, 10, 10);
+        index.insert(2, 20, 20);
+
+        assertTrue(index.remove(1, 10, 10));
+        assertFalse(index.remove(1, 10, 10));
+        assertEquals(1, index.size());
+
+        index.update(2, 20, 20, -30, -30);
+        IntArrayList out = new IntArrayList();
+        index.query(19, 19, 21, 21, out);
+        assertTrue(out.isEmpty());
+        index.query(-31, -31, -29, -29, out);
+        assertEquals(1, out.size());
+        assertEquals(2, out.get(0));
+
+        index.clear();
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void nearestReturnsSortedDistancesWithinRadius() {
+        MarkerSpatialIndex index = new MarkerSpatialIndex();
+        for (int i = 0; i < 1000; i++) {
+            index.insert(i, 30 + i * 1e-4, 120);
+        }
+
+        IntArrayList handles = new IntArrayList();
+        DoubleArrayList distances = new DoubleArrayList();
+        index.nearest(30, 120, 0, 5, handles, distances);
+
+        assertEquals(5, handles.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, handles.get(i));
+            assertEquals(MarkerSpatialIndex.distanceMeters(30, 120, 30 + i * 1e-4, 120), distances.get(i), 1e-6);
+        }
+
+        handles.clear();
+        distances.clear();
+        index.nearest(30, 120, 100, 0, handles, distances);
+        int expected = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (MarkerSpatialIndex.distanceMeters(30, 120, 30 + i * 1e-4, 120) <= 100) {
+                expected++;
+            }
+        }
+        assertEquals(expected, handles.size());
+        for (int i = 1; i < distances.size(); i++) {
+            assertTrue(distances.get(i) >= distances.get(i - 1));
+        }
+    }
+
+    @Test
+    public void distanceIsGreatCircle() {
+        // 赤道上经度相差 1 度约 111.2 公里
+        assertEquals(111195, MarkerSpatialIndex.distanceMeters(0, 0, 0, 1), 10);
+        assertEquals(0, MarkerSpatialIndex.distanceMeters(39.9, 116.4, 39.9, 116.4), 0);
+    }
+
+    private static Set<Integer> toSet(IntArrayList values) {
+        Set<Integer> set = new HashSet<>();
+        for (int i = 0; i < values.size(); i++) {
+            set.add(values.get(i));
+        }
+        return set;
+    }
+}
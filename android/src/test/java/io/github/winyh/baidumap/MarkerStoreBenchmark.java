@@ -0,0 +1,59 @@
+package io.github.winyh.baidumap;
+
+import static org.junit.Assert.assertEquals;
+
+import com.baidu.mapapi.map.Marker;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 10 万个共用图标和标题的标记：SoA 存储与原先按ID索引的两个 HashMap 的堆占用对比，
+ * 只输出结果不做断言，默认不参与单元测试（见 HeapMeter 的说明）
+ * 百度标记对象本身两种方式都要持有，不计入
+ */
+public class MarkerStoreBenchmark {
+    private static final String ICON = "https://example.com/marker.png";
+    private static final String TITLE = "门店";
+
+    @Test
+    public void markerHeap() {
+        int count = 100_000;
+
+        long before = HeapMeter.usedBytes();
+        Map<String, MarkerInfo> objects = new HashMap<>();
+        Map<String, Marker> baiduMarkers = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String id = "marker_" + i;
+            MarkerInfo info = new MarkerInfo(id);
+            info.setLatitude(30 + i * 1e-5);
+            info.setLongitude(120 + i * 1e-5);
+            info.setTitle(TITLE);
+            info.setIconUri(ICON);
+            objects.put(id, info);
+            baiduMarkers.put(id, null);
+        }
+        long objectBytes = HeapMeter.usedBytes() - before;
+        assertEquals(count, objects.size() + baiduMarkers.size() - count);
+        objects = null;
+        baiduMarkers = null;
+
+        before = HeapMeter.usedBytes();
+        MarkerStore store = new MarkerStore();
+        MarkerInfo info = new MarkerInfo(null);
+        info.setTitle(TITLE);
+        info.setIconUri(ICON);
+        for (int i = 0; i < count; i++) {
+            info.setLatitude(30 + i * 1e-5);
+            info.setLongitude(120 + i * 1e-5);
+            store.add(info);
+        }
+        long storeBytes = HeapMeter.usedBytes() - before;
+        assertEquals(count, store.size());
+
+        System.out.println("MarkerStore heap per marker: " + storeBytes / count
+            + " B, HashMap: " + objectBytes / count + " B");
+    }
+}
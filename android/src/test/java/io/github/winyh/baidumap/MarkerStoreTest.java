@@ -0,0 +1,171 @@
+package io.github.winyh.baidumap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.facebook.react.bridge.JavaOnlyMap;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class MarkerStoreTest {
+    private static final String ICON = "https://example.com/marker.png";
+
+    @Test
+    public void handlesRoundTripThroughMarkerIds() {
+        MarkerStore store = new MarkerStore();
+        int handle = store.add(marker(39.9, 116.4));
+
+        assertEquals(handle, MarkerStore.handleOf(MarkerStore.idOf(handle)));
+        assertEquals(-1, MarkerStore.handleOf("overlay_1"));
+        assertEquals(-1, MarkerStore.handleOf("marker_x"));
+        assertEquals(39.9, store.getLatitude(handle), 0);
+        assertEquals(116.4, store.getLongitude(handle), 0);
+    }
+
+    @Test
+    public void removedHandleIsStaleAfterSlotReuse() {
+        MarkerStore store = new MarkerStore();
+        int first = store.add(marker(1, 1));
+        assertTrue(store.remove(first));
+        int second = store.add(marker(2, 2));
+
+        assertEquals(MarkerStore.slotOf(first), MarkerStore.slotOf(second));
+        assertNotEquals(first, second);
+        assertFalse(store.contains(first));
+        assertNull(store.get(first));
+        assertFalse(store.remove(first));
+        assertTrue(store.contains(second));
+    }
+
+    @Test
+    public void clearInvalidatesEveryHandle() {
+        MarkerStore store = new MarkerStore();
+        int first = store.add(marker(1, 1));
+        int second = store.add(marker(2, 2));
+        store.clear();
+
+        assertEquals(0, store.size());
+        int reused = store.add(marker(3, 3));
+        assertEquals(MarkerStore.slotOf(first), MarkerStore.slotOf(reused));
+        assertNotEquals(first, reused);
+        assertFalse(store.contains(first));
+        assertFalse(store.contains(second));
+        assertNull(store.get(MarkerStore.handleOf("marker_0")));
+        assertTrue(store.contains(reused));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void exhaustedSlotIsRetired() {
+        MarkerStore store = new MarkerStore();
+        int handle = store.add(marker(0, 0));
+        int slot = MarkerStore.slotOf(handle);
+        // 反复删除和添加直到该槽位代数用尽
+        while (MarkerStore.slotOf(handle) == slot) {
+            store.remove(handle);
+            handle = store.add(marker(0, 0));
+        }
+        store.clear();
+
+        for (int i = 0; i < 4; i++) {
+            assertNotEquals(slot, MarkerStore.slotOf(store.add(marker(i, i))));
+        }
+    }
+
+    @Test
+    public void updateReportsChangedFieldsOnly() {
+        MarkerStore store = new MarkerStore();
+        int handle = store.add(marker(1, 1));
+        store.setDecluttered(handle, true);
+
+        JavaOnlyMap options = new JavaOnlyMap();
+        options.putString("title", "A");
+        options.putDouble("alpha", 1.0);
+        int changed = store.update(handle, options);
+
+        assertEquals(MarkerInfo.FIELD_TITLE, changed);
+        assertEquals("A", store.get(handle).getTitle());
+        assertTrue("transient flags survive updates", store.isDecluttered(handle));
+        assertEquals(0, store.update(handle, options));
+    }
+
+    @Test
+    public void updateWithoutAttributesKeepsAttributeIndex() {
+        MarkerStore store = new MarkerStore();
+        MarkerInfo info = marker(1, 1);
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("type", "shop");
+        info.setAttributes(attributes);
+        int handle = store.add(info);
+        int slot = MarkerStore.slotOf(handle);
+
+        JavaOnlyMap coordinate = new JavaOnlyMap();
+        coordinate.putDouble("latitude", 5);
+        JavaOnlyMap options = new JavaOnlyMap();
+        options.putMap("coordinate", coordinate);
+
+        assertEquals(MarkerInfo.FIELD_POSITION, store.update(handle, options));
+        assertEquals(5, store.getLatitude(handle), 0);
+        assertEquals(1, store.getLongitude(handle), 0);
+        assertTrue(store.getAttributeIndex().slotsWithValue("type", "shop").get(slot));
+
+        JavaOnlyMap newAttributes = new JavaOnlyMap();
+        newAttributes.putString("type", "cafe");
+        JavaOnlyMap attributeOptions = new JavaOnlyMap();
+        attributeOptions.putMap("attributes", newAttributes);
+
+        assertEquals(MarkerInfo.FIELD_ATTRIBUTES, store.update(handle, attributeOptions));
+        assertNull(store.getAttributeIndex().slotsWithValue("type", "shop"));
+        assertTrue(store.getAttributeIndex().slotsWithValue("type", "cafe").get(slot));
+        assertEquals(0, store.update(handle, attributeOptions));
+    }
+
+    @Test
+    public void iconUrisAreShared() {
+        MarkerStore store = new MarkerStore();
+        MarkerInfo first = marker(1, 1);
+        first.setIconUri(new String(ICON));
+        MarkerInfo second = marker(2, 2);
+        second.setIconUri(new String(ICON));
+
+        int a = store.add(first);
+        int b = store.add(second);
+        assertTrue(store.getIconUri(a) == store.getIconUri(b));
+    }
+
+    @Test
+    public void pooledStringsAreReleasedWithTheirMarkers() {
+        MarkerStore store = new MarkerStore();
+        MarkerInfo first = marker(1, 1);
+        first.setTitle("a");
+        MarkerInfo second = marker(2, 2);
+        second.setTitle("a");
+        int a = store.add(first);
+        int b = store.add(second);
+
+        store.remove(a);
+        assertEquals("a", store.get(b).getTitle());
+        JavaOnlyMap options = new JavaOnlyMap();
+        options.putString("title", "b");
+        assertEquals(MarkerInfo.FIELD_TITLE, store.update(b, options));
+        assertEquals("b", store.get(b).getTitle());
+
+        // 复用的槽位不带旧字符串
+        int c = store.add(marker(3, 3));
+        assertNull(store.get(c).getTitle());
+        assertNull(store.get(c).getIconUri());
+    }
+
+    private static MarkerInfo marker(double latitude, double longitude) {
+        MarkerInfo info = new MarkerInfo(null);
+        info.setLatitude(latitude);
+        info.setLongitude(longitude);
+        return info;
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.winyh.baidumap;
+
+import static org.junit.Assert.assertEquals;
+
+import com.facebook.react.bridge.JavaOnlyMap;
+
+import org.junit.Test;
+
+public class OverlayInfoTest {
+    // (38.5, -120.2), (40.7, -120.95), (43.252, -126.453)，精度 5
+    private static final String SAMPLE = "_p~iF~ps|U_ulLnnqC_mqNvxq`@";
+
+    @Test
+    public void encodedPrecisionIsKeptForLaterUpdates() {
+        JavaOnlyMap options = new JavaOnlyMap();
+        options.putString("coordinates", SAMPLE);
+        options.putInt("encodedPrecision", 6);
+        OverlayInfo overlayInfo = new OverlayInfo("polyline_1", "polyline", options);
+        assertEquals(3.85, overlayInfo.getCoordinates().getLatitude(0), 1e-9);
+
+        JavaOnlyMap update = new JavaOnlyMap();
+        update.putString("coordinates", SAMPLE);
+        overlayInfo.updateFromReadableMap(update);
+
+        assertEquals(6, overlayInfo.getEncodedPrecision());
+        assertEquals(3.85, overlayInfo.getCoordinates().getLatitude(0), 1e-9);
+    }
+
+    @Test
+    public void sharedStyleCarriesEncodedPrecision() {
+        JavaOnlyMap style = new JavaOnlyMap();
+        style.putInt("encodedPrecision", 6);
+        style.putString("strokeColor", "#FF0000");
+        OverlayInfo template = new OverlayInfo(null, null, style);
+
+        OverlayInfo overlayInfo = new OverlayInfo("polygon_1", "polygon", null);
+        overlayInfo.copyStyleFrom(template);
+        JavaOnlyMap item = new JavaOnlyMap();
+        item.putString("coordinates", SAMPLE);
+        overlayInfo.updateFromReadableMap(item);
+
+        assertEquals("#FF0000", overlayInfo.getStrokeColor());
+        assertEquals(3.85, overlayInfo.getCoordinates().getLatitude(0), 1e-9);
+    }
+}
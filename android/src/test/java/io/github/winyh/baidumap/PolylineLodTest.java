@@ -0,0 +1,106 @@
+package io.github.winyh.baidumap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.baidu.mapapi.model.LatLng;
+
+import org.junit.Test;
+
+import java.util.List;
+
+public class PolylineLodTest {
+    @Test
+    public void straightLineKeepsOnlyEndpoints() {
+        double[] coordinates = new double[200];
+        for (int i = 0; i < 100; i++) {
+            coordinates[i * 2] = 30;
+            coordinates[i * 2 + 1] = 120 + i * 1e-4;
+        }
+        PolylineLod lod = PolylineLod.build(coordinates, 1f);
+
+        for (int zoom = PolylineLod.MIN_ZOOM; zoom <= PolylineLod.MAX_ZOOM; zoom++) {
+            int[] level = lod.levelFor(zoom);
+            assertEquals(2, level.length);
+            assertEquals(0, level[0]);
+            assertEquals(99, level[1]);
+        }
+    }
+
+    @Test
+    public void levelsGetCoarserAsZoomDecreases() {
+        PolylineLod lod = PolylineLod.build(zigzag(5000), 1f);
+
+        int previous = Integer.MAX_VALUE;
+        for (int zoom = PolylineLod.MAX_ZOOM; zoom >= PolylineLod.MIN_ZOOM; zoom--) {
+            int[] level = lod.levelFor(zoom);
+            assertTrue(level.length <= previous);
+            assertEquals(0, level[0]);
+            assertEquals(4999, level[level.length - 1]);
+            for (int i = 1; i < level.length; i++) {
+                assertTrue(level[i] > level[i - 1]);
+            }
+            previous = level.length;
+        }
+        assertTrue(lod.levelFor(PolylineLod.MIN_ZOOM).length < lod.levelFor(PolylineLod.MAX_ZOOM).length);
+    }
+
+    @Test
+    public void fractionalZoomUsesFinerLevelAndEqualLevelsAreShared() {
+        PolylineLod lod = PolylineLod.build(zigzag(1000), 1f);
+
+        assertSame(lod.levelFor(12), lod.levelFor(11.2f));
+        assertSame(lod.levelFor(PolylineLod.MAX_ZOOM), lod.levelFor(25));
+        assertSame(lod.levelFor(PolylineLod.MIN_ZOOM), lod.levelFor(1));
+    }
+
+    @Test
+    public void pointsForSkipsTrimmedHead() {
+        PolylineLod lod = PolylineLod.build(zigzag(1000), 1f);
+
+        List<LatLng> all = lod.pointsFor(PolylineLod.MAX_ZOOM, 0);
+        assertEquals(lod.levelFor(PolylineLod.MAX_ZOOM).length, all.size());
+
+        List<LatLng> trimmed = lod.pointsFor(PolylineLod.MAX_ZOOM, 500);
+        assertEquals(zigzagLatitude(500), trimmed.get(0).latitude, 0);
+        assertTrue(trimmed.size() < all.size());
+        assertTrue(lod.pointsFor(PolylineLod.MAX_ZOOM, 1000).isEmpty());
+    }
+
+    @Test
+    public void decimateKeepsEndpointsAndLimit() {
+        CoordinateBuffer points = new CoordinateBuffer();
+        for (int i = 0; i < 10000; i++) {
+            points.add(i, i);
+        }
+        List<LatLng> result = PolylineLod.decimate(points, 100);
+
+        assertEquals(100, result.size());
+        assertEquals(0, result.get(0).latitude, 0);
+        assertEquals(9999, result.get(99).latitude, 0);
+        assertEquals(5, PolylineLod.decimate(smallBuffer(5), 100).size());
+    }
+
+    private static CoordinateBuffer smallBuffer(int count) {
+        CoordinateBuffer points = new CoordinateBuffer();
+        for (int i = 0; i < count; i++) {
+            points.add(i, i);
+        }
+        return points;
+    }
+
+    private static double[] zigzag(int count) {
+        double[] coordinates = new double[count * 2];
+        for (int i = 0; i < count; i++) {
+            coordinates[i * 2] = zigzagLatitude(i);
+            coordinates[i * 2 + 1] = 120 + i * 1e-4;
+        }
+        return coordinates;
+    }
+
+    // 振幅逐渐变化的锯齿，不同缩放级别保留的点数不同
+    private static double zigzagLatitude(int i) {
+        return 30 + (i % 2 == 0 ? 1 : -1) * (i % 97) * 1e-6 + Math.sin(i / 50.0) * 1e-2;
+    }
+}
@@ -7,6 +7,19 @@ import {
 import {
   MapViewProps,
   LatLng,
+  MarkerProps,
+  MarkerUpdate,
+  MarkerMoveOptions,
+  MarkerQueryResult,
+  LatLngBounds,
+  MarkerFileMapping,
+  MarkerDatasetOptions,
+  MarkerPoolStats,
+  MarkerFilterExpression,
+  PolylineOverlayOptions,
+  OverlayCoordinates,
+  OverlayBatchItem,
+  OverlayStyle,
   BaiduMapErrorCode,
 } from '../types';
 
@@ -31,6 +44,25 @@ export interface MapViewMethods {
   }>;
   takeSnapshot(): Promise<{ uri: string; path: string }>;
   clearCache(): Promise<void>;
+  addMarkers(markers: MarkerProps[]): Promise<(string | null)[]>;
+  updateMarkers(updates: MarkerUpdate[]): Promise<number>;
+  removeMarkers(markerIds: string[]): Promise<number>;
+  moveMarker(markerId: string, options: MarkerMoveOptions): Promise<boolean>;
+  queryMarkersNear(coordinate: LatLng, radiusMeters: number, limit?: number): Promise<MarkerQueryResult[]>;
+  queryMarkersInBounds(bounds: LatLngBounds, limit?: number): Promise<MarkerQueryResult[]>;
+  loadMarkersFromFile(uri: string, mapping?: MarkerFileMapping): Promise<string>;
+  cancelMarkersLoad(loadId: string): Promise<boolean>;
+  convertMarkerFile(uri: string, outputPath: string, mapping?: MarkerFileMapping): Promise<string>;
+  loadMarkerDataset(path: string, options?: MarkerDatasetOptions): Promise<string>;
+  removeMarkerDataset(datasetId: string): Promise<boolean>;
+  getMarkerPoolStats(): Promise<MarkerPoolStats>;
+  setMarkerFilter(filter: MarkerFilterExpression | null): Promise<number>;
+  addPolyline(options: PolylineOverlayOptions): Promise<string>;
+  addOverlays(overlays: OverlayBatchItem[], sharedStyle?: OverlayStyle): Promise<(string | null)[]>;
+  updateOverlay(overlayId: string, options: Partial<PolylineOverlayOptions>): Promise<boolean>;
+  removeOverlay(overlayId: string): Promise<boolean>;
+  appendPolylinePoints(overlayId: string, coordinates: OverlayCoordinates, encodedPrecision?: number): Promise<number>;
+  trimPolylineHead(overlayId: string, count: number): Promise<number>;
 }
 
 export class MapView extends Component<MapViewProps> implements MapViewMethods {
@@ -93,6 +125,95 @@ export class MapView extends Component<MapViewProps> implements MapViewMethods {
     await this.callMapMethod('clearCache');
   }
 
+  async addMarkers(markers: MarkerProps[]): Promise<(string | null)[]> {
+    return await this.callMapMethod('addMarkers', [markers]);
+  }
+
+  async updateMarkers(updates: MarkerUpdate[]): Promise<number> {
+    return await this.callMapMethod('updateMarkers', [updates]);
+  }
+
+  async removeMarkers(markerIds: string[]): Promise<number> {
+    return await this.callMapMethod('removeMarkers', [markerIds]);
+  }
+
+  async moveMarker(markerId: string, options: MarkerMoveOptions): Promise<boolean> {
+    return await this.callMapMethod('moveMarker', [markerId, options]);
+  }
+
+  async queryMarkersNear(
+    coordinate: LatLng,
+    radiusMeters: number,
+    limit: number = 0
+  ): Promise<MarkerQueryResult[]> {
+    return await this.callMapMethod('queryMarkersNear', [coordinate, radiusMeters, limit]);
+  }
+
+  async queryMarkersInBounds(bounds: LatLngBounds, limit: number = 0): Promise<MarkerQueryResult[]> {
+    return await this.callMapMethod('queryMarkersInBounds', [bounds, limit]);
+  }
+
+  async loadMarkersFromFile(uri: string, mapping: MarkerFileMapping = {}): Promise<string> {
+    return await this.callMapMethod('loadMarkersFromFile', [uri, mapping]);
+  }
+
+  async cancelMarkersLoad(loadId: string): Promise<boolean> {
+    return await this.callMapMethod('cancelMarkersLoad', [loadId]);
+  }
+
+  async convertMarkerFile(
+    uri: string,
+    outputPath: string,
+    mapping: MarkerFileMapping = {}
+  ): Promise<string> {
+    return await this.callMapMethod('convertMarkerFile', [uri, outputPath, mapping]);
+  }
+
+  async loadMarkerDataset(path: string, options: MarkerDatasetOptions = {}): Promise<string> {
+    return await this.callMapMethod('loadMarkerDataset', [path, options]);
+  }
+
+  async removeMarkerDataset(datasetId: string): Promise<boolean> {
+    return await this.callMapMethod('removeMarkerDataset', [datasetId]);
+  }
+
+  async getMarkerPoolStats(): Promise<MarkerPoolStats> {
+    return await this.callMapMethod('getMarkerPoolStats');
+  }
+
+  async setMarkerFilter(filter: MarkerFilterExpression | null): Promise<number> {
+    return await this.callMapMethod('setMarkerFilter', [filter]);
+  }
+
+  async addPolyline(options: PolylineOverlayOptions): Promise<string> {
+    return await this.callMapMethod('addPolyline', [options]);
+  }
+
+  async addOverlays(overlays: OverlayBatchItem[], sharedStyle?: OverlayStyle): Promise<(string | null)[]> {
+    return await this.callMapMethod('addOverlays', [overlays, sharedStyle || null]);
+  }
+
+  async updateOverlay(overlayId: string, options: Partial<PolylineOverlayOptions>): Promise<boolean> {
+    return await this.callMapMethod('updateOverlay', [overlayId, options]);
+  }
+
+  async removeOverlay(overlayId: string): Promise<boolean> {
+    return await this.callMapMethod('removeOverlay', [overlayId]);
+  }
+
+  async appendPolylinePoints(
+    overlayId: string,
+    coordinates: OverlayCoordinates,
+    encodedPrecision?: number
+  ): Promise<number> {
+    const options = encodedPrecision !== undefined ? { coordinates, encodedPrecision } : { coordinates };
+    return await this.callMapMethod('appendPolylinePoints', [overlayId, options]);
+  }
+
+  async trimPolylineHead(overlayId: string, count: number): Promise<number> {
+    return await this.callMapMethod('trimPolylineHead', [overlayId, count]);
+  }
+
   render() {
     return <RNBaiduMapView ref={this.mapRef} {...this.props} />;
   }
@@ -5,6 +5,7 @@ import {
   MapMethodResult,
   CoordinateType,
   LatLng,
+  MarkerIconCacheStats,
 } from '../types';
 
 const { BaiduMapModule: NativeBaiduMapModule } = NativeModules;
@@ -327,6 +328,26 @@ export class BaiduMapModule {
     }
     return await NativeBaiduMapModule.getCurrentLocation(options);
   }
+
+  /**
+   * 获取标记图标缓存统计（仅 Android）
+   */
+  static async getMarkerIconCacheStats(): Promise<MarkerIconCacheStats> {
+    if (!NativeBaiduMapModule) {
+      throw new Error('原生百度地图模块未找到');
+    }
+    return await NativeBaiduMapModule.getMarkerIconCacheStats();
+  }
+
+  /**
+   * 清空标记图标缓存（仅 Android）
+   */
+  static async clearMarkerIconCache(): Promise<boolean> {
+    if (!NativeBaiduMapModule) {
+      throw new Error('原生百度地图模块未找到');
+    }
+    return await NativeBaiduMapModule.clearMarkerIconCache();
+  }
 }
 
 export default BaiduMapModule;
\ No newline at end of file
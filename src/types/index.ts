@@ -88,6 +88,7 @@ export interface MarkerProps {
   title?: string;
   description?: string;
   icon?: string | number;
+  iconSize?: number;
   draggable?: boolean;
   visible?: boolean;
   zIndex?: number;
@@ -95,6 +96,116 @@ export interface MarkerProps {
   rotation?: number;
   flat?: boolean;
   anchor?: Point;
+  // 自定义属性，可通过 setMarkerFilter 在原生端过滤
+  attributes?: MarkerAttributes;
+}
+
+export type MarkerAttributeValue = string | number | boolean;
+
+export type MarkerAttributes = Record<string, MarkerAttributeValue>;
+
+// 属性等于给定值（数组表示任一值），多个属性同时满足；all / any / not 用于组合
+export type MarkerFilterExpression =
+  | { all: MarkerFilterExpression[] }
+  | { any: MarkerFilterExpression[] }
+  | { not: MarkerFilterExpression }
+  | Record<string, MarkerAttributeValue | MarkerAttributeValue[]>;
+
+export interface MarkerUpdate extends Partial<MarkerProps> {
+  id: string;
+}
+
+export type MarkerEasing = 'linear' | 'easeIn' | 'easeOut' | 'easeInOut';
+
+export interface MarkerMoveOptions {
+  coordinate: LatLng;
+  duration?: number;
+  easing?: MarkerEasing;
+  rotation?: number;
+}
+
+export interface LatLngBounds {
+  northeast: LatLng;
+  southwest: LatLng;
+}
+
+export interface MarkerQueryResult {
+  id: string;
+  coordinate: LatLng;
+  // 仅 queryMarkersNear 返回，单位米
+  distance?: number;
+}
+
+export interface MarkerFileMapping {
+  // 默认按扩展名判断，.csv 为 csv，其余为 geojson
+  format?: 'geojson' | 'csv';
+  // CSV 坐标列名，默认 latitude / longitude
+  latitudeField?: string;
+  longitudeField?: string;
+  // GeoJSON 属性名或 CSV 列名
+  titleField?: string;
+  descriptionField?: string;
+  iconField?: string;
+  // 所有标记的默认图标和图标尺寸
+  icon?: string;
+  iconSize?: number;
+  // 每批写入地图的标记数量，默认 1000
+  chunkSize?: number;
+  // CSV 分隔符，默认逗号
+  delimiter?: string;
+}
+
+export interface MarkerDatasetOptions {
+  // 数据点没有图标时使用的默认图标
+  icon?: string;
+  iconSize?: number;
+  // 视口内最多创建的标记数量，默认 2000；超出时在视口内均匀抽样，开启聚合时不限制
+  maxMarkers?: number;
+}
+
+export interface MarkersLoadProgressEvent {
+  loadId: string;
+  state: 'progress' | 'done' | 'cancelled' | 'error';
+  loaded: number;
+  skipped: number;
+  bytesRead: number;
+  // 无法获取文件大小时为 -1
+  totalBytes: number;
+  error?: string;
+}
+
+export interface RenderCompleteEvent {
+  // 本轮执行的分片数量
+  taskCount: number;
+  frameCount: number;
+  // 从第一个分片入队到队列清空的耗时（毫秒）
+  duration: number;
+}
+
+export interface MarkerBudgetChangeEvent {
+  // 视口内显示的标记数量
+  shownCount: number;
+  // 视口内超出渲染预算未显示的标记数量
+  hiddenCount: number;
+}
+
+export interface MarkerPoolStats {
+  enabled: boolean;
+  size: number;
+  maxSize: number;
+  hitCount: number;
+  missCount: number;
+  recycledCount: number;
+  evictionCount: number;
+}
+
+export interface MarkerIconCacheStats {
+  hitCount: number;
+  missCount: number;
+  evictionCount: number;
+  entryCount: number;
+  sizeBytes: number;
+  maxSizeBytes: number;
 }
 
 export interface MarkerClickEvent {
@@ -108,6 +219,16 @@ export interface MarkerDragEvent {
   state: MarkerDragState;
 }
 
+export interface ClusterPressEvent {
+  clusterId: number;
+  count: number;
+  expansionZoom: number;
+  coordinate: LatLng;
+  markerIds: string[];
+  // 聚合中未单独显示的数据集点（仅 Android）
+  datasetPoints?: { datasetId: string; datasetIndex: number }[];
+}
+
 export enum MarkerDragState {
   START = 'start',
   DRAG = 'drag',
@@ -131,6 +252,48 @@ export interface PolylineProps {
   visible?: boolean;
 }
 
+// 覆盖物坐标：对象数组、扁平数组 [lat, lng, lat, lng, ...] 或 Google 编码折线字符串
+export type OverlayCoordinates = LatLng[] | number[] | string;
+
+// 通过 MapView.addPolyline 添加的原生折线
+export interface PolylineOverlayOptions {
+  coordinates: OverlayCoordinates;
+  // coordinates 为编码折线时的精度（小数位数），默认 5；更新和追加坐标时未指定则沿用
+  encodedPrecision?: number;
+  strokeColor?: string;
+  strokeWidth?: number;
+  strokePattern?: number[];
+  visible?: boolean;
+  zIndex?: number;
+  // 简化容差（像素），点数超过 500 时按缩放级别简化显示，0 表示不简化，默认 1
+  simplificationTolerance?: number;
+  // 最多保留的点数，追加坐标超出时丢弃最早的点，0 表示不限制
+  maxPoints?: number;
+}
+
+// 通过 MapView.addOverlays 批量添加时整批共用的样式
+export interface OverlayStyle {
+  strokeColor?: string;
+  strokeWidth?: number;
+  fillColor?: string;
+  strokePattern?: number[];
+  visible?: boolean;
+  zIndex?: number;
+  simplificationTolerance?: number;
+  maxPoints?: number;
+}
+
+// 批量添加的单个覆盖物，样式字段覆盖共用样式
+export interface OverlayBatchItem extends OverlayStyle {
+  type: 'polyline' | 'polygon' | 'circle';
+  // 折线、多边形坐标
+  coordinates?: OverlayCoordinates;
+  encodedPrecision?: number;
+  // 圆形中心点和半径（米）
+  center?: LatLng;
+  radius?: number;
+}
+
 export interface PolygonProps {
   coordinates: LatLng[];
   strokeColor?: string;
@@ -283,10 +446,23 @@ export interface MapViewProps {
   buildingsEnabled?: boolean;
   trafficEnabled?: boolean;
   baiduHeatMapEnabled?: boolean;
+  clusteringEnabled?: boolean;
+  clusterRadius?: number;
+  markerCullingEnabled?: boolean;
+  markerCullingMargin?: number;
+  markerDeclutterEnabled?: boolean;
+  markerRenderBudget?: number;
+  markerPoolSize?: number;
+  markerDragEventInterval?: number;
+  renderFrameBudget?: number;
   onMapClick?: (event: MapClickEvent) => void;
   onMapLongClick?: (event: MapLongClickEvent) => void;
   onMapStatusChange?: (event: MapStatusChangeEvent) => void;
   onMapLoaded?: () => void;
+  onClusterPress?: (event: ClusterPressEvent) => void;
+  onMarkersLoadProgress?: (event: MarkersLoadProgressEvent) => void;
+  onRenderComplete?: (event: RenderCompleteEvent) => void;
+  onMarkerBudgetChange?: (event: MarkerBudgetChangeEvent) => void;
 }
 
 // 权限相关类型